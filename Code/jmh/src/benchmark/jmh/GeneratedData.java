@@ -0,0 +1,122 @@
+package benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import benchmark.generator.Generator;
+import benchmark.model.BSBMResource;
+import benchmark.model.Offer;
+import benchmark.model.Person;
+import benchmark.model.Producer;
+import benchmark.model.Product;
+import benchmark.model.Review;
+import benchmark.model.Vendor;
+import benchmark.serializer.ObjectBundle;
+import benchmark.serializer.Serializer;
+
+/*
+ * The resources of a small dataset, generated with the default seed, so every
+ * run converts the same entities. Generating it also sets up the
+ * distributions in Generator the serializers read.
+ * Needs titlewords.txt and givennames.txt in the working directory (GenData).
+ */
+@State(Scope.Benchmark)
+public class GeneratedData {
+	public static final int productCount = 1000;
+
+	private Map<String, List<Entity>> entities = new HashMap<String, List<Entity>>();
+
+	/*
+	 * A resource and the publisher of the bundle it was committed in
+	 */
+	public static class Entity {
+		final BSBMResource resource;
+		final String publisher;
+		final int publisherNum;
+		final long publishDate;
+
+		Entity(BSBMResource resource, ObjectBundle bundle) {
+			this.resource = resource;
+			publisher = bundle.getPublisher();
+			publisherNum = bundle.getPublisherNum();
+			publishDate = bundle.getPublishDate();
+		}
+
+		/*
+		 * Adds the resource to bundle, as it was committed by the generator
+		 */
+		public void addTo(ObjectBundle bundle) {
+			bundle.setPublisher(publisher);
+			bundle.setPublisherNum(publisherNum);
+			bundle.setPublishDate(publishDate);
+			bundle.add(resource);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void generate() {
+		Generator.generate(new Recorder(), "-pc", Integer.toString(productCount), "-pipeline", "0", "-progress", "0");
+	}
+
+	/*
+	 * The entities of a type: product, offer, review, person, producer or vendor
+	 */
+	public Entity[] get(String type) {
+		List<Entity> list = entities.get(type);
+		if(list==null)
+			throw new IllegalArgumentException("No entities of type " + type);
+		return list.toArray(new Entity[list.size()]);
+	}
+
+	private static String typeOf(BSBMResource resource) {
+		if(resource instanceof Product)
+			return "product";
+		else if(resource instanceof Offer)
+			return "offer";
+		else if(resource instanceof Review)
+			return "review";
+		else if(resource instanceof Person)
+			return "person";
+		else if(resource instanceof Producer)
+			return "producer";
+		else if(resource instanceof Vendor)
+			return "vendor";
+		return null;
+	}
+
+	private class Recorder implements Serializer {
+		@Override
+		public void gatherData(ObjectBundle bundle) {
+			Iterator<BSBMResource> it = bundle.iterator();
+			while(it.hasNext()) {
+				BSBMResource resource = it.next();
+				String type = typeOf(resource);
+				if(type==null)
+					continue;
+				List<Entity> list = entities.get(type);
+				if(list==null) {
+					list = new ArrayList<Entity>();
+					entities.put(type, list);
+				}
+				list.add(new Entity(resource, bundle));
+			}
+		}
+
+		@Override
+		public void serialize() {
+		}
+
+		@Override
+		public Long triplesGenerated() {
+			return 0L;
+		}
+	}
+}
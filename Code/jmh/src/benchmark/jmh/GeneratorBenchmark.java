@@ -0,0 +1,113 @@
+package benchmark.jmh;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.generator.Generator;
+import benchmark.generator.NormalDistRangeGenerator;
+import benchmark.generator.RandomBucket;
+import benchmark.generator.TextGenerator;
+import benchmark.generator.ValueGenerator;
+
+/*
+ * The random value generators of the data generator, with fixed seeds and
+ * the parameters the generator uses them with.
+ * Needs titlewords.txt in the working directory (GenData).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+	private static final long seed = 808080L;
+
+	/*
+	 * Sentences as for labels (1-3 words) and comments (20-50 words)
+	 */
+	@State(Scope.Thread)
+	public static class Text {
+		@Param({"3", "50"})
+		public int words;
+
+		private TextGenerator text;
+		private TextGenerator labels;//Counts the words, as for product labels
+
+		@Setup(Level.Trial)
+		public void setup() {
+			text = new TextGenerator("titlewords.txt", seed);
+			labels = new TextGenerator(text, seed);
+			labels.activateLogging(new HashMap<String, Integer>());
+		}
+	}
+
+	private RandomBucket countries;
+	private RandomBucket true70;
+	private ValueGenerator values;
+	private NormalDistRangeGenerator productNrs;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		countries = Generator.createCountryGenerator(seed);
+		true70 = new RandomBucket(2, seed);
+		true70.add(70, true);
+		true70.add(30, false);
+		values = new ValueGenerator(seed);
+		//Products of reviews, for 100000 products
+		productNrs = new NormalDistRangeGenerator(2, 1, 100000, 4, seed);
+	}
+
+	@Benchmark
+	public String randomSentence(Text state) {
+		return state.text.getRandomSentence(state.words);
+	}
+
+	@Benchmark
+	public String randomSentenceCountingWords(Text state) {
+		return state.labels.getRandomSentence(state.words);
+	}
+
+	@Benchmark
+	public Object randomBucket() {
+		return countries.getRandom();
+	}
+
+	@Benchmark
+	public boolean randomBucketBoolean() {
+		return true70.getRandomBoolean();
+	}
+
+	@Benchmark
+	public int valueInt() {
+		return values.randomInt(1, 10000);
+	}
+
+	@Benchmark
+	public double valueDouble() {
+		return values.randomDouble(5, 10000);
+	}
+
+	@Benchmark
+	public String valueSHA1() {
+		return values.randomSHA1();
+	}
+
+	@Benchmark
+	public int normalDistRange() {
+		return productNrs.getValue();
+	}
+}
@@ -0,0 +1,90 @@
+package benchmark.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.serializer.NTriples;
+import benchmark.serializer.ObjectBundle;
+import benchmark.serializer.SQLSerializer;
+import benchmark.serializer.Serializer;
+import benchmark.serializer.SerializerOutput;
+import benchmark.serializer.Turtle;
+
+/*
+ * Conversion of one entity by a serializer, the generated entities taken in
+ * turn. The output is formatted and encoded as for a file, but dropped
+ * (SerializerOutput.setDiscard), so the disk is not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+	@Param({"nt", "ttl", "sql"})
+	public String format;
+
+	@Param({"product", "offer", "review", "person"})
+	public String entity;
+
+	private File directory;
+	private Serializer serializer;
+	private GeneratedData.Entity[] entities;
+	private int next = 0;
+	private ObjectBundle bundle = new ObjectBundle(null);
+
+	@Setup(Level.Trial)
+	public void setup(GeneratedData data) throws IOException {
+		SerializerOutput.setDiscard(true);
+		directory = Files.createTempDirectory("bsbm-jmh").toFile();
+		String file = new File(directory, "dataset").getPath();
+		if(format.equals("nt"))
+			serializer = new NTriples(file, false);
+		else if(format.equals("ttl"))
+			serializer = new Turtle(file, false);
+		else
+			serializer = new SQLSerializer(file, false, "benchmark");
+		entities = data.get(entity);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		serializer.serialize();
+		SerializerOutput.setDiscard(false);
+		delete(directory);
+	}
+
+	@Benchmark
+	public void convert() {
+		entities[next].addTo(bundle);
+		if(++next==entities.length)
+			next = 0;
+		serializer.gatherData(bundle);
+		bundle.clear();
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if(children!=null)
+			for(File child: children)
+				delete(child);
+		file.delete();
+	}
+}
@@ -0,0 +1,83 @@
+package benchmark.testdriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import benchmark.generator.Generator;
+import benchmark.generator.TestDriverData;
+import benchmark.serializer.ObjectBundle;
+import benchmark.serializer.Serializer;
+
+/*
+ * The Test Driver data of a small dataset generated in memory, and the query
+ * templates of Run/queries. The benchmarks are in the package of the Test
+ * Driver to reach NetQuery and SPARQLConnection.countResults.
+ *
+ * Run in GenData (the generator needs titlewords.txt and givennames.txt),
+ * the query directory can be set with -Dbsbm.queries=<directory>.
+ */
+@State(Scope.Benchmark)
+public class DriverData {
+	public static final int productCount = 1000;
+	static final File queryDirectory = new File(System.getProperty("bsbm.queries", "../Run/queries"));
+
+	private TestDriverData data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = Generator.generate(new Serializer() {
+			public void gatherData(ObjectBundle bundle) {
+			}
+
+			public void serialize() {
+			}
+
+			public Long triplesGenerated() {
+				return 0L;
+			}
+		}, "-pc", Integer.toString(productCount), "-pipeline", "0", "-progress", "0");
+	}
+
+	/*
+	 * A parameter pool with the seed of the Test Driver
+	 */
+	public LocalSPARQLParameterPool createParameterPool() {
+		return new LocalSPARQLParameterPool(data, TestDriverDefaultValues.seed);
+	}
+
+	/*
+	 * A query template by query mix directory and number, e.g. explore/1
+	 */
+	public static Query loadQuery(String template) {
+		String[] parts = template.split("/");
+		File directory = new File(queryDirectory, parts[0]);
+		int nr = Integer.parseInt(parts[1]);
+		return new Query(new File(directory, "query" + nr + ".txt"), nr, new File(directory, "query" + nr + "desc.txt"), "%");
+	}
+
+	/*
+	 * The queries and the query mix (query numbers) of a query mix directory
+	 */
+	public static QueryMix loadQueryMix(String name) throws IOException {
+		File directory = new File(queryDirectory, name);
+		List<Integer> mix = new ArrayList<Integer>();
+		for(String nr: L.readWholeFile(new File(directory, "querymix.txt")).trim().split("\\s+"))
+			mix.add(Integer.valueOf(nr));
+
+		int maxNr = 0;
+		for(int nr: mix)
+			maxNr = Math.max(maxNr, nr);
+		Query[] queries = new Query[maxNr];
+		for(int nr: mix)
+			if(queries[nr-1]==null)
+				queries[nr-1] = loadQuery(name + "/" + nr);
+		return new QueryMix(queries, mix.toArray(new Integer[mix.size()]));
+	}
+}
@@ -0,0 +1,74 @@
+package benchmark.testdriver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * The work of the Test Driver per query before it is sent: drawing the
+ * parameters, filling in the template and building the HTTP request.
+ *
+ * update/1 and updateNG/1 are left out: their parameter is the next
+ * transaction read from the update dataset file. The request of an update
+ * is POSTed, which connects to the server, so netQuery only runs for the
+ * explore and bi queries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryTemplateBenchmark {
+	@Param({"explore/1", "explore/2", "explore/3", "explore/4", "explore/5", "explore/6",
+			"explore/7", "explore/8", "explore/9", "explore/10", "explore/11", "explore/12",
+			"bi/1", "bi/2", "bi/3", "bi/4", "bi/5", "bi/6", "bi/7", "bi/8",
+			"update/2", "updateNG/2"})
+	public String template;
+
+	private static final String serviceURL = "http://localhost:3030/bsbm/sparql";
+
+	private Query query;
+	private AbstractParameterPool parameterPool;
+	private String queryString;
+
+	@Setup(Level.Trial)
+	public void setup(DriverData data) {
+		query = DriverData.loadQuery(template);
+		parameterPool = data.createParameterPool();
+		query.setParameters(parameterPool.getParametersForQuery(query));
+		queryString = query.getQueryString();
+	}
+
+	@Benchmark
+	public Object[] parameters() {
+		Object[] parameters = parameterPool.getParametersForQuery(query);
+		query.setParameters(parameters);
+		return parameters;
+	}
+
+	@Benchmark
+	public String queryString() {
+		return query.getQueryString();
+	}
+
+	@Benchmark
+	public Object netQuery() {
+		if(query.getQueryType()==Query.UPDATE_TYPE)
+			return null;
+		NetQuery request = new NetQuery(serviceURL, queryString, query.getQueryType(), null, 0);
+		request.close();
+		return request;
+	}
+}
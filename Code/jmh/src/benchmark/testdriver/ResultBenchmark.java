@@ -0,0 +1,91 @@
+package benchmark.testdriver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.vocabulary.BSBM;
+
+/*
+ * The work of the Test Driver per query after the answer: counting the
+ * results of the XML result set and adding the time to the query mix
+ * statistics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBenchmark {
+	/*
+	 * A result set like the answers of the explore queries 1 and 6 (product
+	 * and label): query 1 has at most 10 results, query 6 can have many
+	 */
+	@State(Scope.Thread)
+	public static class ResultSet {
+		@Param({"0", "10", "100", "1000"})
+		public int results;
+
+		private byte[] xml;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			StringBuilder s = new StringBuilder();
+			s.append("<?xml version=\"1.0\"?>\n");
+			s.append("<sparql xmlns=\"http://www.w3.org/2005/sparql-results#\">\n");
+			s.append("  <head>\n    <variable name=\"product\"/>\n    <variable name=\"label\"/>\n  </head>\n");
+			s.append("  <results>\n");
+			for(int i=1;i<=results;i++) {
+				s.append("    <result>\n");
+				s.append("      <binding name=\"product\"><uri>" + BSBM.INST_NS + "dataFromProducer" + (i/20+1) + "/Product" + i + "</uri></binding>\n");
+				s.append("      <binding name=\"label\"><literal>glazier hotheads moated</literal></binding>\n");
+				s.append("    </result>\n");
+			}
+			s.append("  </results>\n");
+			s.append("</sparql>\n");
+			xml = s.toString().getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	/*
+	 * The explore query mix, as run by a client
+	 */
+	@State(Scope.Thread)
+	public static class Mix {
+		private QueryMix queryMix;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			queryMix = DriverData.loadQueryMix("explore");
+			queryMix.setRun(1);
+		}
+	}
+
+	@Benchmark
+	public int countResults(ResultSet resultSet) throws SocketTimeoutException {
+		return SPARQLConnection.countResults(new ByteArrayInputStream(resultSet.xml));
+	}
+
+	@Benchmark
+	public void setCurrent(Mix mix) {
+		QueryMix queryMix = mix.queryMix;
+		if(!queryMix.hasNext())
+			queryMix.finishRun();
+		queryMix.setCurrent(10, 0.01);
+	}
+}
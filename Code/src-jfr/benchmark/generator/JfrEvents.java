@@ -0,0 +1,85 @@
+package benchmark.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+
+/*
+ * Flight Recorder events of the generator, so a recording shows the phases
+ * and the progress next to GC and I/O. Only compiled on Java 11 and later
+ * (profile jfr of the pom), GeneratorEvents.load finds it by name.
+ */
+class JfrEvents implements GeneratorEvents {
+	@Name("benchmark.GeneratorPhase")
+	@Label("Generator Phase")
+	@Category("BSBM")
+	static class PhaseEvent extends Event {
+		@Label("Phase")
+		String phase;
+		@Label("Entities")
+		long entities;
+		@Label("Triples")
+		long triples;
+		@Label("Bytes Written")
+		@DataAmount
+		long bytesWritten;
+	}
+
+	@Name("benchmark.GeneratorProgress")
+	@Label("Generator Progress")
+	@Category("BSBM")
+	static class ProgressEvent extends Event {
+		@Label("Phase")
+		String phase;
+		@Label("Progress")
+		@Percentage
+		double progress;
+		@Label("Triples")
+		long triples;
+		@Label("Triples per Second")
+		double triplesPerSecond;
+		@Label("Bytes Written")
+		@DataAmount
+		long bytesWritten;
+		@Label("Pipeline Queue Depth")
+		int pipelineQueueDepth;
+		@Label("Shard Queue Depth")
+		int shardQueueDepth;
+	}
+
+	public Object beginPhase(String phase) {
+		PhaseEvent event = new PhaseEvent();
+		event.phase = phase;
+		event.begin();
+		return event;
+	}
+
+	public void endPhase(Object phaseEvent, long entities, long triples, long bytesWritten) {
+		PhaseEvent event = (PhaseEvent)phaseEvent;
+		event.end();
+		if(event.shouldCommit()) {
+			event.entities = entities;
+			event.triples = triples;
+			event.bytesWritten = bytesWritten;
+			event.commit();
+		}
+	}
+
+	public void progress(String phase, double progress, long triples, double triplesPerSecond, long bytesWritten,
+			int pipelineQueueDepth, int shardQueueDepth) {
+		ProgressEvent event = new ProgressEvent();
+		if(event.isEnabled()) {
+			event.phase = phase;
+			event.progress = progress;
+			event.triples = triples;
+			event.triplesPerSecond = triplesPerSecond;
+			event.bytesWritten = bytesWritten;
+			event.pipelineQueueDepth = pipelineQueueDepth;
+			event.shardQueueDepth = shardQueueDepth;
+			event.commit();
+		}
+	}
+}
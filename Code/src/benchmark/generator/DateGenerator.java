@@ -62,13 +62,9 @@ public class DateGenerator {
 	/*
 	 * Date between from and to
 	 */
-	public Long randomDateInMillis()
+	public long randomDateInMillis()
 	{
-		long date = (long)(ranGen.nextDouble()*(to-from)+from);
-		GregorianCalendar gc = new GregorianCalendar();
-		gc.setTime(new Date(date));
-		
-		return gc.getTimeInMillis();
+		return (long)(ranGen.nextDouble()*(to-from)+from);
 	}
 	
 	/*
@@ -95,7 +91,7 @@ public class DateGenerator {
 	/*
 	 * format the date
 	 */
-	public static String formatDate(Long date)
+	public static String formatDate(long date)
 	{
 		GregorianCalendar c = new GregorianCalendar();
 		c.setTimeInMillis(date);
@@ -106,7 +102,7 @@ public class DateGenerator {
 	/*
 	 * Format date in xsd:dateTime format
 	 */
-	public static String formatDateTime(Long date) {
+	public static String formatDateTime(long date) {
 		GregorianCalendar c = new GregorianCalendar();
 		c.setTimeInMillis(date);
 		
@@ -119,12 +115,8 @@ public class DateGenerator {
 		return dateString + "T00:00:00";
 	}
 	
-	public Long randomDateInMillis(Long from, Long to)
+	public long randomDateInMillis(long from, long to)
 	{
-		long date = (long)(ranGen.nextDouble()*(to-from)+from);
-		GregorianCalendar gc = new GregorianCalendar();
-		gc.setTime(new Date(date));
-		
-		return gc.getTimeInMillis();
+		return (long)(ranGen.nextDouble()*(to-from)+from);
 	}
 }
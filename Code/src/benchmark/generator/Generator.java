@@ -21,12 +21,18 @@ import benchmark.model.*;
 import benchmark.serializer.*;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
 
 import benchmark.vocabulary.*;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 public class Generator {
 	//Program parameters and default values
@@ -36,6 +42,23 @@ public class Generator {
 	private static String outputFileName = "dataset";
 	private static String serializerType = "nt"; 
 	private static int nrOfOutputFiles = 1;
+	private static int hashPartitioning = ParallelSerializer.ROUND_ROBIN;//How -nof output files are filled
+	private static Serializer[] partitions;//The serializers of the output files for -hash
+	private static int nrOfThreads = 0;//0: sequential generation, one random sequence per section
+	private static String compression = SerializerOutput.NONE;
+	private static int compressionLevel = -1;//zlib default
+	private static int nrOfPipelineBundles = 16;//0: serialize in the generating thread
+	private static int sortMemory = 0;//MB for sorting the output by subject, 0: unsorted
+	private static boolean writeStatistics = false;//stats.opt and JSON summary of the triple counts
+	private static int checkpointInterval = 0;//Seconds between checkpoints, 0: none
+	private static boolean resume = false;
+	private static int deltaBaseProductCount = 0;//>0: only write the difference to the dataset of this product count
+	private static int slice = 0;//-partition: the producers, vendors and rating sites of slice of nrOfSlices
+	private static int nrOfSlices = 1;
+	private static int progressInterval = 30;//Seconds between progress reports, 0: none
+	private static PipelinedSerializer pipeline;//The serializer queues for the progress reports, null: not used
+	private static ParallelSerializer parallelSerializer;
+	private static GeneratorMonitor monitor;
 	
 	//Update dataset parameters. Output type is always N-Triple.
 	private static boolean generateUpdateDataset = false;
@@ -44,8 +67,7 @@ public class Generator {
 	private static int nrOfTransactionsInUpdateDataset = 1000;
 	private static int nrOfProductsPerTransaction = 1;
 	private static int nrOfMinProductNrForUpdate = Integer.MAX_VALUE;
-	private static Serializer updateDatasetSerializer = null;
-	private static List<List<BSBMResource>> updateResourceData = null;
+	private static UpdateDatasetWriter updateDatasetWriter = null;
 	
 	//Ratios of different Resources
 	static final int productsVendorsRatio = 100;
@@ -69,8 +91,8 @@ public class Generator {
 	 
 	static GregorianCalendar today = new GregorianCalendar(2008,5,20);//Date of 2008-06-20
 	
-	static int offerCount;
-	static int reviewCount;
+	static long offerCount;
+	static long reviewCount;
 	static int productTypeCount;
 	static List<Integer> maxProductTypeNrPerLevel;
 	
@@ -78,50 +100,70 @@ public class Generator {
 
 	private static ArrayList<ProductType> productTypeLeaves;
 	private static ArrayList<ProductType> productTypeNodes;
-	public static ArrayList<Integer> producerOfProduct;//saves producer-product relationship
-	public static ArrayList<Integer> vendorOfOffer;//saves vendor-offer relationship
-	public static ArrayList<Integer> ratingsiteOfReview;//saves review-ratingSite relationship
+	public static IntList producerOfProduct;//saves producer-product relationship
+	public static LongList vendorOfOffer;//saves vendor-offer relationship
+	public static LongList ratingsiteOfReview;//saves review-ratingSite relationship
+	public static LongList personOfRatingSite;//saves person-ratingSite relationship
 	private static HashMap<String,Integer> wordList;//Word list for the Test driver
 	
 	private static Serializer serializer;
 	
+	//Sections with checkpoints, and where to continue a resumed run
+	private static final int PRODUCERS = 1;
+	private static final int VENDORS = 2;
+	private static final int RATING_SITES = 3;
+	private static int resumeSection = 0;
+	private static int resumePartitionNr = 1;
+	private static long lastCheckpoint;
+	private static DeltaSerializer deltaSerializer;//Only for -delta
+	
 	private static File outputDir;
 
 	//Set parameters
 	public static void init()
 	{
+		seedGenerator.setSeed(53223436L);//Same seeds for every dataset generated in this JVM
+		SerializerOutput.setResume(resume);//Continue the files of an interrupted run
+		
 		if(generateUpdateDataset) {
 			if(nrOfProductsPerTransaction*nrOfTransactionsInUpdateDataset > productCount) {
 				System.err.println("Product count not high enough to generate an update dataset of " + (nrOfProductsPerTransaction*nrOfTransactionsInUpdateDataset) + " products");
 				System.exit(-1);
 			}
 			nrOfMinProductNrForUpdate = productCount - nrOfProductsPerTransaction*nrOfTransactionsInUpdateDataset + 1;
-			updateDatasetSerializer = new NTriples(updateDatasetFileName, forwardChaining);
-			updateResourceData = new ArrayList<List<BSBMResource>>();
-			for(int i = 0; i<nrOfProductsPerTransaction*nrOfTransactionsInUpdateDataset; i++)
-				updateResourceData.add(new ArrayList<BSBMResource>());
+			updateDatasetWriter = new UpdateDatasetWriter(updateDatasetFileName, forwardChaining, nrOfProductsPerTransaction*nrOfTransactionsInUpdateDataset,
+					nrOfProductsPerTransaction, updateDatasetTransactionSeparator, checkpointInterval>0 || resume);
 		}
-		offerCount = productCount * avgOffersPerProduct;
+		offerCount = (long)productCount * avgOffersPerProduct;
 
-		reviewCount = avgReviewsPerProduct * productCount;
+		reviewCount = (long)avgReviewsPerProduct * productCount;
 		
-		producerOfProduct = new ArrayList<Integer>();
+		producerOfProduct = new IntList();
 		producerOfProduct.add(0);
-		vendorOfOffer = new ArrayList<Integer>();
-		vendorOfOffer.add(0);
-		ratingsiteOfReview = new ArrayList<Integer>();
-		ratingsiteOfReview.add(0);
+		vendorOfOffer = new LongList();
+		vendorOfOffer.add(0L);
+		ratingsiteOfReview = new LongList();
+		ratingsiteOfReview.add(0L);
+		personOfRatingSite = new LongList();
+		personOfRatingSite.add(0L);
 		
-		serializer = getSerializer(serializerType);
+		//Only the dataset gets compressed, the update dataset is read by the Test Driver
+		SerializerOutput.setCompression(compression, compressionLevel);
+		if(serializer==null)
+			serializer = getSerializer(serializerType);
 		if(serializer==null) {
 			System.err.println("Invalid Serializer chosen.");
 			System.exit(-1);
 		}
 
 		namedGraph = isNamedGraphSerializer();
+		if(writeStatistics)
+			serializer = new StatisticsSerializer(serializer, forwardChaining, getStatisticsFileName(), outputFileName + ".stats.json");
+		pipeline = null;
+		if(nrOfPipelineBundles>0)
+			serializer = pipeline = new PipelinedSerializer(serializer, nrOfPipelineBundles);
 		
 		outputDir = new File(outputDirectory);
-		outputDir.mkdirs();
 
 		wordList = new HashMap<String, Integer>();
 		
@@ -131,8 +173,18 @@ public class Generator {
 		System.out.println("");
 	}
 	
+	/*
+	 * A TDB database gets its stats.opt right away, for the other formats it is
+	 * copied into the database after loading
+	 */
+	private static String getStatisticsFileName() {
+		if(serializerType.equalsIgnoreCase("tdb"))
+			return outputFileName + File.separator + "stats.opt";
+		return outputFileName + ".stats.opt";
+	}
+	
 	private static boolean isNamedGraphSerializer() {
-		if(serializer instanceof TriG)
+		if(serializer instanceof TriG || (partitions!=null && partitions[0] instanceof TriG))
 			return true;
 		else
 			return false;
@@ -140,7 +192,9 @@ public class Generator {
 	
 	private static Serializer getSerializer(String type) {
 		String t = type.toLowerCase();
-		if(t.equals("nt"))
+		if(nrOfOutputFiles>1 && (t.equals("nt") || t.equals("ttl") || (t.equals("trig") && hashPartitioning!=ParallelSerializer.ROUND_ROBIN)))
+			return getParallelSerializer(t);
+		else if(t.equals("nt"))
 			return new NTriples(outputFileName, forwardChaining, nrOfOutputFiles);
 		else if(t.equals("trig"))
 			return new TriG(outputFileName + ".trig", forwardChaining);
@@ -150,27 +204,80 @@ public class Generator {
 			return new XMLSerializer(outputFileName + ".xml", forwardChaining);
 		else if(t.equals("sql"))
 			return new SQLSerializer(outputFileName, forwardChaining, "benchmark");
+		else if(t.equals("sql-load"))
+			return new BulkLoadSerializer(outputFileName, forwardChaining, "benchmark", BulkLoadSerializer.MYSQL);
+		else if(t.equals("monetdb-load"))
+			return new BulkLoadSerializer(outputFileName, forwardChaining, "benchmark", BulkLoadSerializer.MONETDB);
+		else if(t.equals("dict"))
+			return new DictionarySerializer(outputFileName, forwardChaining, nrOfOutputFiles);
 		else if(t.equals("virt"))
 			return new VirtSerializer(outputFileName, forwardChaining);
 		else if(t.equals("monetdb"))
 			return new MonetDBSerializer(outputFileName, forwardChaining, "benchmark");
+		else if(t.equals("tdb"))
+			return StreamRDFSerializer.createTDB(outputFileName, 1, forwardChaining);
+		else if(t.equals("tdb2"))
+			return StreamRDFSerializer.createTDB(outputFileName, 2, forwardChaining);
+		else if(t.startsWith("jena:"))
+			return new StreamRDFSerializer(outputFileName, t.substring(5), forwardChaining);
 		else
 			return null;
 	}
 	
+	/*
+	 * One serializer and writer thread per output file
+	 */
+	private static Serializer getParallelSerializer(String type) {
+		int nrOfDigits = ((int)Math.log10(nrOfOutputFiles)) + 1;
+		String formatString = "%0" + nrOfDigits + "d";
+		Serializer[] shards = new Serializer[nrOfOutputFiles];
+		for(int i=1;i<=nrOfOutputFiles;i++) {
+			String fileName = outputFileName + String.format(formatString, i);
+			if(type.equals("nt"))
+				shards[i-1] = new NTriples(fileName, forwardChaining);
+			else if(type.equals("trig"))
+				shards[i-1] = new TriG(fileName + ".trig", forwardChaining);
+			else
+				shards[i-1] = new Turtle(fileName, forwardChaining);
+		}
+		if(hashPartitioning!=ParallelSerializer.ROUND_ROBIN)
+			partitions = shards;
+		parallelSerializer = new ParallelSerializer(shards, hashPartitioning);
+		return parallelSerializer;
+	}
+	
+	/*
+	 * The data for the Test Driver
+	 */
+	public static TestDriverData getTestDriverData() {
+		return new TestDriverData(productTypeLeaves.toArray(new ProductType[0]), productTypeCount, maxProductTypeNrPerLevel,
+				toIntegerArray(producerOfProduct), vendorOfOffer.toArray(), ratingsiteOfReview.toArray(),
+				productCount, reviewCount, offerCount, today, wordList);
+	}
+
+	private static Integer[] toIntegerArray(IntList list) {
+		Integer[] array = new Integer[list.size()];
+		for(int i=0;i<array.length;i++)
+			array[i] = list.get(i);
+		return array;
+	}
+
 	/*
 	 * Write data for the Test Driver to disk
 	 */
 	public static void writeTestDriverData() {
+		TestDriverData data = getTestDriverData();
+		outputDir.mkdirs();
+
 		//Product Type hierarchy to File outputDir/pth.dat
 		File pth = new File(outputDir, "pth.dat");
 		ObjectOutputStream productTypeOutput;
 		try {
 			pth.createNewFile();
 			productTypeOutput = new ObjectOutputStream(new FileOutputStream(pth, false));
-			productTypeOutput.writeObject(productTypeLeaves.toArray(new ProductType[0]));
-			productTypeOutput.writeInt(productTypeCount);
-			productTypeOutput.writeObject(maxProductTypeNrPerLevel);
+			productTypeOutput.writeObject(data.productTypeLeaves);
+			productTypeOutput.writeInt(data.productTypeCount);
+			productTypeOutput.writeObject(data.maxProductTypeNrPerLevel);
 		} catch(IOException e) {
 			System.err.println("Could not open or create file " + pth.getAbsolutePath());
 			System.err.println(e.getMessage());
@@ -184,7 +291,7 @@ public class Generator {
 		try {
 			pp.createNewFile();
 			productProducerOutput = new ObjectOutputStream(new FileOutputStream(pp, false));
-			productProducerOutput.writeObject(producerOfProduct.toArray(new Integer[0]));
+			productProducerOutput.writeObject(data.producerOfProduct);
 		} catch(IOException e) {
 			System.err.println("Could not open or create file " + pp.getAbsolutePath());
 			System.err.println(e.getMessage());
@@ -197,7 +304,7 @@ public class Generator {
 		try {
 			vo.createNewFile();
 			offerVendorOutput = new ObjectOutputStream(new FileOutputStream(vo, false));
-			offerVendorOutput.writeObject(vendorOfOffer.toArray(new Integer[0]));
+			offerVendorOutput.writeObject(TestDriverData.writableNumbers(data.vendorOfOffer));
 		} catch(IOException e) {
 			System.err.println("Could not open or create file " + vo.getAbsolutePath());
 			System.err.println(e.getMessage());
@@ -210,7 +317,7 @@ public class Generator {
 		try {
 			rr.createNewFile();
 			reviewRatingsiteOutput = new ObjectOutputStream(new FileOutputStream(rr, false));
-			reviewRatingsiteOutput.writeObject(ratingsiteOfReview.toArray(new Integer[0]));
+			reviewRatingsiteOutput.writeObject(TestDriverData.writableNumbers(data.ratingsiteOfReview));
 		} catch(IOException e) {
 			System.err.println("Could not open or create file " + rr.getAbsolutePath());
 			System.err.println(e.getMessage());
@@ -223,11 +330,11 @@ public class Generator {
 		try {
 			cdlw.createNewFile();
 			currentDateAndLabelWordsOutput = new ObjectOutputStream(new FileOutputStream(cdlw, false));
-			currentDateAndLabelWordsOutput.writeInt(productCount);
-			currentDateAndLabelWordsOutput.writeInt(reviewCount);
-			currentDateAndLabelWordsOutput.writeInt(offerCount);
-			currentDateAndLabelWordsOutput.writeObject(today);
-			currentDateAndLabelWordsOutput.writeObject(wordList);
+			currentDateAndLabelWordsOutput.writeInt(data.productCount);
+			TestDriverData.writeCount(currentDateAndLabelWordsOutput, data.reviewCount);
+			TestDriverData.writeCount(currentDateAndLabelWordsOutput, data.offerCount);
+			currentDateAndLabelWordsOutput.writeObject(data.currentDate);
+			currentDateAndLabelWordsOutput.writeObject(data.wordList);
 		} catch(IOException e) {
 			System.err.println("Could not open or create file " + cdlw.getAbsolutePath());
 			System.err.println(e.getMessage());
@@ -522,86 +629,122 @@ public class Generator {
 	public static void createProducerData(Long[] seeds)
 	{
 		System.out.println("Generating Producers and Products...");
-		DateGenerator publishDateGen = new DateGenerator(new GregorianCalendar(2000,07,20),new GregorianCalendar(2005,06,23),seeds[0]);
-		ValueGenerator valueGen = new ValueGenerator(seeds[1]);
-		RandomBucket countryGen = createCountryGenerator(seeds[2]);
-		Random productSeedGen = new Random(seeds[4]);
-		
-		ObjectBundle bundle = new ObjectBundle(serializer);
+		int producerCount = producerOfProduct.size() - 1;
 		
-		int productNr = 1;
-		int producerNr = 1;
-		
-		while(producerNr<producerOfProduct.size())
-		{
-			//Generate Producer data
-			int labelNrWords = valueGen.randomInt(1, 3);
-			String label = dictionary1.getRandomSentence(labelNrWords);
-			
-			int commentNrWords = valueGen.randomInt(20, 50);
-			String comment = dictionary2.getRandomSentence(commentNrWords);
-			
-			String homepage = TextGenerator.getProducerWebpage(producerNr);
-			
-			String country = (String)countryGen.getRandom();
-			
-			Producer p = new Producer(producerNr,label,comment,homepage,country);
+		if(nrOfThreads>0)
+			createPartitions(PRODUCERS, producerCount, producerNr -> createProducer(producerPartition(seeds, producerNr), producerNr));
+		else {
+			Partition partition = new Partition(serializer);
+			partition.publishDateGen = new DateGenerator(new GregorianCalendar(2000,07,20),new GregorianCalendar(2005,06,23),seeds[0]);
+			partition.valueGen = new ValueGenerator(seeds[1]);
+			partition.countryGen = createCountryGenerator(seeds[2]);
+			partition.seedGen = new Random(seeds[4]);
+			partition.labelDictionary = dictionary1;
+			partition.textDictionary = dictionary2;
+			partition.words = wordList;
 			
-			//Generate Publisher data
-			if(!namedGraph) {
-				p.setPublisher(producerNr);
-				p.setPublishDate(publishDateGen.randomDateInMillis());
-				bundle.setPublisher(p.toString());
-				bundle.setPublisherNum(p.getNr());
-			}
-			else {
-				bundle.setPublisher(p.toString());
-				bundle.setPublishDate(publishDateGen.randomDateInMillis());
-				bundle.setGraphName("<" + Producer.getProducerNS(p.getNr()) + "Graph-" + DateGenerator.formatDate(bundle.getPublishDate()) + ">");
-				bundle.setPublisherNum(p.getNr());
+			for(int producerNr=1;producerNr<=producerCount;producerNr++) {
+				createProducer(partition, producerNr);
+				//All data for current producer generated -> commit (Important for NG-Model).
+				commitPartition(partition);
+				monitor.setPhaseProgress(producerOfProduct.get(producerNr));
 			}
-			
-			bundle.add(p);
-			
-			int hasNrProducts = producerOfProduct.get(producerNr) - producerOfProduct.get(producerNr-1);
-			createProductsOfProducer(bundle, producerNr, productNr, hasNrProducts, productSeedGen);
-			
-			//All data for current producer generated -> commit (Important for NG-Model).
-			bundle.commitToSerializer();
-			
-			productNr += hasNrProducts;
-			producerNr++;
 		}
-		System.out.println((producerNr - 1) + " Producers and " + (productNr - 1) + " Products have been generated.\n");
+		System.out.println(producerCount + " Producers and " + producerOfProduct.get(producerCount) + " Products have been generated.\n");
+	}
+	
+	/*
+	 * The random generators of one producer in partitioned mode
+	 */
+	private static Partition producerPartition(Long[] seeds, int producerNr)
+	{
+		Random seedGen = new Random(partitionSeed(seeds[4], producerNr));
+		Partition partition = new Partition(serializer);
+		partition.publishDateGen = new DateGenerator(new GregorianCalendar(2000,07,20),new GregorianCalendar(2005,06,23),seedGen.nextLong());
+		partition.valueGen = new ValueGenerator(seedGen.nextLong());
+		partition.countryGen = createCountryGenerator(seedGen.nextLong());
+		partition.labelDictionary = new TextGenerator(dictionary1, seedGen.nextLong());
+		partition.textDictionary = new TextGenerator(dictionary2, seedGen.nextLong());
+		partition.seedGen = seedGen;
+		partition.words = new HashMap<String, Integer>();
+		return partition;
+	}
+	
+	/*
+	 * Creates one Producer and its Products
+	 */
+	private static Partition createProducer(Partition partition, int producerNr)
+	{
+		ObjectBundle bundle = partition.bundle;
+		
+		//Generate Producer data
+		int labelNrWords = partition.valueGen.randomInt(1, 3);
+		String label = partition.labelDictionary.getRandomSentence(labelNrWords);
+		
+		int commentNrWords = partition.valueGen.randomInt(20, 50);
+		String comment = partition.textDictionary.getRandomSentence(commentNrWords);
+		
+		String homepage = TextGenerator.getProducerWebpage(producerNr);
+		
+		String country = (String)partition.countryGen.getRandom();
+		
+		Producer p = new Producer(producerNr,label,comment,homepage,country);
+		
+		//Generate Publisher data
+		if(!namedGraph) {
+			p.setPublisher(producerNr);
+			p.setPublishDate(partition.publishDateGen.randomDateInMillis());
+			bundle.setPublisher(p.toString());
+			bundle.setPublisherNum(p.getNr());
+		}
+		else {
+			bundle.setPublisher(p.toString());
+			bundle.setPublishDate(partition.publishDateGen.randomDateInMillis());
+			bundle.setGraphName("<" + Producer.getProducerNS(p.getNr()) + "Graph-" + DateGenerator.formatDate(bundle.getPublishDate()) + ">");
+			bundle.setPublisherNum(p.getNr());
+		}
+		
+		bundle.add(p);
+		
+		int productNr = producerOfProduct.get(producerNr-1) + 1;
+		int hasNrProducts = producerOfProduct.get(producerNr) - producerOfProduct.get(producerNr-1);
+		createProductsOfProducer(partition, producerNr, productNr, hasNrProducts);
+		
+		return partition;
 	}
 
 	/*
 	 * Creates the Products of the specified producer
 	 */
-	private static void createProductsOfProducer(ObjectBundle bundle, Integer producer, Integer productNr, Integer hasNrProducts, Random productSeedGen)
+	private static void createProductsOfProducer(Partition partition, Integer producer, Integer productNr, Integer hasNrProducts)
 	{
+		ObjectBundle bundle = partition.bundle;
+		Random productSeedGen = partition.seedGen;
+		TextGenerator dictionary1 = partition.labelDictionary;
+		TextGenerator dictionary2 = partition.textDictionary;
+		
 		DateGenerator publishDateGen = new DateGenerator(new GregorianCalendar(2000,9,20),new GregorianCalendar(2007,0,23),productSeedGen.nextLong());
 		//We want to record used words for product labels
-		dictionary1.activateLogging(wordList);
+		dictionary1.activateLogging(partition.words);
 		ValueGenerator valueGen = new ValueGenerator(productSeedGen.nextLong());
 		NormalDistRangeGenerator productTypeBroker = new NormalDistRangeGenerator(0,1,productTypeLeaves.size(),2, productSeedGen.nextLong());
 		NormalDistRangeGenerator numPropertyGen = new NormalDistRangeGenerator(0,1,2000,2, productSeedGen.nextLong());
 		
 		//For assigning a type out of 3 possible types
 		RandomBucket productPropertyTypeGen = new RandomBucket(3,productSeedGen.nextLong());
-		productPropertyTypeGen.add(40, Integer.valueOf(1));
-		productPropertyTypeGen.add(20, Integer.valueOf(2));
-		productPropertyTypeGen.add(40, Integer.valueOf(3));
+		productPropertyTypeGen.add(40, 1);
+		productPropertyTypeGen.add(20, 2);
+		productPropertyTypeGen.add(40, 3);
 		
 		//For choosing ProductFeatures and ProductProperties
 		RandomBucket true25 = new RandomBucket(2,productSeedGen.nextLong());
-		true25.add(75, Boolean.valueOf(false));
-		true25.add(25, Boolean.valueOf(true));
+		true25.add(75, false);
+		true25.add(25, true);
 		
 		//For choosing ProductProperties
 		RandomBucket true50 = new RandomBucket(2,productSeedGen.nextLong());
-		true50.add(50, Boolean.valueOf(false));
-		true50.add(50, Boolean.valueOf(true));
+		true50.add(50, false);
+		true50.add(50, true);
 
 		for(int nr = productNr; nr<productNr+hasNrProducts;nr++)
 		{
@@ -615,10 +758,10 @@ public class Generator {
 			ProductType productType = productTypeLeaves.get(productTypeBroker.getValue()-1);
 	
 		
-			int productPropertyType = (Integer)productPropertyTypeGen.getRandom();
+			int productPropertyType = productPropertyTypeGen.getRandomInt();
 	
 			//Generating Product Properties
-			Integer[] numProperties = new Integer[6];
+			int[] numProperties = new int[6];//0: no value
 			String[] textProperties = new String[6]; 
 			for(int i=0; i<3; i++){
 				numProperties[i] = numPropertyGen.getValue();
@@ -627,7 +770,6 @@ public class Generator {
 			}
 			
 			//ProductProperty4
-			numProperties[3] = null;
 			textProperties[3] = null;
 			boolean hasNum = false;
 			boolean hasText = false;
@@ -636,8 +778,8 @@ public class Generator {
 				hasNum = hasText = true;
 
 			if(productPropertyType==2) {
-				hasNum = (Boolean)true50.getRandom();
-				hasText = (Boolean)true50.getRandom();
+				hasNum = true50.getRandomBoolean();
+				hasText = true50.getRandomBoolean();
 			}
 			
 			if(hasNum)
@@ -647,7 +789,6 @@ public class Generator {
 				textProperties[3] = dictionary2.getRandomSentence(valueGen.randomInt(3, 15));
 			
 			//ProductProperty5
-			numProperties[4] = null;
 			textProperties[4] = null;
 			hasNum = false;
 			hasText = false;
@@ -656,8 +797,8 @@ public class Generator {
 				hasNum = hasText = true;
 			
 			if(productPropertyType==2 || productPropertyType==3) {
-				hasNum = (Boolean)true25.getRandom();
-				hasText = (Boolean)true25.getRandom();
+				hasNum = true25.getRandomBoolean();
+				hasText = true25.getRandomBoolean();
 			}
 			
 			if(hasNum)
@@ -667,31 +808,33 @@ public class Generator {
 				textProperties[4] = dictionary2.getRandomSentence(valueGen.randomInt(3, 15));
 			
 			//ProductProperty6
-			numProperties[5] = null;
 			textProperties[5] = null;
 			if(productPropertyType==3) {
-				if((Boolean)true50.getRandom())
+				if(true50.getRandomBoolean())
 					numProperties[5] = numPropertyGen.getValue();
-				if((Boolean)true50.getRandom()) {
+				if(true50.getRandomBoolean()) {
 					int nrWords = valueGen.randomInt(3, 15);
 					textProperties[5] = dictionary2.getRandomSentence(nrWords);
 				}
 			}
 			
 			//Assigning Product Features
-			Vector<Integer> features = new Vector<Integer>();
+			int nrOfFeatures = 0;
+			for(ProductType tempPT=productType;tempPT.getParent()!=null;tempPT=tempPT.getParent())
+				nrOfFeatures += tempPT.getFeatures().size();
+			int[] features = new int[nrOfFeatures];
+			nrOfFeatures = 0;
 			ProductType tempPT = productType;
 			while(tempPT.getParent()!=null)
 			{
-				Iterator<Integer> it = tempPT.getFeatures().iterator();
-				while(it.hasNext()) {
-					Integer feature = it.next();
-					if((Boolean)true25.getRandom())
-						features.add(feature);
-				}
+				Vector<Integer> typeFeatures = tempPT.getFeatures();
+				for(int i=0;i<typeFeatures.size();i++)
+					if(true25.getRandomBoolean())
+						features[nrOfFeatures++] = typeFeatures.get(i);
 				
 				tempPT = tempPT.getParent();
 			}
+			features = Arrays.copyOf(features, nrOfFeatures);
 			
 			Product p = new Product(nr,label,comment, productType, producer);
 			
@@ -707,7 +850,7 @@ public class Generator {
 			
 			// Decide if the product goes to the update dataset
 			if(generateUpdateDataset && nr>=nrOfMinProductNrForUpdate)
-				updateResourceData.get(nr-nrOfMinProductNrForUpdate).add(p);
+				partition.updateData.add(p);
 			else
 				bundle.add(p);	
 		}
@@ -717,8 +860,8 @@ public class Generator {
 	/*
 	 * Returns the ProducerNr of given ProductNr
 	 */
-	public static Integer getProducerOfProduct(Integer productNr) {
-		Integer producerNr = Collections.binarySearch(producerOfProduct, productNr);
+	public static int getProducerOfProduct(int productNr) {
+		int producerNr = producerOfProduct.binarySearch(productNr);
 		if(producerNr<0)
 			producerNr = - producerNr - 1;
 		
@@ -763,12 +906,12 @@ public class Generator {
 	public static void generateVendorDistribution(Long[] seeds) {
 		NormalDistGenerator offerCountGenerator = new NormalDistGenerator(3,1,avgOffersPerVendor,seeds[3]);
 
-		Integer offerNr = 1;
+		long offerNr = 1;
 		
 		while(offerNr<=offerCount) {
-			Integer offerCountVendor = offerCountGenerator.getValue();
+			int offerCountVendor = offerCountGenerator.getValue();
 			if(offerNr+offerCountVendor-1 > offerCount)
-				offerCountVendor = offerCount - offerNr + 1;
+				offerCountVendor = (int)(offerCount - offerNr + 1);
 			
 			offerNr += offerCountVendor;
 			vendorOfOffer.add(offerNr-1);
@@ -781,82 +924,115 @@ public class Generator {
 	public static void createVendorData(Long[] seeds)
 	{
 		System.out.println("Generating Vendors and their Offers...");
-		DateGenerator publishDateGen = new DateGenerator(new GregorianCalendar(2000,9,20),new GregorianCalendar(2007,0,23),seeds[0]);
-		ValueGenerator valueGen = new ValueGenerator(seeds[1]);
-		RandomBucket countryGen = createCountryGenerator(seeds[2]);
-		Random offerSeedGen = new Random(seeds[4]);
+		int vendorCount = vendorOfOffer.size() - 1;
 		
-		ObjectBundle bundle = new ObjectBundle(serializer);
-		
-		Integer offerNr = 1;
-		Integer vendorNr = 1;
-		
-		while(offerNr<=offerCount)
-		{
-			//Generate Vendor data
-			int labelNrWords = valueGen.randomInt(1, 3);
-			String label = dictionary1.getRandomSentence(labelNrWords);
-			
-			int commentNrWords = valueGen.randomInt(20, 50);
-			String comment = dictionary2.getRandomSentence(commentNrWords);
-			
-			String homepage = TextGenerator.getVendorWebpage(vendorNr);
-			
-			String country = (String)countryGen.getRandom();
-			
-			Vendor v = new Vendor(vendorNr,label,comment,homepage,country);
+		if(nrOfThreads>0)
+			createPartitions(VENDORS, vendorCount, vendorNr -> createVendor(vendorPartition(seeds, vendorNr), vendorNr));
+		else {
+			Partition partition = new Partition(serializer);
+			partition.publishDateGen = new DateGenerator(new GregorianCalendar(2000,9,20),new GregorianCalendar(2007,0,23),seeds[0]);
+			partition.valueGen = new ValueGenerator(seeds[1]);
+			partition.countryGen = createCountryGenerator(seeds[2]);
+			partition.seedGen = new Random(seeds[4]);
+			partition.labelDictionary = dictionary1;
+			partition.textDictionary = dictionary2;
 			
-			//Generate Publisher data
-			if(!namedGraph) {
-				v.setPublisher(vendorNr);
-				v.setPublishDate(publishDateGen.randomDateInMillis(today.getTimeInMillis()-(97*DateGenerator.oneDayInMillis), today.getTimeInMillis()));
-				bundle.setPublisher(v.toString());
-				bundle.setPublisherNum(v.getNr());
-			}
-			else {
-				bundle.setPublisher(v.toString());
-				bundle.setPublishDate(publishDateGen.randomDateInMillis());
-				bundle.setGraphName("<" + Vendor.getVendorNS(v.getNr()) + "Graph-" + DateGenerator.formatDate(bundle.getPublishDate()) + ">");
-				bundle.setPublisherNum(v.getNr());
+			for(int vendorNr=1;vendorNr<=vendorCount;vendorNr++) {
+				createVendor(partition, vendorNr);
+				//All data for current producer generated -> commit (Important for NG-Model).
+				commitPartition(partition);
+				monitor.setPhaseProgress(vendorOfOffer.get(vendorNr));
 			}
-			
-			bundle.add(v);
-			
-			//Get number of offers for this Vendor
-			Integer offerCountVendor = vendorOfOffer.get(vendorNr) - vendorOfOffer.get(vendorNr-1);
+		}
+		System.out.println(vendorCount + " Vendors and " + vendorOfOffer.get(vendorCount) + " Offers have been generated.\n");
+	}
 	
-			createOffersOfVendor(bundle, vendorNr, offerNr, offerCountVendor, valueGen, offerSeedGen);
-			
-			//All data for current producer generated -> commit (Important for NG-Model).
-			bundle.commitToSerializer();
-			
-			offerNr += offerCountVendor;
-			vendorNr++;
+	/*
+	 * The random generators of one vendor in partitioned mode
+	 */
+	private static Partition vendorPartition(Long[] seeds, int vendorNr)
+	{
+		Random seedGen = new Random(partitionSeed(seeds[4], vendorNr));
+		Partition partition = new Partition(serializer);
+		partition.publishDateGen = new DateGenerator(new GregorianCalendar(2000,9,20),new GregorianCalendar(2007,0,23),seedGen.nextLong());
+		partition.valueGen = new ValueGenerator(seedGen.nextLong());
+		partition.countryGen = createCountryGenerator(seedGen.nextLong());
+		partition.labelDictionary = new TextGenerator(dictionary1, seedGen.nextLong());
+		partition.textDictionary = new TextGenerator(dictionary2, seedGen.nextLong());
+		partition.seedGen = seedGen;
+		return partition;
+	}
+	
+	/*
+	 * Creates one Vendor and its Offers
+	 */
+	private static Partition createVendor(Partition partition, int vendorNr)
+	{
+		ObjectBundle bundle = partition.bundle;
+		ValueGenerator valueGen = partition.valueGen;
+		
+		//Generate Vendor data
+		int labelNrWords = valueGen.randomInt(1, 3);
+		String label = partition.labelDictionary.getRandomSentence(labelNrWords);
+		
+		int commentNrWords = valueGen.randomInt(20, 50);
+		String comment = partition.textDictionary.getRandomSentence(commentNrWords);
+		
+		String homepage = TextGenerator.getVendorWebpage(vendorNr);
+		
+		String country = (String)partition.countryGen.getRandom();
+		
+		Vendor v = new Vendor(vendorNr,label,comment,homepage,country);
+		
+		//Generate Publisher data
+		if(!namedGraph) {
+			v.setPublisher(vendorNr);
+			v.setPublishDate(partition.publishDateGen.randomDateInMillis(today.getTimeInMillis()-(97*DateGenerator.oneDayInMillis), today.getTimeInMillis()));
+			bundle.setPublisher(v.toString());
+			bundle.setPublisherNum(v.getNr());
 		}
-		System.out.println((vendorNr-1) + " Vendors and " + (offerNr - 1) + " Offers have been generated.\n");
+		else {
+			bundle.setPublisher(v.toString());
+			bundle.setPublishDate(partition.publishDateGen.randomDateInMillis());
+			bundle.setGraphName("<" + Vendor.getVendorNS(v.getNr()) + "Graph-" + DateGenerator.formatDate(bundle.getPublishDate()) + ">");
+			bundle.setPublisherNum(v.getNr());
+		}
+		
+		bundle.add(v);
+		
+		//Get number of offers for this Vendor
+		long offerNr = vendorOfOffer.get(vendorNr-1) + 1;
+		int offerCountVendor = (int)(vendorOfOffer.get(vendorNr) - vendorOfOffer.get(vendorNr-1));
+		
+		createOffersOfVendor(partition, vendorNr, offerNr, offerCountVendor);
+		
+		return partition;
 	}
 
 	/*
 	 * Creates the offers for a product
 	 */
-	public static void createOffersOfVendor(ObjectBundle bundle, Integer vendor, Integer offerNr, Integer hasNrOffers, ValueGenerator valueGen, Random offerSeedGen)
+	private static void createOffersOfVendor(Partition partition, Integer vendor, long offerNr, int hasNrOffers)
 	{
+		ObjectBundle bundle = partition.bundle;
+		ValueGenerator valueGen = partition.valueGen;
+		Random offerSeedGen = partition.seedGen;
 		NormalDistRangeGenerator deliveryDaysGen = new NormalDistRangeGenerator(2,1,21,14.2,offerSeedGen.nextLong());
 		NormalDistRangeGenerator productNrGen = new NormalDistRangeGenerator(2,1,productCount,4,offerSeedGen.nextLong());
 		DateGenerator dateGen = new DateGenerator(offerSeedGen.nextLong());
 		
-		for(int nr=offerNr;nr<offerNr+hasNrOffers;nr++)
+		for(long nr=offerNr;nr<offerNr+hasNrOffers;nr++)
 		{
 			int product = productNrGen.getValue();
 			double price = valueGen.randomDouble(5, 10000);
-			Long publishDate;
+			long publishDate;
 			if(namedGraph)
 				publishDate = bundle.getPublishDate();
 			else
 				publishDate = dateGen.randomDateInMillis(today.getTimeInMillis()-(97*DateGenerator.oneDayInMillis), today.getTimeInMillis());
 			
-			Long validFrom = publishDate - (valueGen.randomInt(0, 90)*DateGenerator.oneDayInMillis);
-			Long validTo = publishDate + (valueGen.randomInt(7, 90)*DateGenerator.oneDayInMillis);
+			long validFrom = publishDate - (valueGen.randomInt(0, 90)*DateGenerator.oneDayInMillis);
+			long validTo = publishDate + (valueGen.randomInt(7, 90)*DateGenerator.oneDayInMillis);
 			int deliveryDays = deliveryDaysGen.getValue();
 			String webpage = Vendor.getVendorNS(vendor) + "Offer" + nr + "/";
 			
@@ -867,7 +1043,7 @@ public class Generator {
 				offer.setPublisher(vendor);
 			}
 			if(generateUpdateDataset && product>=nrOfMinProductNrForUpdate)
-				updateResourceData.get(product-nrOfMinProductNrForUpdate).add(offer);
+				partition.updateData.add(offer);
 			else
 				bundle.add(offer);
 		}
@@ -891,29 +1067,34 @@ public class Generator {
 		NormalDistGenerator reviewCountPRSGen = new NormalDistGenerator(3,1, avgReviewsPerRatingSite ,seeds[6]);
 		NormalDistGenerator reviewCountPPGen = new NormalDistGenerator(3,1, avgReviewsPerPerson ,seeds[7]);
 		
-		Integer reviewNr = 1;
-		Integer personNr = 1;
-		Integer ratingSiteNr = 1;
+		long reviewNr = 1;
+		long personNr = 1;
+		int ratingSiteNr = 1;
 		
 		while(reviewNr<=reviewCount) {
 			//Get number of reviews for this Rating Site
-			Integer reviewCountRatingSite = reviewCountPRSGen.getValue();
+			int reviewCountRatingSite = reviewCountPRSGen.getValue();
 			if(reviewNr+reviewCountRatingSite > reviewCount)
-				reviewCountRatingSite = reviewCount - reviewNr + 1;
+				reviewCountRatingSite = (int)(reviewCount - reviewNr + 1);
 			
-			Integer maxReviewForRatingSite = reviewNr+reviewCountRatingSite;
+			long maxReviewForRatingSite = reviewNr+reviewCountRatingSite;
+			
+			//In partitioned mode every rating site has its own person generator
+			if(nrOfThreads>0)
+				reviewCountPPGen = new NormalDistGenerator(3,1, avgReviewsPerPerson, partitionSeed(seeds[7], ratingSiteNr));
 
 			while(reviewNr < maxReviewForRatingSite)
 			{
-				Integer reviewCountPerson = reviewCountPPGen.getValue0();
+				int reviewCountPerson = reviewCountPPGen.getValue0();
 				if(reviewNr+reviewCountPerson > maxReviewForRatingSite)
-					reviewCountPerson = maxReviewForRatingSite - reviewNr;
+					reviewCountPerson = (int)(maxReviewForRatingSite - reviewNr);
 				
 				personNr++;
 				reviewNr += reviewCountPerson;
 			}
 			
 			ratingsiteOfReview.add(reviewNr-1);
+			personOfRatingSite.add(personNr-1);
 			ratingSiteNr++;
 		}
 	}
@@ -924,114 +1105,149 @@ public class Generator {
 	public static void createRatingSiteData(Long[] seeds)
 	{
 		System.out.println("Generating RatingSite Data: Reviewers and Reviews... ");
-		DateGenerator publishDateGen = new DateGenerator(new GregorianCalendar(2008,5,20),new GregorianCalendar(2008,8,23),seeds[0]);
-		ValueGenerator valueGen = new ValueGenerator(seeds[1]);
-		RandomBucket countryGen = createCountryGenerator(seeds[2]);
-		
-		//For Review Generation
-		DateGenerator reviewDateGen = new DateGenerator(182,today,seeds[3]);
-		RandomBucket true70 = new RandomBucket(2, seeds[4]);
-		NormalDistRangeGenerator productNrGen = new NormalDistRangeGenerator(2,1,productCount,4,seeds[5]);
-		true70.add(70, Boolean.valueOf(true));
-		true70.add(30, Boolean.valueOf(false));
-
+		int ratingSiteCount = ratingsiteOfReview.size() - 1;
 		
-		NormalDistGenerator reviewCountPRSGen = new NormalDistGenerator(3,1, avgReviewsPerRatingSite ,seeds[6]);
-		NormalDistGenerator reviewCountPPGen = new NormalDistGenerator(3,1, avgReviewsPerPerson ,seeds[7]);
-		
-		Integer reviewNr = 1;
-		Integer personNr = 1;
-		Integer ratingSiteNr = 1;
-		
-		ObjectBundle bundle = new ObjectBundle(serializer);
-		
-		while(reviewNr<=reviewCount)
-		{
-			//Get number of reviews for this Rating Site
-			Integer reviewCountRatingSite = reviewCountPRSGen.getValue();
-			if(reviewNr+reviewCountRatingSite > reviewCount)
-				reviewCountRatingSite = reviewCount - reviewNr + 1;
+		if(nrOfThreads>0)
+			createPartitions(RATING_SITES, ratingSiteCount, ratingSiteNr -> createRatingSite(ratingSitePartition(seeds, ratingSiteNr), ratingSiteNr));
+		else {
+			Partition partition = new Partition(serializer);
+			partition.publishDateGen = new DateGenerator(new GregorianCalendar(2008,5,20),new GregorianCalendar(2008,8,23),seeds[0]);
+			partition.valueGen = new ValueGenerator(seeds[1]);
+			partition.countryGen = createCountryGenerator(seeds[2]);
+			partition.labelDictionary = dictionary3;
+			partition.textDictionary = dictionary2;
 			
-			//Generate provenance data for this rating site
-			if(namedGraph) {
-				bundle.setPublisher(RatingSite.getURIref(ratingSiteNr));
-				bundle.setPublishDate(publishDateGen.randomDateInMillis());
-				bundle.setGraphName("<" + RatingSite.getRatingSiteNS(ratingSiteNr) + "Graph-" + DateGenerator.formatDate(bundle.getPublishDate()) + ">");
-				bundle.setPublisherNum(ratingSiteNr);
-			} 
-			else {
-				bundle.setPublisher(RatingSite.getURIref(ratingSiteNr));
-				bundle.setPublisherNum(ratingSiteNr);
+			//For Review Generation
+			partition.reviewDateGen = new DateGenerator(182,today,seeds[3]);
+			partition.true70 = createTrue70Generator(seeds[4]);
+			partition.productNrGen = new NormalDistRangeGenerator(2,1,productCount,4,seeds[5]);
+			partition.reviewCountPPGen = new NormalDistGenerator(3,1, avgReviewsPerPerson ,seeds[7]);
+			
+			for(int ratingSiteNr=1;ratingSiteNr<=ratingSiteCount;ratingSiteNr++) {
+				createRatingSite(partition, ratingSiteNr);
+				//All data for current producer generated -> commit (Important for NG-Model).
+				commitPartition(partition);
+				monitor.setPhaseProgress(ratingsiteOfReview.get(ratingSiteNr));
 			}
-			//Now generate persons and reviews
-			Integer maxReviewForRatingSite = reviewNr+reviewCountRatingSite;
+		}
+		System.out.println(ratingSiteCount + " Rating Sites with " + personOfRatingSite.get(ratingSiteCount) + " Persons and " + ratingsiteOfReview.get(ratingSiteCount) + " Reviews have been generated.\n");
+	}
+	
+	/*
+	 * The random generators of one rating site in partitioned mode
+	 */
+	private static Partition ratingSitePartition(Long[] seeds, int ratingSiteNr)
+	{
+		Random seedGen = new Random(partitionSeed(seeds[0], ratingSiteNr));
+		Partition partition = new Partition(serializer);
+		partition.publishDateGen = new DateGenerator(new GregorianCalendar(2008,5,20),new GregorianCalendar(2008,8,23),seedGen.nextLong());
+		partition.valueGen = new ValueGenerator(seedGen.nextLong());
+		partition.countryGen = createCountryGenerator(seedGen.nextLong());
+		partition.labelDictionary = new TextGenerator(dictionary3, seedGen.nextLong());
+		partition.textDictionary = new TextGenerator(dictionary2, seedGen.nextLong());
+		partition.reviewDateGen = new DateGenerator(182,today,seedGen.nextLong());
+		partition.true70 = createTrue70Generator(seedGen.nextLong());
+		partition.productNrGen = new NormalDistRangeGenerator(2,1,productCount,4,seedGen.nextLong());
+		//Same sequence as used for the distribution data
+		partition.reviewCountPPGen = new NormalDistGenerator(3,1, avgReviewsPerPerson, partitionSeed(seeds[7], ratingSiteNr));
+		return partition;
+	}
+	
+	private static RandomBucket createTrue70Generator(long seed)
+	{
+		RandomBucket true70 = new RandomBucket(2, seed);
+		true70.add(70, true);
+		true70.add(30, false);
+		return true70;
+	}
+	
+	/*
+	 * Creates one Rating Site: its Reviewers and their Reviews
+	 */
+	private static Partition createRatingSite(Partition partition, int ratingSiteNr)
+	{
+		ObjectBundle bundle = partition.bundle;
+		DateGenerator publishDateGen = partition.publishDateGen;
+		
+		//Generate provenance data for this rating site
+		if(namedGraph) {
+			bundle.setPublisher(RatingSite.getURIref(ratingSiteNr));
+			bundle.setPublishDate(publishDateGen.randomDateInMillis());
+			bundle.setGraphName("<" + RatingSite.getRatingSiteNS(ratingSiteNr) + "Graph-" + DateGenerator.formatDate(bundle.getPublishDate()) + ">");
+			bundle.setPublisherNum(ratingSiteNr);
+		} 
+		else {
+			bundle.setPublisher(RatingSite.getURIref(ratingSiteNr));
+			bundle.setPublisherNum(ratingSiteNr);
+		}
+		//Now generate persons and reviews
+		long reviewNr = ratingsiteOfReview.get(ratingSiteNr-1) + 1;
+		long personNr = personOfRatingSite.get(ratingSiteNr-1) + 1;
+		long maxReviewForRatingSite = ratingsiteOfReview.get(ratingSiteNr) + 1;
 
-			while(reviewNr < maxReviewForRatingSite)
-			{		
-				//Generate Person data
-				String name = dictionary3.getRandomSentence(1);
-				
-				String country = (String)countryGen.getRandom();
-				
-				String mbox_sha1 = valueGen.randomSHA1();
-				
-				Person p = new Person(personNr,name,country,mbox_sha1);
-				
-				//Generate Publisher data
-				if(!namedGraph) {
-					p.setPublishDate(publishDateGen.randomDateInMillis());
-				}
-				//needed for qualified name
-				p.setPublisher(ratingSiteNr);
+		while(reviewNr < maxReviewForRatingSite)
+		{		
+			//Generate Person data
+			String name = partition.labelDictionary.getRandomSentence(1);
 			
-				bundle.add(p);
+			String country = (String)partition.countryGen.getRandom();
 			
-				//Now generate Reviews for this Person
-				Integer reviewCountPerson = reviewCountPPGen.getValue0();
-				if(reviewNr+reviewCountPerson > maxReviewForRatingSite)
-					reviewCountPerson = maxReviewForRatingSite - reviewNr;
-				
-				createReviewsOfPerson(bundle, p, reviewNr, reviewCountPerson, valueGen, reviewDateGen,
-									  productNrGen, publishDateGen, true70);
-				personNr++;
-				reviewNr += reviewCountPerson;
-			}
+			String mbox_sha1 = partition.valueGen.randomSHA1();
 			
-			//All data for current producer generated -> commit (Important for NG-Model).
-			bundle.commitToSerializer();
+			Person p = new Person(personNr,name,country,mbox_sha1);
 			
-			ratingSiteNr++;
+			//Generate Publisher data
+			if(!namedGraph) {
+				p.setPublishDate(publishDateGen.randomDateInMillis());
+			}
+			//needed for qualified name
+			p.setPublisher(ratingSiteNr);
+		
+			bundle.add(p);
+		
+			//Now generate Reviews for this Person
+			int reviewCountPerson = partition.reviewCountPPGen.getValue0();
+			if(reviewNr+reviewCountPerson > maxReviewForRatingSite)
+				reviewCountPerson = (int)(maxReviewForRatingSite - reviewNr);
+			
+			createReviewsOfPerson(partition, p, reviewNr, reviewCountPerson);
+			personNr++;
+			reviewNr += reviewCountPerson;
 		}
-		System.out.println((ratingSiteNr - 1) + " Rating Sites with " + (personNr - 1) + " Persons and " + (reviewNr-1) + " Reviews have been generated.\n");
+		return partition;
 	}
 	
 	
 	/*
 	 * Creates the reviews for a person
 	 */
-	private static void createReviewsOfPerson(ObjectBundle bundle, Person person, Integer reviewNr, Integer count,
-			ValueGenerator valueGen, DateGenerator dateGen, NormalDistRangeGenerator prodNrGen,
-			DateGenerator publishDateGen, RandomBucket true70)
+	private static void createReviewsOfPerson(Partition partition, Person person, long reviewNr, int count)
 	{
+		ObjectBundle bundle = partition.bundle;
+		ValueGenerator valueGen = partition.valueGen;
+		DateGenerator dateGen = partition.reviewDateGen;
+		NormalDistRangeGenerator prodNrGen = partition.productNrGen;
+		DateGenerator publishDateGen = partition.publishDateGen;
+		RandomBucket true70 = partition.true70;
+		TextGenerator dictionary2 = partition.textDictionary;
+		
 		for(int i=0;i<count;i++)
 		{
 			int product = prodNrGen.getValue();
 			int producerOfProduct = getProducerOfProduct(product);
-			int personNr = person.getNr();
-			Long reviewDate = dateGen.randomDateInMillis(today.getTimeInMillis()-DateGenerator.oneDayInMillis*365,today.getTimeInMillis());
+			long personNr = person.getNr();
+			long reviewDate = dateGen.randomDateInMillis(today.getTimeInMillis()-DateGenerator.oneDayInMillis*365,today.getTimeInMillis());
 			int titleCount = valueGen.randomInt(4, 15);
 			String title = dictionary2.getRandomSentence(titleCount);
 			int textCount = valueGen.randomInt(50, 200);
 			String text = dictionary2.getRandomSentence(textCount);
 			int language = ISO3166.countryCodes.get(person.getCountryCode());
 			
-			Integer[] ratings = new Integer[4];
+			int[] ratings = new int[4];
 			
 			for(int j=0;j<4;j++)
-				if((Boolean)true70.getRandom())
+				if(true70.getRandomBoolean())
 					ratings[j] = valueGen.randomInt(1, 10);
-				else
-					ratings[j] = null;
 			
 			Review review = new Review(reviewNr, product, personNr, reviewDate, title, text, ratings, language, producerOfProduct);
 			
@@ -1042,7 +1258,7 @@ public class Generator {
 			review.setPublisher(person.getPublisher());
 			
 			if(generateUpdateDataset && product>=nrOfMinProductNrForUpdate)
-				updateResourceData.get(product-nrOfMinProductNrForUpdate).add(review);
+				partition.updateData.add(review);
 			else
 				bundle.add(review);
 
@@ -1050,18 +1266,170 @@ public class Generator {
 		}
 	}
 	
-	protected static void createUpdateDataset() {
-		int productsInTransaction = 0;
-		ObjectBundle bundle = new ObjectBundle(updateDatasetSerializer);
-		for(List<BSBMResource> productData: updateResourceData) {
-			for(BSBMResource res: productData)
-				bundle.add(res);
-			bundle.commitToSerializer();
-			productsInTransaction = (productsInTransaction + 1) % nrOfProductsPerTransaction; 
-			if(productsInTransaction==0)
-				bundle.writeStringToSerializer(updateDatasetTransactionSeparator);
+	/*
+	 * The random generators and the collected data for generating producers, vendors
+	 * or rating sites. Sequential generation uses one Partition for a whole section.
+	 * With -threads every producer, vendor and rating site is a partition of its own,
+	 * with generators seeded from its number, so the output does not depend on the
+	 * number of threads.
+	 */
+	static class Partition {
+		final ObjectBundle bundle;
+		final List<BSBMResource> updateData = new ArrayList<BSBMResource>();
+		HashMap<String,Integer> words;//Words of Product labels for the Test Driver
+		DateGenerator publishDateGen;
+		ValueGenerator valueGen;
+		RandomBucket countryGen;
+		Random seedGen;//Seeds for the Products of a Producer or the Offers of a Vendor
+		TextGenerator labelDictionary;
+		TextGenerator textDictionary;
+		//Rating sites only
+		DateGenerator reviewDateGen;
+		RandomBucket true70;
+		NormalDistRangeGenerator productNrGen;
+		NormalDistGenerator reviewCountPPGen;
+		
+		Partition(Serializer serializer) {
+			bundle = new ObjectBundle(serializer);
 		}
-		updateDatasetSerializer.serialize();
+	}
+	
+	/*
+	 * Seed for the random generators of one producer, vendor or rating site in
+	 * partitioned mode. Depends only on the section seed and the partition number.
+	 */
+	static long partitionSeed(long sectionSeed, int partitionNr) {
+		long z = sectionSeed + partitionNr * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	/*
+	 * Creates partitions 1 to count with nrOfThreads worker threads.
+	 * The partitions are committed to the serializer in order, with a bounded
+	 * number of partitions being generated ahead.
+	 * A resumed run skips the partitions before its checkpoint.
+	 */
+	private static void createPartitions(int section, int count, IntFunction<Partition> creator) {
+		if(section<resumeSection)
+			return;
+		int end = sliceBegin(count) + sliceSize(count);//The first partition after the slice
+		int last = lastPartition(section, count);
+		ExecutorService executor = Executors.newFixedThreadPool(nrOfThreads);
+		LinkedList<Future<Partition>> pending = new LinkedList<Future<Partition>>();
+		int nr = firstPartition(section, count);
+		int committedNr = nr-1;
+		long entitiesBefore = entitiesUpTo(section, nr-1);
+		try {
+			while(nr<=last || !pending.isEmpty()) {
+				while(nr<=last && pending.size()<4*nrOfThreads) {
+					final int partitionNr = nr++;
+					pending.add(executor.submit(() -> creator.apply(partitionNr)));
+				}
+				Partition partition = pending.removeFirst().get();
+				if(committedNr+1 < end)
+					commitPartition(partition);
+				else {
+					addWords(partition);
+					partition.bundle.clear();
+				}
+				committedNr++;
+				monitor.setPhaseProgress(entitiesUpTo(section, committedNr) - entitiesBefore);
+				if(checkpointInterval>0 && System.currentTimeMillis()-lastCheckpoint >= checkpointInterval*1000L)
+					writeCheckpoint(section, committedNr+1);
+			}
+		} catch(InterruptedException | ExecutionException e) {
+			System.err.println("Data generation failed.");
+			e.printStackTrace();
+			System.exit(-1);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/*
+	 * The partitions of a section generated by this run: from the resume point
+	 * or the begin of the slice to the end of the slice
+	 */
+	private static int firstPartition(int section, int count) {
+		return section==resumeSection ? resumePartitionNr : sliceBegin(count);
+	}
+	
+	private static int lastPartition(int section, int count) {
+		//Slice 0 writes the Test Driver data, which needs the Product label words of all slices
+		return section==PRODUCERS && slice==0 ? count : sliceBegin(count) + sliceSize(count) - 1;
+	}
+	
+	/*
+	 * Products, offers or reviews of the partitions 1 to nr of a section
+	 */
+	private static long entitiesUpTo(int section, int nr) {
+		if(section==PRODUCERS)
+			return producerOfProduct.get(nr);
+		else if(section==VENDORS)
+			return vendorOfOffer.get(nr);
+		else
+			return ratingsiteOfReview.get(nr);
+	}
+	
+	/*
+	 * Products, offers or reviews this run generates in a section
+	 */
+	private static long sectionEntities(int section, int count) {
+		if(section<resumeSection)
+			return 0;
+		return entitiesUpTo(section, lastPartition(section, count)) - entitiesUpTo(section, firstPartition(section, count) - 1);
+	}
+	
+	/*
+	 * The first partition of this slice (-partition) of the partitions 1 to count
+	 */
+	private static int sliceBegin(int count) {
+		return (int)((long)count*slice/nrOfSlices) + 1;
+	}
+	
+	private static int sliceSize(int count) {
+		return (int)((long)count*(slice+1)/nrOfSlices) - (int)((long)count*slice/nrOfSlices);
+	}
+	
+	/*
+	 * Hand over the data of a partition: Update dataset resources, label words and the bundle
+	 */
+	private static void commitPartition(Partition partition) {
+		addWords(partition);
+		
+		for(BSBMResource res: partition.updateData)
+			updateDatasetWriter.add(getProductNrOfResource(res)-nrOfMinProductNrForUpdate, res);
+		partition.updateData.clear();
+		
+		partition.bundle.commitToSerializer();
+	}
+	
+	private static void addWords(Partition partition) {
+		if(partition.words!=null && partition.words!=wordList) {
+			for(Map.Entry<String, Integer> entry: partition.words.entrySet()) {
+				Integer count = wordList.get(entry.getKey());
+				wordList.put(entry.getKey(), count==null ? entry.getValue() : count + entry.getValue());
+			}
+			partition.words.clear();
+		}
+	}
+	
+	/*
+	 * The product an update dataset resource belongs to
+	 */
+	private static int getProductNrOfResource(BSBMResource res) {
+		if(res instanceof Product)
+			return ((Product)res).getNr();
+		else if(res instanceof Offer)
+			return ((Offer)res).getProduct();
+		else
+			return ((Review)res).getProduct();
+	}
+	
+	protected static void createUpdateDataset() {
+		updateDatasetWriter.serialize();
 	}
 	
 	/*
@@ -1092,6 +1460,66 @@ public class Generator {
 				else if(args[i].equals("-nof")) {
 					nrOfOutputFiles = Integer.parseInt(args[i++ + 1]);
 				}
+				else if(args[i].equals("-hash")) {
+					String by = args[i++ + 1];
+					if(by.equals("subject"))
+						hashPartitioning = ParallelSerializer.SUBJECT_HASH;
+					else if(by.equals("graph"))
+						hashPartitioning = ParallelSerializer.GRAPH_HASH;
+					else
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-threads")) {
+					nrOfThreads = Integer.parseInt(args[i++ + 1]);
+				}
+				else if(args[i].equals("-compress")) {
+					compression = args[i++ + 1];
+					if(!compression.equals(SerializerOutput.NONE) && !compression.equals(SerializerOutput.GZIP) && !compression.equals(SerializerOutput.PARALLEL_GZIP))
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-clevel")) {
+					compressionLevel = Integer.parseInt(args[i++ + 1]);
+					if(compressionLevel<0 || compressionLevel>9)
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-pipeline")) {
+					nrOfPipelineBundles = Integer.parseInt(args[i++ + 1]);
+					if(nrOfPipelineBundles<0)
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-progress")) {
+					progressInterval = Integer.parseInt(args[i++ + 1]);
+					if(progressInterval<0)
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-checkpoint")) {
+					checkpointInterval = Integer.parseInt(args[i++ + 1]);
+					if(checkpointInterval<0)
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-resume")) {
+					resume = true;
+				}
+				else if(args[i].equals("-sort")) {
+					sortMemory = Integer.parseInt(args[i++ + 1]);
+					if(sortMemory<=0)
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-stats")) {
+					writeStatistics = true;
+				}
+				else if(args[i].equals("-partition")) {
+					String[] sliceOf = args[i++ + 1].split("/");
+					slice = Integer.parseInt(sliceOf[0]);
+					nrOfSlices = Integer.parseInt(sliceOf[1]);
+					if(sliceOf.length!=2 || nrOfSlices<1 || slice<0 || slice>=nrOfSlices)
+						throw new IllegalArgumentException();
+				}
+				else if(args[i].equals("-delta")) {
+					deltaBaseProductCount = Integer.parseInt(args[i++ + 1]);
+					if(deltaBaseProductCount<1)
+						throw new IllegalArgumentException();
+				}
 				else if(args[i].equals("-ud")) {
 					generateUpdateDataset = true;
 				}
@@ -1117,6 +1545,10 @@ public class Generator {
 				System.exit(-1);
 			}
 		}
+		
+		//The slices are made of the partitions of the partitioned mode
+		if(nrOfSlices>1 && nrOfThreads==0)
+			nrOfThreads = 1;
 	}
 	
 	/*
@@ -1127,7 +1559,14 @@ public class Generator {
 						"Possible options are:\n" +
 						"\t-s <output format>\n" +
 						"\t\twhere <output format>: nt (N-Triples), trig (TriG), ttl (Turtle), sql (MySQL dump),\n" +
-						"\t\t\tvirt (Virtuoso SQL dump), monetdb (SQL), xml (XML dump)\n" +
+						"\t\t\tvirt (Virtuoso SQL dump), monetdb (SQL), xml (XML dump),\n" +
+						"\t\t\tsql-load, monetdb-load (tab separated table files and load.sql\n" +
+						"\t\t\twith the DDL and LOAD DATA or COPY INTO statements,\n" +
+						"\t\t\tsql-load not with -compress),\n" +
+						"\t\t\tdict (term dictionary .dict and integer triples .ids),\n" +
+						"\t\t\tjena:<format> (any streaming Jena writer, by name or file extension,\n" +
+						"\t\t\te.g. jena:rt for RDF Thrift, jena:nq for N-Quads),\n" +
+						"\t\t\ttdb, tdb2 (load into the TDB1/TDB2 database in the directory given by -fn)\n" +
 						"\t\tdefault: nt\n" +
 						"\t\tNote:\tBy chosing a named graph output format like TriG,\n\t\t\ta named graph model gets generated.\n" +
 						"\t-pc <product count>\n" +
@@ -1143,8 +1582,65 @@ public class Generator {
 						"\t\tThe file name without the output format suffix\n" +
 						"\t\tdefault: dataset_update\n" +
 						"\t-nof <number of output files>\n" +
-						"\t\tThe number of output files. Only for -s nt or ttl\n" +
+						"\t\tThe number of output files. Only for -s nt, ttl or dict\n" +
+						"\t\tEach file is written by its own thread.\n" +
 						"\t\tdefault: 1\n" +
+						"\t-hash <subject|graph>\n" +
+						"\t\tPartition the data into the -nof files by the hash of the subject URI\n" +
+						"\t\t(-s nt and ttl), or with graph (only -s trig) of the named graph: Java\n" +
+						"\t\tString.hashCode() of the URI modulo the number of files, file 1 holds\n" +
+						"\t\tpartition 0. The triple counts and SHA-256 checksums of the files are written\n" +
+						"\t\tto <dataset file name>.partitions.json. Not with -sort.\n" +
+						"\t\tdefault: the resources are dealt out to the files in turn\n" +
+						"\t-threads <number of threads>\n" +
+						"\t\tGenerate producers, vendors and rating sites in parallel.\n" +
+						"\t\tEach of them is seeded separately: the output is the same for\n" +
+						"\t\tany number of threads, but differs from the default sequential mode.\n" +
+						"\t\tdefault: sequential generation\n" +
+						"\t-partition <i>/<k>\n" +
+						"\t\tOnly generate slice i (0 to k-1) of the producers, vendors and rating sites,\n" +
+						"\t\te.g. on k machines. The slices together are the dataset of a run with -threads.\n" +
+						"\t\tOnly slice 0 writes the product types, product features and the Test Driver data.\n" +
+						"\t\tGive every slice on the same machine its own -fn. Not with -ud or -delta.\n" +
+						"\t-compress <method>\n" +
+						"\t\twhere <method>: none, gzip or pgzip (gzip compressed in parallel blocks)\n" +
+						"\t\tThe dataset files get the suffix .gz, the update dataset is not compressed.\n" +
+						"\t\tdefault: none\n" +
+						"\t-clevel <compression level>\n" +
+						"\t\tFrom 0 (no compression) to 9 (best compression)\n" +
+						"\t\tdefault: 6\n" +
+						"\t-pipeline <number of bundles>\n" +
+						"\t\tSerialize in a separate thread, while the next data is generated.\n" +
+						"\t\tAt most this many bundles of generated resources wait for the serializer.\n" +
+						"\t\t0 serializes in the generating thread.\n" +
+						"\t\tdefault: 16\n" +
+						"\t-progress <seconds>\n" +
+						"\t\tPrint the progress, ETA, triples/s, MB/s, the serializer queue depths, the\n" +
+						"\t\tshare of GC time and the bytes and MB/s of every output file every that many\n" +
+						"\t\tseconds, 0 for none. Every phase ends with its time and throughput.\n" +
+						"\t\tThe numbers are also the MBean\n" +
+						"\t\tbenchmark:type=Generator and JFR events (Java 11 and later).\n" +
+						"\t\tdefault: 30\n" +
+						"\t-sort <memory in MB>\n" +
+						"\t\tSort the N-Triples files by subject after generation, for bulk loaders.\n" +
+						"\t\tWith -nof every file holds a range of the subjects. Only for -s nt.\n" +
+						"\t\tdefault: unsorted\n" +
+						"\t-stats\tWrite the triple counts per predicate and class for the TDB optimizer\n" +
+						"\t\tto <dataset file name>.stats.opt (stats.opt in the database for -s tdb)\n" +
+						"\t\tand as JSON, with the counts per subject class and predicate,\n" +
+						"\t\tto <dataset file name>.stats.json. Not with -checkpoint, -resume or -delta.\n" +
+						"\t-checkpoint <seconds>\n" +
+						"\t\tWrite a checkpoint to <dataset file name>.checkpoint at most every that many seconds.\n" +
+						"\t\tOnly with -threads, -s nt and no compression.\n" +
+						"\t\tdefault: no checkpoints\n" +
+						"\t-resume\tContinue an interrupted run from its checkpoint, with the same options.\n" +
+						"\t\tThe output is the same as of an uninterrupted run.\n" +
+						"\t-delta <product count of the smaller dataset>\n" +
+						"\t\tOnly write the difference between the dataset of the smaller product count\n" +
+						"\t\tand the one of -pc: the triples to add go to the dataset file, the ones to\n" +
+						"\t\tremove to <dataset file name>_delete.nt. Only with -threads, -s nt and one\n" +
+						"\t\toutput file, not with -checkpoint or -resume.\n" +
+						"\t\tThe Test Driver data is written for -pc.\n" +
 						"\t-ud Switch on generation of update dataset\n" +
 						"\t-tc <number of update transactions>\n" +
 						"\t\tShould be used in combination with -ud.\n" +
@@ -1159,8 +1655,297 @@ public class Generator {
 	 */
 	public static void main(String... args) {
 		processProgramParameters(args);
+		if(deltaBaseProductCount>0)
+			createDelta();
+		else {
+			checkOptions();
+			init();
+			if(resume)
+				readCheckpoint();
+			lastCheckpoint = System.currentTimeMillis();
+			createDataset();
+			
+			serializer.serialize();
+			if(partitions!=null)
+				writePartitionManifest();
+		}
+		if(slice==0)
+			writeTestDriverData();
+		
+		if(generateUpdateDataset)
+			createUpdateDataset();
+		
+		if(checkpointInterval>0 || resume)
+			new File(outputFileName + ".checkpoint").delete();
+		
+		if(sortMemory>0)
+			sortDataset();
+		
+		if(deltaBaseProductCount>0)
+			System.out.println(serializer.triplesGenerated() + " triples added and " + deltaSerializer.triplesDeleted() + " triples removed.");
+		else
+			System.out.println(serializer.triplesGenerated() + " triples generated.");
+		
+		if(generateUpdateDataset)
+			System.out.println(updateDatasetWriter.triplesGenerated() + " triples generated for update dataset.");
+	}
+	
+	/*
+	 * Generates the dataset into the given serializer, e.g. for a dataset in this JVM.
+	 * The Test Driver data is returned instead of written to the td_data directory.
+	 * The -s option is ignored.
+	 */
+	public static TestDriverData generate(Serializer target, String... args) {
+		processProgramParameters(args);
+		serializer = target;
 		init();
+		createDataset();
+		
+		serializer.serialize();
+		
+		if(generateUpdateDataset)
+			createUpdateDataset();
 		
+		System.out.println(serializer.triplesGenerated() + " triples generated.");
+		
+		return getTestDriverData();
+	}
+	
+	/*
+	 * Rewrites the N-Triples files sorted by subject, the files become key
+	 * ranges of the subjects
+	 */
+	private static void sortDataset() {
+		File[] files = new File[nrOfOutputFiles];
+		if(nrOfOutputFiles==1)
+			files[0] = new File(outputFileName + ".nt");
+		else {
+			String formatString = "%0" + (((int)Math.log10(nrOfOutputFiles)) + 1) + "d";
+			for(int i=1;i<=nrOfOutputFiles;i++)
+				files[i-1] = new File(outputFileName + String.format(formatString, i) + ".nt");
+		}
+		
+		System.out.println("Sorting the dataset by subject...");
+		long start = System.currentTimeMillis();
+		NTriplesSorter sorter = new NTriplesSorter(files[0].getAbsoluteFile().getParentFile(), sortMemory*1024L*1024L,
+				Math.max(nrOfThreads, Runtime.getRuntime().availableProcessors()));
+		try {
+			sorter.sort(files, files);
+		} catch(IOException e) {
+			System.err.println("Could not sort the dataset.");
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+		System.out.println("Dataset sorted in " + (System.currentTimeMillis() - start) + " ms.\n");
+	}
+	
+	/*
+	 * Writes <dataset file name>.partitions.json for the -hash output files
+	 */
+	private static void writePartitionManifest() {
+		String extension = serializerType.equalsIgnoreCase("trig") ? ".trig" : "." + serializerType.toLowerCase();
+		String formatString = "%0" + (((int)Math.log10(nrOfOutputFiles)) + 1) + "d";
+		File[] files = new File[nrOfOutputFiles];
+		long[] triples = new long[nrOfOutputFiles];
+		for(int i=1;i<=nrOfOutputFiles;i++) {
+			files[i-1] = new File(SerializerOutput.getFileName(outputFileName + String.format(formatString, i) + extension));
+			triples[i-1] = partitions[i-1].triplesGenerated();
+		}
+
+		String partitioning = hashPartitioning==ParallelSerializer.GRAPH_HASH ? "graph" : "subject";
+		try {
+			new PartitionManifest(partitioning, files, triples).write(new File(outputFileName + ".partitions.json"));
+		} catch(IOException e) {
+			System.err.println("Could not write the partition manifest.");
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+	}
+	
+	/*
+	 * Checkpoints need the partitioned mode and files that can be continued,
+	 * sorting needs N-Triples, hash partitioning a serializer per output file.
+	 * The update dataset is made of the products of all slices.
+	 */
+	private static void checkOptions() {
+		if(nrOfSlices>1 && generateUpdateDataset) {
+			System.err.println("-partition can not be combined with -ud, generate the update dataset in a run of its own.");
+			System.exit(-1);
+		}
+		if(hashPartitioning!=ParallelSerializer.ROUND_ROBIN) {
+			String t = serializerType.toLowerCase();
+			if(nrOfOutputFiles<2 || sortMemory>0 || !(t.equals("nt") || t.equals("ttl") || t.equals("trig"))) {
+				System.err.println("-hash needs -nof with more than one file, -s nt, ttl or trig and no -sort.");
+				System.exit(-1);
+			}
+			if(hashPartitioning==ParallelSerializer.GRAPH_HASH && !t.equals("trig")) {
+				System.err.println("-hash graph needs named graphs, i.e. -s trig.");
+				System.exit(-1);
+			}
+			//Every TriG file with a part of a graph would write its provenance triples again
+			if(hashPartitioning==ParallelSerializer.SUBJECT_HASH && t.equals("trig")) {
+				System.err.println("-hash subject needs -s nt or ttl, partition TriG output with -hash graph.");
+				System.exit(-1);
+			}
+		}
+		if(serializerType.equalsIgnoreCase("sql-load") && !compression.equals(SerializerOutput.NONE)) {
+			System.err.println("-s sql-load can not be combined with -compress, MySQL LOAD DATA does not read compressed files.");
+			System.exit(-1);
+		}
+		if(sortMemory>0 && !serializerType.equalsIgnoreCase("nt")) {
+			System.err.println("-sort needs N-Triples output.");
+			System.exit(-1);
+		}
+		if(writeStatistics && (checkpointInterval>0 || resume)) {
+			System.err.println("-stats can not be combined with -checkpoint or -resume.");
+			System.exit(-1);
+		}
+		if((checkpointInterval>0 || resume) &&
+				(nrOfThreads==0 || !serializerType.equalsIgnoreCase("nt") || !compression.equals(SerializerOutput.NONE))) {
+			System.err.println("-checkpoint and -resume need -threads, N-Triples output and no compression.");
+			System.exit(-1);
+		}
+	}
+	
+	/*
+	 * The options that change the output, a checkpoint only fits a run with the same ones
+	 */
+	private static String getCheckpointSignature() {
+		return "pc=" + productCount + " fc=" + forwardChaining + " fn=" + outputFileName + " nof=" + nrOfOutputFiles
+				+ " ud=" + generateUpdateDataset + " ufn=" + updateDatasetFileName + " tc=" + nrOfTransactionsInUpdateDataset
+				+ " ppt=" + nrOfProductsPerTransaction + " hash=" + hashPartitioning + " partition=" + slice + "/" + nrOfSlices;
+	}
+	
+	/*
+	 * Writes the state after the partitions before partitionNr of section.
+	 * The output files (by Resumable.checkpoint()) and the new checkpoint are
+	 * on the disk before it replaces the old one at once, so there is always a
+	 * complete checkpoint, also after a crash of the OS.
+	 */
+	private static void writeCheckpoint(int section, int partitionNr) {
+		File checkpoint = new File(outputFileName + ".checkpoint");
+		File newCheckpoint = new File(outputFileName + ".checkpoint.new");
+		try(FileOutputStream file = new FileOutputStream(newCheckpoint); ObjectOutputStream out = new ObjectOutputStream(file)) {
+			out.writeUTF(getCheckpointSignature());
+			out.writeInt(section);
+			out.writeInt(partitionNr);
+			out.writeObject(((Resumable)serializer).checkpoint());
+			out.writeObject(updateDatasetWriter!=null ? updateDatasetWriter.checkpoint() : null);
+			out.writeInt(wordList.size());
+			for(Map.Entry<String, Integer> entry: wordList.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue());
+			}
+			out.flush();
+			file.getFD().sync();
+		} catch(IOException e) {
+			System.err.println("Could not write checkpoint " + newCheckpoint.getAbsolutePath());
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+		try {
+			Files.move(newCheckpoint.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(IOException e) {
+			System.err.println("Could not replace checkpoint " + checkpoint.getAbsolutePath());
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+		lastCheckpoint = System.currentTimeMillis();
+	}
+	
+	/*
+	 * Continues the output files and the generator state at the checkpoint
+	 */
+	private static void readCheckpoint() {
+		File checkpoint = new File(outputFileName + ".checkpoint");
+		try(ObjectInputStream in = new ObjectInputStream(new FileInputStream(checkpoint))) {
+			if(!in.readUTF().equals(getCheckpointSignature())) {
+				System.err.println("The checkpoint " + checkpoint.getAbsolutePath() + " belongs to a run with different options.");
+				System.exit(-1);
+			}
+			resumeSection = in.readInt();
+			resumePartitionNr = in.readInt();
+			((Resumable)serializer).resume((long[])in.readObject());
+			long[] updateState = (long[])in.readObject();
+			if(updateDatasetWriter!=null)
+				updateDatasetWriter.resume(updateState);
+			wordList = readWordList(in);
+		} catch(IOException | ClassNotFoundException e) {
+			System.err.println("Could not read checkpoint " + checkpoint.getAbsolutePath());
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+		System.out.println("Resuming at partition " + resumePartitionNr + " of section " + resumeSection + "\n");
+	}
+	
+	/*
+	 * The words go into a map of the capacity the uninterrupted run has, in the
+	 * same order, so cdlw.dat is the same too
+	 */
+	private static HashMap<String, Integer> readWordList(ObjectInputStream in) throws IOException {
+		int size = in.readInt();
+		int capacity = 16;
+		while(size > capacity*3/4)
+			capacity *= 2;
+		HashMap<String, Integer> words = new HashMap<String, Integer>(capacity);
+		for(int i=0;i<size;i++)
+			words.put(in.readUTF(), in.readInt());
+		return words;
+	}
+	
+	/*
+	 * Records the dataset of the smaller product count, then generates the one of
+	 * -pc and writes the difference
+	 */
+	private static void createDelta() {
+		//Without -threads all partitions draw from one dictionary, after the product types of the product count,
+		//so nearly every text after them differs between the two datasets
+		if(deltaBaseProductCount>=productCount || nrOfThreads==0 || !serializerType.equalsIgnoreCase("nt") || nrOfOutputFiles!=1 || writeStatistics
+				|| sortMemory>0 || nrOfSlices>1 || checkpointInterval>0 || resume) {
+			System.err.println("-delta needs a product count below -pc, -threads, N-Triples output and one output file, and no -stats, -sort, -partition, -checkpoint or -resume.");
+			System.exit(-1);
+		}
+		int targetProductCount = productCount;
+		boolean targetUpdateDataset = generateUpdateDataset;
+		
+		System.out.println("Recording the dataset of " + deltaBaseProductCount + " products...");
+		productCount = deltaBaseProductCount;
+		generateUpdateDataset = false;
+		DeltaSerializer base = new DeltaSerializer(outputFileName, forwardChaining);
+		serializer = base;
+		init();
+		createDataset();
+		serializer.serialize();
+		
+		System.out.println("Generating the difference to the dataset of " + targetProductCount + " products...");
+		productCount = targetProductCount;
+		generateUpdateDataset = targetUpdateDataset;
+		deltaSerializer = new DeltaSerializer(base, outputFileName);
+		serializer = deltaSerializer;
+		init();
+		createDataset();
+		serializer.serialize();
+	}
+	
+	/*
+	 * Output of data that has been written before
+	 */
+	private static class DiscardingSerializer implements Serializer {
+		@Override
+		public void gatherData(ObjectBundle bundle) {
+		}
+
+		@Override
+		public void serialize() {
+		}
+
+		@Override
+		public Long triplesGenerated() {
+			return 0L;
+		}
+	}
+	
+	private static void createDataset() {
 		Long[] ptSeeds = generateSeedsProductType();
 		Long[] pfSeeds = generateSeedsProductFeature();
 		Long[] producerSeeds = generateSeedsProducer();
@@ -1171,21 +1956,33 @@ public class Generator {
 		generateVendorDistribution(vendorSeeds);
 		generateRatingSiteDistribution(rtSeeds);
 		
+		int producerCount = producerOfProduct.size() - 1;
+		int vendorCount = vendorOfOffer.size() - 1;
+		int ratingSiteCount = ratingsiteOfReview.size() - 1;
+		long producerEntities = sectionEntities(PRODUCERS, producerCount);
+		long vendorEntities = sectionEntities(VENDORS, vendorCount);
+		long ratingSiteEntities = sectionEntities(RATING_SITES, ratingSiteCount);
+		monitor = new GeneratorMonitor(serializer, producerEntities + vendorEntities + ratingSiteEntities, pipeline, parallelSerializer);
+		monitor.start(progressInterval);
+		
+		//A resumed run has written the product types and features already, only slice 0 writes them
+		Serializer output = serializer;
+		if(resume || slice>0)
+			serializer = new DiscardingSerializer();
+		monitor.startPhase("Product types and features", null, 0);
 		createProductTypeHierarchy(ptSeeds);
 		createProductFeatures(pfSeeds);
+		monitor.endPhase();
+		serializer = output;
+		monitor.startPhase("Producers", "products", producerEntities);
 		createProducerData(producerSeeds);
+		monitor.endPhase();
+		monitor.startPhase("Vendors", "offers", vendorEntities);
 		createVendorData(vendorSeeds);
+		monitor.endPhase();
+		monitor.startPhase("Rating sites", "reviews", ratingSiteEntities);
 		createRatingSiteData(rtSeeds);
-		
-		serializer.serialize();
-		writeTestDriverData();
-		
-		if(generateUpdateDataset)
-			createUpdateDataset();
-		
-		System.out.println(serializer.triplesGenerated() + " triples generated.");
-		
-		if(generateUpdateDataset)
-			System.out.println(updateDatasetSerializer.triplesGenerated() + " triples generated for update dataset.");
+		monitor.endPhase();
+		monitor.stop();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package benchmark.generator;
+
+/*
+ * Events of a generator run for a profiler, see GeneratorMonitor. The Flight
+ * Recorder implementation (JfrEvents) is in src-jfr, compiled only on Java 11
+ * and later, so it is loaded by name: without it or without the jdk.jfr API
+ * in the JVM there are no events.
+ */
+interface GeneratorEvents {
+	/*
+	 * The event of the phase, passed to endPhase
+	 */
+	Object beginPhase(String phase);
+
+	void endPhase(Object phaseEvent, long entities, long triples, long bytesWritten);
+
+	void progress(String phase, double progress, long triples, double triplesPerSecond, long bytesWritten,
+			int pipelineQueueDepth, int shardQueueDepth);
+
+	/*
+	 * The Flight Recorder events, null if not available
+	 */
+	static GeneratorEvents load() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (GeneratorEvents)Class.forName("benchmark.generator.JfrEvents").getDeclaredConstructor().newInstance();
+		} catch(ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+}
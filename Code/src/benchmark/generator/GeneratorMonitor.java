@@ -0,0 +1,307 @@
+package benchmark.generator;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import benchmark.serializer.ParallelSerializer;
+import benchmark.serializer.PipelinedSerializer;
+import benchmark.serializer.Serializer;
+import benchmark.serializer.SerializerOutput;
+
+/*
+ * Throughput and progress of a generator run. The run is divided into phases
+ * (product types and features, producers, vendors, rating sites), the progress
+ * is measured in the products, offers and reviews generated, known in advance
+ * from the distributions.
+ *
+ * Every phase ends with a line of its time, triples and bytes written. A
+ * reporter thread prints the progress every interval seconds, with the ETA,
+ * the current rates, the depth of the serializer queues and the share of GC
+ * time: a full pipeline queue means the serializer is the bottleneck, an
+ * empty one the generation. With several output files a second line has the
+ * bytes and the rate of every file, which shows a file falling behind. The same numbers are a JMX MBean
+ * (benchmark:type=Generator) and, built and run on Java 11 and later, JFR
+ * events.
+ */
+public class GeneratorMonitor implements GeneratorMonitorMBean {
+	private static final GeneratorEvents events = GeneratorEvents.load();
+
+	private Serializer serializer;
+	private PipelinedSerializer pipeline;//null: not used
+	private ParallelSerializer shards;
+	private long entitiesTotal;
+	private long startTime = System.currentTimeMillis();
+
+	private volatile String phase = "Initialization";
+	private volatile String phaseEntityName;
+	private volatile long phaseEntities;
+	private volatile long phaseEntitiesDone;
+	private volatile long entitiesBeforePhase;//Of the finished phases
+	private long phaseStartTime;
+	private long phaseStartTriples;
+	private long phaseStartBytes;
+	private Object phaseEvent;//Of events
+
+	private Thread reporter;
+	private ObjectName objectName;
+
+	public GeneratorMonitor(Serializer serializer, long entitiesTotal, PipelinedSerializer pipeline, ParallelSerializer shards)
+	{
+		this.serializer = serializer;
+		this.entitiesTotal = entitiesTotal;
+		this.pipeline = pipeline;
+		this.shards = shards;
+	}
+
+	/*
+	 * Registers the MBean and starts the reporter, interval 0: no reports
+	 */
+	public void start(int interval) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			objectName = new ObjectName("benchmark:type=Generator");
+			if(server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+			server.registerMBean(this, objectName);
+		} catch(Exception e) {
+			System.err.println("Could not register the generator MBean: " + e.getMessage());
+			objectName = null;
+		}
+
+		if(interval>0) {
+			reporter = new Thread(() -> report(interval), "Progress");
+			reporter.setDaemon(true);
+			reporter.start();
+		}
+	}
+
+	public void stop() {
+		if(reporter!=null) {
+			reporter.interrupt();
+			try {
+				reporter.join();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if(objectName!=null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch(Exception e) {
+				//Already gone
+			}
+		}
+	}
+
+	/*
+	 * entities: the products, offers or reviews (entityName) of the phase in this run
+	 */
+	public void startPhase(String name, String entityName, long entities) {
+		phaseStartTime = System.currentTimeMillis();
+		phaseStartTriples = serializer.triplesGenerated();
+		phaseStartBytes = SerializerOutput.getBytesWritten();
+		phaseEntityName = entityName;
+		phaseEntities = entities;
+		phaseEntitiesDone = 0;
+		phase = name;
+		if(events!=null)
+			phaseEvent = events.beginPhase(name);
+	}
+
+	/*
+	 * The entities of the phase generated so far
+	 */
+	public void setPhaseProgress(long entities) {
+		phaseEntitiesDone = entities;
+	}
+
+	/*
+	 * Prints the phase summary. With a pipeline the triples are counted when
+	 * serialized, the rest of a phase is counted for the next one.
+	 */
+	public void endPhase() {
+		double seconds = Math.max(System.currentTimeMillis() - phaseStartTime, 1) / 1000.0;
+		long triples = serializer.triplesGenerated() - phaseStartTriples;
+		long bytes = SerializerOutput.getBytesWritten() - phaseStartBytes;
+		StringBuilder line = new StringBuilder();
+		line.append(String.format(Locale.US, "%s: %.1f s", phase, seconds));
+		if(phaseEntityName!=null)
+			line.append(String.format(Locale.US, ", %d %s (%.0f/s)", phaseEntities, phaseEntityName, phaseEntities / seconds));
+		line.append(String.format(Locale.US, ", %d triples (%.0f triples/s), %s written (%s/s)",
+				triples, triples / seconds, formatBytes(bytes), formatBytes((long)(bytes / seconds))));
+		System.out.println(line + "\n");
+
+		if(events!=null && phaseEvent!=null)
+			events.endPhase(phaseEvent, phaseEntities, triples, bytes);
+		phaseEvent = null;
+		entitiesBeforePhase += phaseEntities;
+		phaseEntitiesDone = 0;
+		phaseEntities = 0;
+	}
+
+	private void report(int interval) {
+		long lastTime = System.currentTimeMillis();
+		long lastTriples = serializer.triplesGenerated();
+		long lastBytes = SerializerOutput.getBytesWritten();
+		Map<String, Long> lastFileBytes = SerializerOutput.getBytesWrittenPerFile();
+		long lastGcTime = getGcTime();
+		while(true) {
+			try {
+				Thread.sleep(interval*1000L);
+			} catch(InterruptedException e) {
+				return;
+			}
+			long time = System.currentTimeMillis();
+			long triples = serializer.triplesGenerated();
+			long bytes = SerializerOutput.getBytesWritten();
+			Map<String, Long> fileBytes = SerializerOutput.getBytesWrittenPerFile();
+			long gcTime = getGcTime();
+			double seconds = Math.max(time - lastTime, 1) / 1000.0;
+			double triplesPerSecond = (triples - lastTriples) / seconds;
+
+			StringBuilder line = new StringBuilder();
+			line.append(String.format(Locale.US, "Progress: %.1f%% %s", getProgressPercent(), phase));
+			String entityName = phaseEntityName;
+			if(entityName!=null)
+				line.append(String.format(Locale.US, " %d/%d %s", phaseEntitiesDone, phaseEntities, entityName));
+			line.append(String.format(Locale.US, ", %d triples (%.0f triples/s), %s written (%s/s)",
+					triples, triplesPerSecond, formatBytes(bytes), formatBytes((long)((bytes - lastBytes) / seconds))));
+			if(pipeline!=null)
+				line.append(", pipeline " + pipeline.getQueuedBundles() + "/" + pipeline.getNrOfBundles());
+			if(shards!=null)
+				line.append(", file queues " + shards.getQueuedBundles() + "/" + shards.getQueueCapacity());
+			line.append(String.format(Locale.US, ", GC %.0f%%", 100.0 * (gcTime - lastGcTime) / (seconds * 1000)));
+			long eta = getEtaSeconds();
+			if(eta>=0)
+				line.append(", ETA " + formatSeconds(eta));
+			System.out.println(line);
+
+			if(fileBytes.size()>1) {
+				StringBuilder files = new StringBuilder("  Files:");
+				String separator = " ";
+				for(Map.Entry<String, Long> file: fileBytes.entrySet()) {
+					Long last = lastFileBytes.get(file.getKey());
+					long written = file.getValue() - (last==null ? 0 : last);
+					files.append(separator).append(file.getKey()).append(' ').append(formatBytes(file.getValue()))
+						.append(" (").append(formatBytes((long)(written / seconds))).append("/s)");
+					separator = ", ";
+				}
+				System.out.println(files);
+			}
+
+			if(events!=null)
+				events.progress(phase, getProgressPercent() / 100, triples, triplesPerSecond, bytes,
+						getPipelineQueueDepth(), getShardQueueDepth());
+
+			lastTime = time;
+			lastTriples = triples;
+			lastBytes = bytes;
+			lastFileBytes = fileBytes;
+			lastGcTime = gcTime;
+		}
+	}
+
+	private static long getGcTime() {
+		long time = 0;
+		for(GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans())
+			time += Math.max(gc.getCollectionTime(), 0);
+		return time;
+	}
+
+	static String formatBytes(long bytes) {
+		if(bytes<1024*1024)
+			return String.format(Locale.US, "%.1f KB", bytes / 1024.0);
+		else if(bytes<1024L*1024*1024)
+			return String.format(Locale.US, "%.1f MB", bytes / (1024.0*1024));
+		return String.format(Locale.US, "%.2f GB", bytes / (1024.0*1024*1024));
+	}
+
+	static String formatSeconds(long seconds) {
+		return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+	}
+
+	@Override
+	public String getPhase() {
+		return phase;
+	}
+
+	@Override
+	public long getEntitiesGenerated() {
+		return entitiesBeforePhase + phaseEntitiesDone;
+	}
+
+	@Override
+	public long getEntitiesTotal() {
+		return entitiesTotal;
+	}
+
+	@Override
+	public double getProgressPercent() {
+		if(entitiesTotal==0)
+			return 0;
+		return 100.0 * getEntitiesGenerated() / entitiesTotal;
+	}
+
+	@Override
+	public long getTriples() {
+		return serializer.triplesGenerated();
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return SerializerOutput.getBytesWritten();
+	}
+
+	@Override
+	public String[] getOutputFiles() {
+		return SerializerOutput.getBytesWrittenPerFile().keySet().toArray(new String[0]);
+	}
+
+	@Override
+	public long[] getBytesWrittenPerFile() {
+		Map<String, Long> fileBytes = SerializerOutput.getBytesWrittenPerFile();
+		long[] bytes = new long[fileBytes.size()];
+		int i = 0;
+		for(long b: fileBytes.values())
+			bytes[i++] = b;
+		return bytes;
+	}
+
+	@Override
+	public double getTriplesPerSecond() {
+		return getTriples() / (Math.max(System.currentTimeMillis() - startTime, 1) / 1000.0);
+	}
+
+	@Override
+	public int getPipelineQueueDepth() {
+		return pipeline==null ? -1 : pipeline.getQueuedBundles();
+	}
+
+	@Override
+	public int getShardQueueDepth() {
+		return shards==null ? -1 : shards.getQueuedBundles();
+	}
+
+	@Override
+	public long getElapsedSeconds() {
+		return (System.currentTimeMillis() - startTime) / 1000;
+	}
+
+	/*
+	 * The rest at the average rate so far, products, offers and reviews
+	 * taken as the same work
+	 */
+	@Override
+	public long getEtaSeconds() {
+		long done = getEntitiesGenerated();
+		if(done==0)
+			return -1;
+		long elapsed = System.currentTimeMillis() - startTime;
+		return (long)((double)elapsed * (entitiesTotal - done) / done / 1000);
+	}
+}
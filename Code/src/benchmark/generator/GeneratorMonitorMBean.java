@@ -0,0 +1,46 @@
+package benchmark.generator;
+
+/*
+ * The counters of a generator run, registered as benchmark:type=Generator
+ * while the dataset is generated
+ */
+public interface GeneratorMonitorMBean {
+	String getPhase();
+
+	/*
+	 * Products, offers and reviews generated / to generate in this run
+	 */
+	long getEntitiesGenerated();
+
+	long getEntitiesTotal();
+
+	double getProgressPercent();
+
+	long getTriples();
+
+	long getBytesWritten();
+
+	/*
+	 * The output files in the order they were created and the bytes written
+	 * to each, in the same order (files are only added, never removed)
+	 */
+	String[] getOutputFiles();
+
+	long[] getBytesWrittenPerFile();
+
+	double getTriplesPerSecond();
+
+	/*
+	 * Bundles in the pipeline and the queues of the output files, -1 if not used
+	 */
+	int getPipelineQueueDepth();
+
+	int getShardQueueDepth();
+
+	long getElapsedSeconds();
+
+	/*
+	 * -1 as long as nothing has been generated
+	 */
+	long getEtaSeconds();
+}
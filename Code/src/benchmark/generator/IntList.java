@@ -0,0 +1,36 @@
+package benchmark.generator;
+
+import java.util.Arrays;
+
+/*
+ * A growing list of ints without boxing, for the distribution data
+ */
+public class IntList {
+	private int[] values = new int[1024];
+	private int size = 0;
+	
+	public void add(int value) {
+		if(size==values.length)
+			values = Arrays.copyOf(values, size*2);
+		values[size++] = value;
+	}
+	
+	public int get(int index) {
+		return values[index];
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/*
+	 * As Collections.binarySearch() on a sorted list
+	 */
+	public int binarySearch(int value) {
+		return Arrays.binarySearch(values, 0, size, value);
+	}
+	
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+}
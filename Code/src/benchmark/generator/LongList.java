@@ -0,0 +1,29 @@
+package benchmark.generator;
+
+import java.util.Arrays;
+
+/*
+ * A growing list of longs without boxing, for the distribution data
+ */
+public class LongList {
+	private long[] values = new long[1024];
+	private int size = 0;
+	
+	public void add(long value) {
+		if(size==values.length)
+			values = Arrays.copyOf(values, size*2);
+		values[size++] = value;
+	}
+	
+	public long get(int index) {
+		return values[index];
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+}
@@ -2,33 +2,58 @@ package benchmark.generator;
 
 import java.util.Random;
 
+/*
+ * Chooses one of a fixed number of objects with given percentages.
+ * The choice is found by inversion of the cumulative percentages, starting at
+ * a guide table entry, so it takes constant expected time and gives the same
+ * results as a linear search. Booleans and ints can also be drawn without boxing.
+ */
 public class RandomBucket {
 	
 	private double[] cumulativePercentage;
 	private Object[] objects;
+	private int[] values;//Primitive values of the objects added as boolean (0/1) or int
+	private int[] guide;//guide[i]: first index with cumulativePercentage >= i/guide.length
 	private int index;
 	private double totalPercentage;
 	private Random ranGen;
 	
 	public RandomBucket(int size)
 	{
-		cumulativePercentage = new double[size];
-		objects = new Object[size];
-		index=0;
-		totalPercentage = 0.0;
-		ranGen = new Random();
+		this(size, new Random());
 	}
 	
 	public RandomBucket(int size, long seed)
+	{
+		this(size, new Random(seed));
+	}
+	
+	private RandomBucket(int size, Random ranGen)
 	{
 		cumulativePercentage = new double[size];
 		objects = new Object[size];
+		values = new int[size];
 		index=0;
 		totalPercentage = 0.0;
-		ranGen = new Random(seed);
+		this.ranGen = ranGen;
+	}
+	
+	public void add(double percentage, boolean value)
+	{
+		add(percentage, Boolean.valueOf(value), value ? 1 : 0);
+	}
+	
+	public void add(double percentage, int value)
+	{
+		add(percentage, Integer.valueOf(value), value);
 	}
 	
 	public void add(double percentage, Object obj)
+	{
+		add(percentage, obj, 0);
+	}
+	
+	private void add(double percentage, Object obj, int value)
 	{
 		if(index==objects.length)
 		{
@@ -38,6 +63,7 @@ public class RandomBucket {
 		else
 		{
 			objects[index] = obj;
+			values[index] = value;
 			cumulativePercentage[index] = percentage;
 			totalPercentage+=percentage;
 		}
@@ -52,19 +78,58 @@ public class RandomBucket {
 				cumul += cumulativePercentage[i]/totalPercentage;
 				cumulativePercentage[i] = cumul;
 			}
+			createGuideTable();
 		}
 	}
 	
-	public Object getRandom()
+	private void createGuideTable()
+	{
+		guide = new int[objects.length];
+		int i = 0;
+		for(int j=0;j<guide.length;j++)
+		{
+			double start = (double)j/guide.length;
+			while(i<objects.length-1 && cumulativePercentage[i]<start)
+				i++;
+			guide[j] = i;
+		}
+	}
+	
+	/*
+	 * Index of the next random object
+	 */
+	public int getRandomIndex()
 	{
 		double randIndex = ranGen.nextDouble();
 		
-		for(int i=0;i<objects.length;i++)
+		int i = guide[(int)(randIndex*guide.length)];
+		for(;i<objects.length;i++)
 		{
 			if(randIndex<=cumulativePercentage[i])
-				return objects[i];
+				return i;
 		}
 		//Should never happens, but...
-		return objects[objects.length-1];
+		return objects.length-1;
+	}
+	
+	public Object getRandom()
+	{
+		return objects[getRandomIndex()];
+	}
+	
+	/*
+	 * For buckets of booleans
+	 */
+	public boolean getRandomBoolean()
+	{
+		return values[getRandomIndex()]!=0;
+	}
+	
+	/*
+	 * For buckets of ints
+	 */
+	public int getRandomInt()
+	{
+		return values[getRandomIndex()];
 	}
 }
@@ -0,0 +1,88 @@
+package benchmark.generator;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+
+import benchmark.model.ProductType;
+
+/*
+ * The data the Test Driver needs to create query parameters.
+ * Written to the td_data directory (*.dat files) or handed over in memory.
+ */
+public class TestDriverData {
+	public final ProductType[] productTypeLeaves;
+	public final int productTypeCount;
+	public final List<Integer> maxProductTypeNrPerLevel;
+	public final Integer[] producerOfProduct;//saves producer-product relationship
+	public final long[] vendorOfOffer;//saves vendor-offer relationship
+	public final long[] ratingsiteOfReview;//saves review-ratingSite relationship
+	public final int productCount;
+	public final long reviewCount;
+	public final long offerCount;
+	public final GregorianCalendar currentDate;
+	public final HashMap<String,Integer> wordList;//Words of the Product labels
+
+	/*
+	 * Offer and review numbers are written as Integer[] and int, like before,
+	 * as long as they fit. Larger ones are written as Long[], and a count as
+	 * -1 followed by the long value.
+	 */
+	public static Object writableNumbers(long[] numbers) {
+		if(numbers.length==0 || numbers[numbers.length-1]<=Integer.MAX_VALUE) {
+			Integer[] result = new Integer[numbers.length];
+			for(int i=0;i<numbers.length;i++)
+				result[i] = (int)numbers[i];
+			return result;
+		}
+		Long[] result = new Long[numbers.length];
+		for(int i=0;i<numbers.length;i++)
+			result[i] = numbers[i];
+		return result;
+	}
+
+	/*
+	 * Reads an Integer[] or Long[] written with writableNumbers
+	 */
+	public static long[] readNumbers(Object numbers) {
+		Number[] values = (Number[])numbers;
+		long[] result = new long[values.length];
+		for(int i=0;i<values.length;i++)
+			result[i] = values[i].longValue();
+		return result;
+	}
+
+	public static void writeCount(ObjectOutputStream out, long count) throws IOException {
+		if(count<=Integer.MAX_VALUE)
+			out.writeInt((int)count);
+		else {
+			out.writeInt(-1);
+			out.writeLong(count);
+		}
+	}
+
+	public static long readCount(ObjectInputStream in) throws IOException {
+		int count = in.readInt();
+		return count==-1 ? in.readLong() : count;
+	}
+
+	public TestDriverData(ProductType[] productTypeLeaves, int productTypeCount, List<Integer> maxProductTypeNrPerLevel,
+			Integer[] producerOfProduct, long[] vendorOfOffer, long[] ratingsiteOfReview,
+			int productCount, long reviewCount, long offerCount, GregorianCalendar currentDate, HashMap<String,Integer> wordList)
+	{
+		this.productTypeLeaves = productTypeLeaves;
+		this.productTypeCount = productTypeCount;
+		this.maxProductTypeNrPerLevel = maxProductTypeNrPerLevel;
+		this.producerOfProduct = producerOfProduct;
+		this.vendorOfOffer = vendorOfOffer;
+		this.ratingsiteOfReview = ratingsiteOfReview;
+		this.productCount = productCount;
+		this.reviewCount = reviewCount;
+		this.offerCount = offerCount;
+		this.currentDate = currentDate;
+		this.wordList = wordList;
+	}
+}
@@ -1,20 +1,24 @@
 package benchmark.generator;
 
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
 
+/*
+ * Random sentences from the words of a dictionary file.
+ * All words are kept in one char array, a sentence is copied together in a
+ * reused buffer. Used words are counted by word number and only added to the
+ * word list for the Test Driver when logging is deactivated.
+ */
 public class TextGenerator {
-	RandomAccessFile dictionary;
 	private Random ranGen;
 	private HashMap<String,Integer> logList;//The word list for the Test Driver
-	private Vector<String> words;//For faster access, save all words in Vector-Array
-	
-	private final static int FINDSTART = 1;
-	private final static int READWORD = 2;
-	private final static int FINISHED = 3;
-	private final static int EOF = 4;
+	private char[] text;//The words of the dictionary, one after the other
+	private int[] wordStart;//Start of word i in text, wordStart[nrOfWords] is the end of the last word
+	private int nrOfWords;
+	private char[] sentence = new char[256];
+	private WordCounter wordCounts;
 
 	public TextGenerator(String file)
 	{
@@ -30,11 +34,25 @@ public class TextGenerator {
 		init(file);
 	}
 	
+	/*
+	 * A TextGenerator over the words of an already read in dictionary,
+	 * but with its own random sequence. The word arrays are shared and never
+	 * changed, so the copies can be used by different threads.
+	 */
+	public TextGenerator(TextGenerator dictionary, long seed)
+	{
+		ranGen = new Random(seed);
+		text = dictionary.text;
+		wordStart = dictionary.wordStart;
+		nrOfWords = dictionary.nrOfWords;
+		logList = null;
+	}
+	
 	//Initialize this TextGenerator
 	private void init(String file) {
+		byte[] content = null;
 		try {
-			dictionary = new RandomAccessFile(file,"r");
-			
+			content = Files.readAllBytes(Paths.get(file));
 		} catch(IOException e) {
 			System.err.println(e.getMessage());
 			System.exit(-1);
@@ -43,85 +61,52 @@ public class TextGenerator {
 		System.out.print("Reading in " + file + ": ");
 		logList = null;
 			
-		createWordList();
-		
-		try {
-			dictionary.close();
-		} catch(IOException e) {
-			System.err.println(e.getMessage());
-			System.exit(-1);
-		}
+		createWordList(content);
 	}
 	
-	//Generates a Vector of words
-	//@SuppressWarnings("fallthrough")
-    private void createWordList() {
-		words = new Vector<String>();
+	/*
+	 * Splits the file content into words: the runs of letters, bytes are read as chars
+	 */
+	private void createWordList(byte[] content) {
+		text = new char[content.length];
+		wordStart = new int[content.length/2 + 2];
+		int length = 0;
+		nrOfWords = 0;
+		boolean inWord = false;
 
-		while(true) {
-			StringBuffer word = new StringBuffer();
-			try{
-				int state = FINDSTART;
-				char c=' ';
-				
-				while(state!=FINISHED)
-				{
-					try {
-						c=(char)dictionary.readByte();
-					} catch(EOFException eof) {
-						state = EOF;
-						break;
-					}
-	
-					switch(state)
-					{
-						case FINDSTART:
-							if(isLetter(c))
-								state = READWORD;//is a letter, go on with READWORD
-						case READWORD:
-							if(isLetter(c))
-								word.append(c);
-							else
-								state = FINISHED;
-					}
+		for(int i=0;i<content.length;i++) {
+			char c = (char)content[i];
+			if(isLetter(c)) {
+				if(!inWord) {
+					wordStart[nrOfWords++] = length;
+					inWord = true;
 				}
-				
-				//Check if a word has been read in
-				if(word.length()>0) {
-					String wordString = word.toString();
-					words.add(wordString);
-				}
-					
-				//Finish at EOF
-				if(state==EOF)
-					break;
-				
-			} catch(IOException e) {
-				System.err.println("Couldn't get word.\n"+e.getMessage());
+				text[length++] = c;
 			}
+			else
+				inWord = false;
 		}
-		System.out.println(words.size() + " words read in.");
+		wordStart[nrOfWords] = length;
+		text = Arrays.copyOf(text, length);
+		wordStart = Arrays.copyOf(wordStart, nrOfWords+1);
+		System.out.println(nrOfWords + " words read in.");
 	}
 	
-	//reads a random word from the text file
-	private String getRandomWord()
+	//Appends a random word to the sentence buffer and returns the new length
+	private int appendRandomWord(int length)
 	{
-		int index = ranGen.nextInt(words.size());
-		String word = words.elementAt(index);
+		int index = ranGen.nextInt(nrOfWords);
+		int start = wordStart[index];
+		int wordLength = wordStart[index+1] - start;
+
+		if(length+wordLength>sentence.length)
+			sentence = Arrays.copyOf(sentence, Math.max(sentence.length*2, length+wordLength));
+		System.arraycopy(text, start, sentence, length, wordLength);
 
 		if(logList!=null) 
-			addWordToWordlist(word);
+			wordCounts.increment(index);
 		
-		return word;
-	}
-	
-	private void addWordToWordlist(String word) {
-		Integer count = 1;
-		if(logList.containsKey(word)) {
-			count = logList.get(word);
-			count++;
-		}
-		logList.put(word, count);
+		return length + wordLength;
 	}
 	
 	/*
@@ -129,17 +114,19 @@ public class TextGenerator {
 	 */
 	public String getRandomSentence(int numberWords)
 	{
-		StringBuffer sentence = new StringBuffer();
+		int length = 0;
 		
 		if(numberWords>0)
-			sentence.append(getRandomWord());
+			length = appendRandomWord(length);
 		
 		for(int i=1;i<numberWords;i++) {
-			sentence.append(" ");
-			sentence.append(getRandomWord());
+			if(length==sentence.length)
+				sentence = Arrays.copyOf(sentence, sentence.length*2);
+			sentence[length++] = ' ';
+			length = appendRandomWord(length);
 		}
 		
-		return sentence.toString();
+		return new String(sentence, 0, length);
 	}
 	
 	private boolean isLetter(char c)
@@ -181,9 +168,84 @@ public class TextGenerator {
 
 	public void activateLogging(HashMap<String, Integer> logList) {
 		this.logList = logList;
+		if(wordCounts==null)
+			wordCounts = new WordCounter();
 	}
 	
+	/*
+	 * Adds the counted words to the word list, in the order they were first used
+	 */
 	public void deactivateLogging() {
+		if(logList!=null) {
+			for(int i=0;i<wordCounts.size;i++) {
+				int word = wordCounts.order[i];
+				String wordString = new String(text, wordStart[word], wordStart[word+1]-wordStart[word]);
+				Integer count = logList.get(wordString);
+				int usage = wordCounts.get(word);
+				logList.put(wordString, count==null ? usage : count + usage);
+			}
+			wordCounts.clear();
+		}
 		this.logList = null;
 	}
+	
+	/*
+	 * Counts per word number in an open addressing hash table
+	 */
+	private static class WordCounter {
+		private int[] keys = new int[256];//Word number + 1, 0: empty
+		private int[] counts = new int[256];
+		private int[] order = new int[128];//Word numbers in the order of their first use
+		private int size = 0;
+		
+		private int slot(int word) {
+			int mask = keys.length-1;
+			int i = (word * 0x9E3779B9) >>> 8 & mask;
+			while(keys[i]!=0 && keys[i]!=word+1)
+				i = (i+1) & mask;
+			return i;
+		}
+		
+		void increment(int word) {
+			int i = slot(word);
+			if(keys[i]==0) {
+				if(size==order.length) {
+					grow();
+					i = slot(word);
+				}
+				keys[i] = word+1;
+				order[size++] = word;
+			}
+			counts[i]++;
+		}
+		
+		int get(int word) {
+			return counts[slot(word)];
+		}
+		
+		private void grow() {
+			int[] oldKeys = keys;
+			int[] oldCounts = counts;
+			keys = new int[oldKeys.length*2];
+			counts = new int[oldCounts.length*2];
+			order = Arrays.copyOf(order, order.length*2);
+			for(int i=0;i<oldKeys.length;i++)
+				if(oldKeys[i]!=0) {
+					int j = slot(oldKeys[i]-1);
+					keys[j] = oldKeys[i];
+					counts[j] = oldCounts[i];
+				}
+		}
+		
+		void clear() {
+			//Find all slots before emptying them, the probe sequences depend on the filled slots
+			for(int i=0;i<size;i++)
+				order[i] = slot(order[i]);
+			for(int i=0;i<size;i++) {
+				keys[order[i]] = 0;
+				counts[order[i]] = 0;
+			}
+			size = 0;
+		}
+	}
 }
@@ -5,6 +5,10 @@ import java.util.Random;
 
 public class ValueGenerator {
 	private Random ranGen;
+	private MessageDigest sha1;//Reused for every randomSHA1()
+	private byte[] sha1Input = new byte[4];
+	private char[] hex = new char[40];
+	private static final char[] hexDigits = "0123456789abcdef".toCharArray();
 	
 	public ValueGenerator(long seed)
 	{
@@ -32,7 +36,7 @@ public class ValueGenerator {
 	 */
 	public long randomLong(long from, long to)
 	{
-		return (long)ranGen.nextDouble()*(to-from+1) + from;
+		return (long)(ranGen.nextDouble()*(to-from+1)) + from;
 	}
 	
 	/*
@@ -50,29 +54,36 @@ public class ValueGenerator {
 			
 	}
 	
+	/*
+	 * SHA1 of a random int, in hex without leading zeros per byte
+	 */
 	public String randomSHA1()
 	{
-		byte[] b = new byte[4];
 		int i = ranGen.nextInt();
 
 		for(int j=0;j<4;j++)
 		{
-			b[j] = (byte)(i % 256);
+			sha1Input[j] = (byte)(i % 256);
 			i >>= 8;
 		}
 		
-		MessageDigest md=null;
-		try{
-			md = MessageDigest.getInstance("SHA1");
-		} catch(java.security.NoSuchAlgorithmException e) { System.err.println(e.getMessage()); System.exit(-1);}
+		if(sha1==null) {
+			try{
+				sha1 = MessageDigest.getInstance("SHA1");
+			} catch(java.security.NoSuchAlgorithmException e) { System.err.println(e.getMessage()); System.exit(-1);}
+		}
 		
-		byte[] chksum = md.digest(b);
-		StringBuffer result=new StringBuffer();
+		byte[] chksum = sha1.digest(sha1Input);
+		int length = 0;
 		
-		for(int j=0;j<chksum.length;j++)
-			result.append(Integer.toHexString(0xFF & chksum[j]));
+		for(int j=0;j<chksum.length;j++) {
+			int b = 0xFF & chksum[j];
+			if(b>=16)
+				hex[length++] = hexDigits[b >> 4];
+			hex[length++] = hexDigits[b & 0xF];
+		}
 		
-		return result.toString();
+		return new String(hex, 0, length);
 	}
 	
 	
@@ -2,19 +2,19 @@ package benchmark.model;
 
 
 public abstract class BSBMResource {
-	Integer publisher=null;//Nr. of publisher
-	Long publishDate=null;
+	int publisher;//Nr. of publisher, 0: none
+	long publishDate;
 	
-	public Integer getPublisher() {
+	public int getPublisher() {
 		return publisher;
 	}
-	public void setPublisher(Integer publisher) {
+	public void setPublisher(int publisher) {
 		this.publisher = publisher;
 	}
-	public Long getPublishDate() {
+	public long getPublishDate() {
 		return publishDate;
 	}
-	public void setPublishDate(Long publishDate) {
+	public void setPublishDate(long publishDate) {
 		this.publishDate = publishDate;
 	}
 }
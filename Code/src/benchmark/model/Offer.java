@@ -3,16 +3,16 @@ package benchmark.model;
 import java.util.Locale;
 
 public class Offer extends BSBMResource {
-	private int nr;
-	private Integer product;
+	private long nr;
+	private int product;
 	private int vendor;
 	private double price;
 	private long validFrom;
 	private long validTo;
-	private Integer deliveryDays;
+	private int deliveryDays;
 	private String offerWebpage;
 	
-	public Offer(int nr, Integer product, int vendor, double price,
+	public Offer(long nr, int product, int vendor, double price,
 			     long validFrom, long validTo, int deliveryDays,
 			     String offerWebpage) {
 		this.nr = nr;
@@ -26,19 +26,19 @@ public class Offer extends BSBMResource {
 		this.offerWebpage = offerWebpage;
 	}
 	
-	public int getNr() {
+	public long getNr() {
 		return nr;
 	}
 
-	public void setNr(int nr) {
+	public void setNr(long nr) {
 		this.nr = nr;
 	}
 
-	public Integer getProduct() {
+	public int getProduct() {
 		return product;
 	}
 
-	public void setProduct(Integer product) {
+	public void setProduct(int product) {
 		this.product = product;
 	}
 
@@ -79,11 +79,11 @@ public class Offer extends BSBMResource {
 		this.validTo = validTo;
 	}
 
-	public Integer getDeliveryDays() {
+	public int getDeliveryDays() {
 		return deliveryDays;
 	}
 
-	public void setDeliveryDays(Integer deliveryDays) {
+	public void setDeliveryDays(int deliveryDays) {
 		this.deliveryDays = deliveryDays;
 	}
 
@@ -115,7 +115,7 @@ public class Offer extends BSBMResource {
 		return s.toString();
 	}
 	
-	public static String getURIref(int offerNr, int vendorNr)
+	public static String getURIref(long offerNr, int vendorNr)
 	{
 		StringBuffer s = new StringBuffer();
 		s.append("<");
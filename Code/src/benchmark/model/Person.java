@@ -1,12 +1,12 @@
 package benchmark.model;
 
 public class Person extends BSBMResource {
-	private int nr;
+	private long nr;
 	private String name;
 	private String mbox_sha1sum;
 	private String countryCode;
 	
-	public Person(int nr, String name, String countryCode, String mbox_sha1)
+	public Person(long nr, String name, String countryCode, String mbox_sha1)
 	{
 		this.countryCode = countryCode;
 		this.nr = nr;
@@ -14,11 +14,11 @@ public class Person extends BSBMResource {
 		this.mbox_sha1sum = mbox_sha1;
 	}
 
-	public int getNr() {
+	public long getNr() {
 		return nr;
 	}
 
-	public void setNr(int nr) {
+	public void setNr(long nr) {
 		this.nr = nr;
 	}
 
@@ -52,7 +52,7 @@ public class Person extends BSBMResource {
 		return getURIref(nr, publisher);
 	}
 	
-	public static String getURIref(int personNr, int ratingSiteNr)
+	public static String getURIref(long personNr, int ratingSiteNr)
 	{
 		StringBuffer s = new StringBuffer();
 		s.append("<");
@@ -63,7 +63,7 @@ public class Person extends BSBMResource {
 		return s.toString();
 	}
 	
-	public static String getPrefixed(int personNr, int ratingSiteNr) {
+	public static String getPrefixed(long personNr, int ratingSiteNr) {
 		StringBuffer s = new StringBuffer();
 		s.append(RatingSite.getRatingSiteNSprefixed(ratingSiteNr));
 		s.append("Reviewer");
@@ -1,15 +1,13 @@
 package benchmark.model;
 
-import java.util.*;
-
 public class Product extends BSBMResource{
 	private int nr;
 	private String label;
 	private String comment;
 	private ProductType productType;
 	private int producer;
-	private Vector<Integer> features;
-	private Integer[] productPropertyNumerical;
+	private int[] features;
+	private int[] productPropertyNumerical;//0: no value
 	private String[] productPropertyTextual;
 	
 	public Product(int productNr, String label, String comment, ProductType productType,
@@ -41,19 +39,19 @@ public class Product extends BSBMResource{
 		return producer;
 	}
 
-	public Vector<Integer> getFeatures() {
+	public int[] getFeatures() {
 		return features;
 	}
 
-	public void setFeatures(Vector<Integer> features) {
+	public void setFeatures(int[] features) {
 		this.features = features;
 	}
 
-	public Integer[] getProductPropertyNumeric() {
+	public int[] getProductPropertyNumeric() {
 		return productPropertyNumerical;
 	}
 
-	public void setProductPropertyNumeric(Integer[] productPropertyNumerical) {
+	public void setProductPropertyNumeric(int[] productPropertyNumerical) {
 		this.productPropertyNumerical = productPropertyNumerical;
 	}
 
@@ -1,19 +1,19 @@
 package benchmark.model;
 
 public class Review extends BSBMResource {
-	private int nr;
-	private Integer product;
-	private Integer producerOfProduct;
-	private int person;
+	private long nr;
+	private int product;
+	private int producerOfProduct;
+	private long person;
 	private long reviewDate;
 	private String title;
 	private String text;
-	private Integer[] ratings;
+	private int[] ratings;//0: no rating
 	private int language;//Language-Byte-Code
 	
-	public Review(int nr,Integer forProductNr, int byPersonNr, long reviewDate,
-					String title, String text, Integer[] ratings, int languageCode,
-					Integer producerOfProduct) {
+	public Review(long nr,int forProductNr, long byPersonNr, long reviewDate,
+					String title, String text, int[] ratings, int languageCode,
+					int producerOfProduct) {
 		this.nr = nr;
 		product = forProductNr;
 		person  = byPersonNr;
@@ -25,15 +25,15 @@ public class Review extends BSBMResource {
 		this.producerOfProduct = producerOfProduct;
 	}
 
-	public int getNr() {
+	public long getNr() {
 		return nr;
 	}
 
-	public Integer getProduct() {
+	public int getProduct() {
 		return product;
 	}
 
-	public int getPerson() {
+	public long getPerson() {
 		return person;
 	}
 
@@ -49,7 +49,7 @@ public class Review extends BSBMResource {
 		return text;
 	}
 
-	public Integer[] getRatings() {
+	public int[] getRatings() {
 		return ratings;
 	}
 	
@@ -59,7 +59,7 @@ public class Review extends BSBMResource {
 		return getURIref(nr, publisher);
 	}
 	
-	public static String getURIref(int reviewNr, int ratingSiteNr)
+	public static String getURIref(long reviewNr, int ratingSiteNr)
 	{
 		StringBuffer s = new StringBuffer();
 		s.append("<");
@@ -70,7 +70,7 @@ public class Review extends BSBMResource {
 		return s.toString();
 	}
 
-	public static String getPrefixed(int reviewNr, int ratingSiteNr)
+	public static String getPrefixed(long reviewNr, int ratingSiteNr)
 	{
 		StringBuffer s = new StringBuffer();
 		s.append(RatingSite.getRatingSiteNSprefixed(ratingSiteNr));
@@ -83,11 +83,11 @@ public class Review extends BSBMResource {
 		return language;
 	}
 
-	public Integer getProducerOfProduct() {
+	public int getProducerOfProduct() {
 		return producerOfProduct;
 	}
 
-	public void setProducerOfProduct(Integer producerOfProduct) {
+	public void setProducerOfProduct(int producerOfProduct) {
 		this.producerOfProduct = producerOfProduct;
 	}
 }
@@ -0,0 +1,401 @@
+package benchmark.serializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import benchmark.generator.DateGenerator;
+import benchmark.generator.Generator;
+import benchmark.model.BSBMResource;
+import benchmark.model.Offer;
+import benchmark.model.Person;
+import benchmark.model.Producer;
+import benchmark.model.Product;
+import benchmark.model.ProductFeature;
+import benchmark.model.ProductType;
+import benchmark.model.Review;
+import benchmark.model.Vendor;
+import benchmark.vocabulary.ISO3166;
+
+/*
+ * The relational dataset for the bulk loaders: one tab separated file per table
+ * (NULL as \N, backslash escapes) in the text format of MySQL LOAD DATA, MonetDB
+ * and PostgreSQL COPY, and a script load.sql with the DDL of SQLSerializer or
+ * MonetDBSerializer and the load statements. The tables have the same columns
+ * as the INSERT dumps. MySQL can not read compressed files, so the table files
+ * are only compressed for MonetDB (COPY INTO reads .gz files); load.sql is
+ * never compressed.
+ * Every table file has its own thread, which formats the rows and writes them.
+ */
+public class BulkLoadSerializer implements Serializer {
+	public static final String MYSQL = "mysql";//LOAD DATA LOCAL INFILE, run in the output directory
+	public static final String MONETDB = "monetdb";//COPY INTO from the absolute file paths
+
+	private static final int queueSize = 16;//Number of resource lists waiting per table
+	private static final List<BSBMResource> endOfData = new ArrayList<BSBMResource>();
+
+	//Tables in the order of the INSERT dumps
+	private static final int PRODUCT_FEATURE = 0;
+	private static final int PRODUCT_TYPE = 1;
+	private static final int PRODUCER = 2;
+	private static final int PRODUCT = 3;
+	private static final int PRODUCT_TYPE_PRODUCT = 4;
+	private static final int PRODUCT_FEATURE_PRODUCT = 5;
+	private static final int VENDOR = 6;
+	private static final int OFFER = 7;
+	private static final int PERSON = 8;
+	private static final int REVIEW = 9;
+	private static final String[] tableNames = { "productfeature", "producttype", "producer", "product", "producttypeproduct",
+		"productfeatureproduct", "vendor", "offer", "person", "review" };
+	private static final String[] fileNames = { "01ProductFeature", "02ProductType", "03Producer", "04Product", "05ProductTypeProduct",
+		"06ProductFeatureProduct", "07Vendor", "08Offer", "09Person", "10Review" };
+
+	private boolean forwardChaining;
+	private TableWriter[] writers;
+
+	public BulkLoadSerializer(String directory, boolean forwardChaining, String database, String dialect) {
+		File outputDir = new File(directory);
+		outputDir.mkdirs();
+		this.forwardChaining = forwardChaining;
+
+		writers = new TableWriter[tableNames.length];
+		try {
+			writeLoadScript(outputDir, database, dialect);
+			for(int i=0;i<tableNames.length;i++) {
+				writers[i] = new TableWriter(i, new ByteWriter(SerializerOutput.createChannel(new File(outputDir, fileNames[i] + ".tsv"))));
+				writers[i].start();
+			}
+		} catch(IOException e) {
+			System.err.println("Could not create table files in " + outputDir.getAbsolutePath());
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * The DDL and the load statement of every table
+	 */
+	private static void writeLoadScript(File outputDir, String database, String dialect) throws IOException {
+		String[] ddl;
+		String[] end = new String[tableNames.length];
+		if(dialect.equals(MONETDB)) {
+			MonetDBSerializer.SQLTables tables = new MonetDBSerializer.SQLTables(database);
+			ddl = new String[] { tables.initProductFeature(), tables.initProductType(), tables.initProducer(), tables.initProduct(),
+					tables.initProductTypeProduct(), tables.initProductFeatureProduct(), tables.initVendor(), tables.initOffer(),
+					tables.initPerson(), tables.initReview() };
+			for(int i=0;i<tableNames.length;i++)
+				end[i] = tables.endTable(0, tableNames[i]);
+		}
+		else {
+			SQLSerializer.SQLTables tables = new SQLSerializer.SQLTables(database);
+			ddl = new String[] { tables.initProductFeature(), tables.initProductType(), tables.initProducer(), tables.initProduct(),
+					tables.initProductTypeProduct(), tables.initProductFeatureProduct(), tables.initVendor(), tables.initOffer(),
+					tables.initPerson(), tables.initReview() };
+			for(int i=0;i<tableNames.length;i++)
+				end[i] = tables.endTable(0, tableNames[i]);
+		}
+
+		Writer script = SerializerOutput.createUncompressedWriter(new File(outputDir, "load.sql"));
+		for(int i=0;i<tableNames.length;i++) {
+			String file = SerializerOutput.getFileName(fileNames[i] + ".tsv");
+			script.append(ddl[i]);
+			if(dialect.equals(MONETDB))
+				script.append("COPY INTO \"" + tableNames[i] + "\" FROM '" + new File(outputDir, file).getAbsolutePath()
+						+ "' USING DELIMITERS '\\t','\\n' NULL AS '\\\\N';");
+			else
+				script.append("LOAD DATA LOCAL INFILE '" + file + "' INTO TABLE `" + tableNames[i] + "` CHARACTER SET utf8;");
+			script.append(end[i]);
+			script.append("\n\n");
+		}
+		script.close();
+	}
+
+	/*
+	 * Deals the resources out to the tables they have rows in
+	 */
+	@Override
+	public void gatherData(ObjectBundle bundle) {
+		List<List<BSBMResource>> rows = new ArrayList<List<BSBMResource>>(tableNames.length);
+		for(int i=0;i<tableNames.length;i++)
+			rows.add(new ArrayList<BSBMResource>());
+
+		Iterator<BSBMResource> it = bundle.iterator();
+		while(it.hasNext()) {
+			BSBMResource res = it.next();
+			if(res instanceof ProductType)
+				rows.get(PRODUCT_TYPE).add(res);
+			else if(res instanceof Offer)
+				rows.get(OFFER).add(res);
+			else if(res instanceof Product) {
+				rows.get(PRODUCT).add(res);
+				rows.get(PRODUCT_TYPE_PRODUCT).add(res);
+				rows.get(PRODUCT_FEATURE_PRODUCT).add(res);
+			}
+			else if(res instanceof Person)
+				rows.get(PERSON).add(res);
+			else if(res instanceof Producer)
+				rows.get(PRODUCER).add(res);
+			else if(res instanceof ProductFeature)
+				rows.get(PRODUCT_FEATURE).add(res);
+			else if(res instanceof Vendor)
+				rows.get(VENDOR).add(res);
+			else if(res instanceof Review)
+				rows.get(REVIEW).add(res);
+		}
+
+		for(int i=0;i<tableNames.length;i++)
+			if(!rows.get(i).isEmpty())
+				writers[i].put(rows.get(i));
+	}
+
+	@Override
+	public void serialize() {
+		for(TableWriter writer: writers)
+			writer.put(endOfData);
+
+		for(TableWriter writer: writers) {
+			try {
+				writer.join();
+			} catch(InterruptedException e) {
+				System.err.println("Interrupted while waiting for table " + tableNames[writer.table]);
+				System.exit(-1);
+			}
+		}
+	}
+
+	@Override
+	public Long triplesGenerated() {
+		return 0l;
+	}
+
+	/*
+	 * Formats and writes the rows of one table
+	 */
+	private class TableWriter extends Thread {
+		private int table;
+		private ByteWriter out;
+		private BlockingQueue<List<BSBMResource>> queue;
+
+		TableWriter(int table, ByteWriter out) {
+			super("Table " + tableNames[table]);
+			this.table = table;
+			this.out = out;
+			queue = new ArrayBlockingQueue<List<BSBMResource>>(queueSize);
+		}
+
+		void put(List<BSBMResource> rows) {
+			try {
+				queue.put(rows);
+			} catch(InterruptedException e) {
+				System.err.println("Interrupted while writing table " + tableNames[table]);
+				System.exit(-1);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				while(true) {
+					List<BSBMResource> rows = queue.take();
+					if(rows==endOfData)
+						break;
+					for(BSBMResource res: rows)
+						writeRows(res);
+				}
+				out.close();
+			} catch(InterruptedException e) {
+				System.err.println("Table " + tableNames[table] + " interrupted");
+				System.exit(-1);
+			} catch(IOException e) {
+				System.err.println("Could not write table " + tableNames[table]);
+				System.err.println(e.getMessage());
+				System.exit(-1);
+			} catch(RuntimeException e) {
+				System.err.println("Could not write table " + tableNames[table]);
+				e.printStackTrace();
+				System.exit(-1);
+			}
+		}
+
+		private void writeRows(BSBMResource res) throws IOException {
+			switch(table) {
+			case PRODUCT_TYPE:
+				ProductType pType = (ProductType)res;
+				number(pType.getNr());
+				text(pType.getLabel());
+				text(pType.getComment());
+				optionalNumber(pType.getParent()!=null ? pType.getParent().getNr() : 0);
+				number(res.getPublisher());
+				lastDate(res.getPublishDate());
+				break;
+			case PRODUCT_FEATURE:
+				ProductFeature pf = (ProductFeature)res;
+				number(pf.getNr());
+				text(pf.getLabel());
+				text(pf.getComment());
+				number(res.getPublisher());
+				lastDate(res.getPublishDate());
+				break;
+			case PRODUCER:
+				Producer producer = (Producer)res;
+				number(producer.getNr());
+				text(producer.getLabel());
+				text(producer.getComment());
+				text(producer.getHomepage());
+				text(producer.getCountryCode());
+				number(res.getPublisher());
+				lastDate(res.getPublishDate());
+				break;
+			case PRODUCT:
+				Product product = (Product)res;
+				number(product.getNr());
+				text(product.getLabel());
+				text(product.getComment());
+				number(product.getProducer());
+				for(int value: product.getProductPropertyNumeric())
+					optionalNumber(value);
+				for(String value: product.getProductPropertyTextual())
+					text(value);
+				number(product.getProducer());
+				lastDate(res.getPublishDate());
+				break;
+			case PRODUCT_TYPE_PRODUCT:
+				Product typedProduct = (Product)res;
+				if(forwardChaining) {
+					for(ProductType pt=typedProduct.getProductType();pt!=null;pt=pt.getParent())
+						pair(typedProduct.getNr(), pt.getNr());
+				}
+				else
+					pair(typedProduct.getNr(), typedProduct.getProductType().getNr());
+				break;
+			case PRODUCT_FEATURE_PRODUCT:
+				Product featuredProduct = (Product)res;
+				for(int feature: featuredProduct.getFeatures())
+					pair(featuredProduct.getNr(), feature);
+				break;
+			case VENDOR:
+				Vendor vendor = (Vendor)res;
+				number(vendor.getNr());
+				text(vendor.getLabel());
+				text(vendor.getComment());
+				text(vendor.getHomepage());
+				text(vendor.getCountryCode());
+				number(res.getPublisher());
+				lastDate(res.getPublishDate());
+				break;
+			case OFFER:
+				Offer offer = (Offer)res;
+				number(offer.getNr());
+				number(offer.getProduct());
+				number(Generator.getProducerOfProduct(offer.getProduct()));
+				number(offer.getVendor());
+				out.write(offer.getPriceString());
+				out.write('\t');
+				date(offer.getValidFrom());
+				date(offer.getValidTo());
+				number(offer.getDeliveryDays());
+				text(offer.getOfferWebpage());
+				number(res.getPublisher());
+				lastDate(res.getPublishDate());
+				break;
+			case PERSON:
+				Person person = (Person)res;
+				number(person.getNr());
+				text(person.getName());
+				text(person.getMbox_sha1sum());
+				text(person.getCountryCode());
+				number(res.getPublisher());
+				lastDate(res.getPublishDate());
+				break;
+			case REVIEW:
+				Review review = (Review)res;
+				number(review.getNr());
+				number(review.getProduct());
+				number(review.getProducerOfProduct());
+				number(review.getPerson());
+				date(review.getReviewDate());
+				text(review.getTitle());
+				text(review.getText());
+				text(ISO3166.language[review.getLanguage()]);
+				for(int rating: review.getRatings())
+					optionalNumber(rating);
+				number(res.getPublisher());
+				lastDate(res.getPublishDate());
+				break;
+			}
+		}
+
+		private void number(long value) throws IOException {
+			out.writeNumber(value);
+			out.write('\t');
+		}
+
+		//0: no value
+		private void optionalNumber(int value) throws IOException {
+			if(value==0)
+				out.write("\\N");
+			else
+				out.writeNumber(value);
+			out.write('\t');
+		}
+
+		private void pair(int first, int second) throws IOException {
+			out.writeNumber(first);
+			out.write('\t');
+			out.writeNumber(second);
+			out.write('\n');
+		}
+
+		/*
+		 * Tab, newline and backslash are escaped with a backslash
+		 */
+		private void text(String value) throws IOException {
+			if(value==null)
+				out.write("\\N");
+			else if(needsEscape(value)) {
+				StringBuilder escaped = new StringBuilder(value.length() + 16);
+				for(int i=0;i<value.length();i++) {
+					char c = value.charAt(i);
+					if(c=='\\')
+						escaped.append("\\\\");
+					else if(c=='\t')
+						escaped.append("\\t");
+					else if(c=='\n')
+						escaped.append("\\n");
+					else if(c=='\r')
+						escaped.append("\\r");
+					else
+						escaped.append(c);
+				}
+				out.write(escaped.toString());
+			}
+			else
+				out.write(value);
+			out.write('\t');
+		}
+
+		private boolean needsEscape(String value) {
+			for(int i=0;i<value.length();i++) {
+				char c = value.charAt(i);
+				if(c=='\\' || c=='\t' || c=='\n' || c=='\r')
+					return true;
+			}
+			return false;
+		}
+
+		private void date(long date) throws IOException {
+			out.write(DateGenerator.formatDate(date));
+			out.write('\t');
+		}
+
+		private void lastDate(long date) throws IOException {
+			out.write(DateGenerator.formatDate(date));
+			out.write('\n');
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package benchmark.serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/*
+ * Buffered output of bytes to a channel.
+ * Strings are encoded to UTF-8 and numbers to decimal digits directly into
+ * the buffer, so writing does not create any objects.
+ */
+public class ByteWriter {
+	private static final int bufferSize = 256*1024;
+	private static final Charset utf8 = Charset.forName("UTF-8");
+
+	private WritableByteChannel channel;
+	private ByteBuffer buffer;
+	private byte[] bytes;
+	private int position;
+	private long flushed;//Bytes written to the channel
+	private byte[] digits;
+
+	public ByteWriter(WritableByteChannel channel)
+	{
+		this.channel = channel;
+		buffer = ByteBuffer.allocate(bufferSize);
+		bytes = buffer.array();
+		position = 0;
+		flushed = 0;
+		digits = new byte[20];
+	}
+
+	/*
+	 * UTF-8 encoding of a string, for constants
+	 */
+	public static byte[] encode(String s) {
+		return s.getBytes(utf8);
+	}
+
+	public void write(int b) throws IOException {
+		if(position==bytes.length)
+			flushBuffer();
+		bytes[position++] = (byte)b;
+	}
+
+	public void write(byte[] b) throws IOException {
+		write(b, 0, b.length);
+	}
+
+	public void write(byte[] b, int offset, int length) throws IOException {
+		if(length>bytes.length-position) {
+			flushBuffer();
+			if(length>bytes.length) {
+				writeFully(ByteBuffer.wrap(b, offset, length));
+				flushed += length;
+				return;
+			}
+		}
+		System.arraycopy(b, offset, bytes, position, length);
+		position += length;
+	}
+
+	public void write(String s) throws IOException {
+		int length = s.length();
+		for(int i=0;i<length;i++) {
+			char c = s.charAt(i);
+			if(c<0x80) {
+				if(position==bytes.length)
+					flushBuffer();
+				bytes[position++] = (byte)c;
+			}
+			else
+				i = writeMultiByte(s, i);
+		}
+	}
+
+	/*
+	 * Writes the non ASCII character at index i and returns the index of the
+	 * last char written.
+	 */
+	private int writeMultiByte(String s, int i) throws IOException {
+		char c = s.charAt(i);
+		if(c<0x800) {
+			write(0xC0 | (c>>6));
+			write(0x80 | (c & 0x3F));
+		}
+		else if(Character.isHighSurrogate(c) && i+1<s.length() && Character.isLowSurrogate(s.charAt(i+1))) {
+			int codePoint = Character.toCodePoint(c, s.charAt(++i));
+			write(0xF0 | (codePoint>>18));
+			write(0x80 | ((codePoint>>12) & 0x3F));
+			write(0x80 | ((codePoint>>6) & 0x3F));
+			write(0x80 | (codePoint & 0x3F));
+		}
+		else if(Character.isSurrogate(c))
+			write('?');//Malformed input is replaced, as String.getBytes() does
+		else {
+			write(0xE0 | (c>>12));
+			write(0x80 | ((c>>6) & 0x3F));
+			write(0x80 | (c & 0x3F));
+		}
+		return i;
+	}
+
+	/*
+	 * Binary big-endian long, as DataOutput.writeLong
+	 */
+	public void writeLong(long value) throws IOException {
+		for(int shift=56;shift>=0;shift-=8)
+			write((int)(value >>> shift));
+	}
+
+	/*
+	 * Binary big-endian int, as DataOutput.writeInt
+	 */
+	public void writeInt(int value) throws IOException {
+		for(int shift=24;shift>=0;shift-=8)
+			write(value >>> shift);
+	}
+
+	public void writeNumber(long value) throws IOException {
+		writeNumber(value, 1);
+	}
+
+	/*
+	 * Writes the decimal digits of value, padded with zeros to at least minDigits digits
+	 */
+	public void writeNumber(long value, int minDigits) throws IOException {
+		if(value<0) {
+			if(value==Long.MIN_VALUE) {
+				write(Long.toString(value));
+				return;
+			}
+			write('-');
+			value = -value;
+		}
+		int i = digits.length;
+		do {
+			digits[--i] = (byte)('0' + value % 10);
+			value /= 10;
+		} while(value>0);
+		while(digits.length-i<minDigits)
+			digits[--i] = '0';
+		write(digits, i, digits.length-i);
+	}
+
+	private void flushBuffer() throws IOException {
+		buffer.clear();
+		buffer.limit(position);
+		writeFully(buffer);
+		flushed += position;
+		position = 0;
+	}
+
+	private void writeFully(ByteBuffer b) throws IOException {
+		while(b.hasRemaining())
+			channel.write(b);
+	}
+
+	/*
+	 * Number of bytes written so far, including the buffered ones
+	 */
+	public long getPosition() {
+		return flushed + position;
+	}
+
+	/*
+	 * Writes the buffered bytes and forces them to the disk, so they survive a
+	 * crash of the OS, e.g. before a checkpoint refers to them
+	 */
+	public void sync() throws IOException {
+		flushBuffer();
+		FileChannel file = SerializerOutput.getFileChannel(channel);
+		if(file!=null)
+			file.force(true);
+	}
+
+	/*
+	 * Continues writing a file at position, everything after it is cut off
+	 */
+	public void resumeAt(long position) throws IOException {
+		FileChannel file = SerializerOutput.getFileChannel(channel);
+		if(file==null)
+			throw new IOException("Only uncompressed files can be continued");
+		flushBuffer();
+		if(file.size()<position)
+			throw new IOException("The file has " + file.size() + " bytes, the checkpoint needs " + position);
+		file.truncate(position).position(position);
+		flushed = position;
+	}
+
+	public void flush() throws IOException {
+		flushBuffer();
+	}
+
+	public void close() throws IOException {
+		flushBuffer();
+		channel.close();
+	}
+}
@@ -0,0 +1,114 @@
+package benchmark.serializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.tdb2.TDB2Factory;
+
+/*
+ * Loads a stream of triples and quads into a transactional dataset, e.g. a TDB
+ * database. The data is committed every commitSize triples or quads, so a
+ * transaction never grows with the size of the dataset.
+ * The first transaction is started with the first triple, so the triples can be
+ * loaded by another thread than the one that started the stream.
+ */
+public class DatasetLoader implements StreamRDF {
+	private static final int commitSize = 500000;
+
+	private DatasetGraph dataset;
+	private boolean close;//Close the dataset at the end
+	private Graph graph;//null outside of a transaction
+	private Map<String, String> prefixes = new LinkedHashMap<String, String>();//Not yet written prefixes
+	private long nrTriples;
+	private long startTime;
+
+	public DatasetLoader(DatasetGraph dataset, boolean close)
+	{
+		this.dataset = dataset;
+		this.close = close;
+	}
+
+	/*
+	 * Opens or creates the TDB1 (version 1) or TDB2 (version 2) database in the directory location
+	 */
+	public static DatasetLoader createTDB(String location, int version) {
+		if(version==2)
+			return new DatasetLoader(TDB2Factory.connectDataset(location).asDatasetGraph(), true);
+		else
+			return new DatasetLoader(TDBFactory.createDatasetGraph(location), true);
+	}
+
+	private void begin() {
+		dataset.begin(ReadWrite.WRITE);
+		graph = dataset.getDefaultGraph();
+		if(!prefixes.isEmpty()) {
+			graph.getPrefixMapping().setNsPrefixes(prefixes);
+			prefixes.clear();
+		}
+	}
+
+	private void commit() {
+		dataset.commit();
+		dataset.end();
+		graph = null;
+	}
+
+	@Override
+	public void start() {
+		nrTriples = 0;
+		startTime = System.currentTimeMillis();
+	}
+
+	@Override
+	public void triple(Triple triple) {
+		if(graph==null)
+			begin();
+		graph.add(triple);
+		added();
+	}
+
+	@Override
+	public void quad(Quad quad) {
+		if(graph==null)
+			begin();
+		dataset.add(quad);
+		added();
+	}
+
+	/*
+	 * Counts a triple or quad, commits every commitSize of them
+	 */
+	private void added() {
+		nrTriples++;
+		if(nrTriples % commitSize == 0) {
+			commit();
+			long seconds = (System.currentTimeMillis()-startTime)/1000;
+			System.out.println(nrTriples + " triples loaded (" + seconds + "s)");
+		}
+	}
+
+	@Override
+	public void base(String base) {
+	}
+
+	@Override
+	public void prefix(String prefix, String iri) {
+		prefixes.put(prefix, iri);
+	}
+
+	@Override
+	public void finish() {
+		if(graph==null)
+			begin();//Write the prefixes of an empty dataset
+		commit();
+		if(close)
+			dataset.close();
+	}
+}
@@ -0,0 +1,287 @@
+package benchmark.serializer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import benchmark.model.*;
+
+/*
+ * The difference between the datasets of two scales, in N-Triples.
+ * Datasets of different product counts are not contained in each other: the
+ * product type hierarchy and the distributions of offers and reviews depend on
+ * the product count. So the smaller dataset is generated first and recorded,
+ * one spill file per resource class, in the order of the resource numbers.
+ * Then the larger dataset is generated and every resource is compared with the
+ * recorded one of the same number. The triples of the larger dataset that are
+ * not in the smaller one go to file.nt, the ones to remove to file_delete.nt.
+ */
+public class DeltaSerializer implements Serializer {
+	private static final Class<?>[] resourceClasses = { ProductType.class, ProductFeature.class, Producer.class, Product.class,
+		Vendor.class, Offer.class, Person.class, Review.class };
+
+	private boolean forwardChaining;
+	private File[] spillFiles;
+	private ByteWriter[] spillWriters;//Recording the smaller dataset
+	private BaseReader[] baseReaders;//Comparing with the recorded dataset
+	private ByteWriter insertWriter;
+	private ByteWriter deleteWriter;
+	private long nrInserted;
+	private long nrDeleted;
+
+	//Formatting of a single resource
+	private NTriples formatter;
+	private ByteArrayOutputStream resourceBytes;
+	private ByteWriter resourceWriter;
+	private ObjectBundle resourceBundle;
+
+	/*
+	 * Records the smaller dataset in spill files next to file
+	 */
+	public DeltaSerializer(String file, boolean forwardChaining)
+	{
+		this.forwardChaining = forwardChaining;
+		initFormatter();
+		spillFiles = new File[resourceClasses.length];
+		spillWriters = new ByteWriter[resourceClasses.length];
+		File dir = new File(file).getAbsoluteFile().getParentFile();
+		try {
+			for(int i=0;i<resourceClasses.length;i++) {
+				spillFiles[i] = File.createTempFile(resourceClasses[i].getSimpleName(), ".spill", dir);
+				spillFiles[i].deleteOnExit();
+				spillWriters[i] = new ByteWriter(new FileOutputStream(spillFiles[i]).getChannel());
+			}
+		} catch(IOException e) {
+			System.err.println("Could not create spill file for the smaller dataset.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * Compares the larger dataset with the smaller one recorded by base
+	 */
+	public DeltaSerializer(DeltaSerializer base, String file)
+	{
+		forwardChaining = base.forwardChaining;
+		initFormatter();
+		spillFiles = base.spillFiles;
+		baseReaders = new BaseReader[resourceClasses.length];
+		try {
+			for(int i=0;i<resourceClasses.length;i++)
+				baseReaders[i] = new BaseReader(spillFiles[i]);
+			insertWriter = new ByteWriter(SerializerOutput.createChannel(new File(file + ".nt")));
+			deleteWriter = new ByteWriter(SerializerOutput.createChannel(new File(file + "_delete.nt")));
+		} catch(IOException e) {
+			System.err.println("Could not open delta files.\n" + e.getMessage());
+			System.exit(-1);
+		}
+		nrInserted = 0;
+		nrDeleted = 0;
+	}
+
+	private void initFormatter() {
+		resourceBytes = new ByteArrayOutputStream();
+		resourceWriter = new ByteWriter(Channels.newChannel(resourceBytes));
+		formatter = new NTriples(resourceWriter, forwardChaining);
+		resourceBundle = new ObjectBundle(null);
+	}
+
+	@Override
+	public void gatherData(ObjectBundle bundle) {
+		Iterator<BSBMResource> it = bundle.iterator();
+		try {
+			while(it.hasNext()) {
+				BSBMResource res = it.next();
+				int resourceClass = getResourceClass(res);
+				long nr = getNr(res);
+				byte[] triples = format(res);
+				if(spillWriters!=null) {
+					ByteWriter spill = spillWriters[resourceClass];
+					spill.writeLong(nr);
+					spill.writeInt(triples.length);
+					spill.write(triples);
+				}
+				else
+					compare(baseReaders[resourceClass], nr, triples);
+			}
+		} catch(IOException e) {
+			System.err.println("Could not write delta.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	private byte[] format(BSBMResource res) throws IOException {
+		resourceBundle.add(res);
+		formatter.gatherData(resourceBundle);
+		resourceBundle.clear();
+		resourceWriter.flush();
+		byte[] triples = resourceBytes.toByteArray();
+		resourceBytes.reset();
+		return triples;
+	}
+
+	/*
+	 * Writes the differences of the resource nr to the recorded resources of its class
+	 */
+	private void compare(BaseReader base, long nr, byte[] triples) throws IOException {
+		//Resources that only exist in the smaller dataset
+		while(base.nr!=-1 && base.nr<nr) {
+			deleteLines(base.triples, null);
+			base.next();
+		}
+		if(base.nr==nr) {
+			if(!Arrays.equals(base.triples, triples)) {
+				deleteLines(base.triples, triples);
+				insertLines(triples, base.triples);
+			}
+			base.next();
+		}
+		else
+			insertLines(triples, null);
+	}
+
+	private void deleteLines(byte[] triples, byte[] except) throws IOException {
+		nrDeleted += writeLines(deleteWriter, triples, except);
+	}
+
+	private void insertLines(byte[] triples, byte[] except) throws IOException {
+		nrInserted += writeLines(insertWriter, triples, except);
+	}
+
+	/*
+	 * Writes the lines of triples that are not lines of except
+	 */
+	private static int writeLines(ByteWriter out, byte[] triples, byte[] except) throws IOException {
+		HashSet<ByteBuffer> exceptLines = new HashSet<ByteBuffer>();
+		if(except!=null) {
+			for(int start=0, end;start<except.length;start=end+1) {
+				end = lineEnd(except, start);
+				exceptLines.add(ByteBuffer.wrap(except, start, end-start));
+			}
+		}
+		int nrLines = 0;
+		for(int start=0, end;start<triples.length;start=end+1) {
+			end = lineEnd(triples, start);
+			if(!exceptLines.contains(ByteBuffer.wrap(triples, start, end-start))) {
+				out.write(triples, start, end-start+1);
+				nrLines++;
+			}
+		}
+		return nrLines;
+	}
+
+	private static int lineEnd(byte[] triples, int start) {
+		int end = start;
+		while(triples[end]!='\n')
+			end++;
+		return end;
+	}
+
+	private static int getResourceClass(BSBMResource res) {
+		for(int i=0;i<resourceClasses.length;i++)
+			if(resourceClasses[i]==res.getClass())
+				return i;
+		throw new IllegalArgumentException("No delta for " + res.getClass().getName());
+	}
+
+	private static long getNr(BSBMResource res) {
+		if(res instanceof ProductType)
+			return ((ProductType)res).getNr();
+		else if(res instanceof ProductFeature)
+			return ((ProductFeature)res).getNr();
+		else if(res instanceof Producer)
+			return ((Producer)res).getNr();
+		else if(res instanceof Product)
+			return ((Product)res).getNr();
+		else if(res instanceof Vendor)
+			return ((Vendor)res).getNr();
+		else if(res instanceof Offer)
+			return ((Offer)res).getNr();
+		else if(res instanceof Person)
+			return ((Person)res).getNr();
+		else
+			return ((Review)res).getNr();
+	}
+
+	/*
+	 * Recording: closes the spill files. Comparing: deletes the remaining recorded
+	 * resources, closes the delta files and deletes the spill files.
+	 */
+	@Override
+	public void serialize() {
+		try {
+			if(spillWriters!=null) {
+				for(ByteWriter spill: spillWriters)
+					spill.close();
+			}
+			else {
+				for(BaseReader base: baseReaders) {
+					while(base.nr!=-1) {
+						deleteLines(base.triples, null);
+						base.next();
+					}
+					base.close();
+				}
+				insertWriter.close();
+				deleteWriter.close();
+				for(File spillFile: spillFiles)
+					spillFile.delete();
+			}
+		} catch(IOException e) {
+			System.err.println("Could not write delta.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * Recording: the triples of the smaller dataset. Comparing: the inserted triples.
+	 */
+	@Override
+	public Long triplesGenerated() {
+		return spillWriters!=null ? formatter.triplesGenerated() : nrInserted;
+	}
+
+	public long triplesDeleted() {
+		return nrDeleted;
+	}
+
+	/*
+	 * Reads the recorded resources of one class, current resource first
+	 */
+	private static class BaseReader {
+		private DataInputStream input;
+		long nr;//-1: no more resources
+		byte[] triples;
+
+		BaseReader(File spillFile) throws IOException {
+			input = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile), 64*1024));
+			next();
+		}
+
+		void next() throws IOException {
+			try {
+				nr = input.readLong();
+			} catch(EOFException e) {
+				nr = -1;
+				triples = null;
+				return;
+			}
+			triples = new byte[input.readInt()];
+			input.readFully(triples);
+		}
+
+		void close() throws IOException {
+			input.close();
+		}
+	}
+}
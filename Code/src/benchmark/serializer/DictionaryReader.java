@@ -0,0 +1,189 @@
+package benchmark.serializer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Reads the output of DictionarySerializer: first all terms of the
+ * dictionary, then the triples of the id files, passed to a Sink. A loader
+ * can add the terms to its node table as they come and then load the
+ * triples without looking up a single term.
+ *
+ * Started with the file name given to the generator (-fn) it writes the
+ * dataset as N-Triples to standard output. The terms are then kept in a
+ * TermTable, a temporary file next to the dataset, so the heap only holds
+ * their offsets.
+ */
+public class DictionaryReader {
+	/*
+	 * Receives the terms in id order, then the triples
+	 */
+	public interface Sink {
+		/*
+		 * A term in N-Triples syntax, UTF-8 encoded in bytes[offset..offset+length).
+		 * The bytes are only valid during the call.
+		 */
+		void term(long id, byte[] bytes, int offset, int length) throws IOException;
+
+		void triple(long subject, long predicate, long object) throws IOException;
+	}
+
+	private File dictionary;
+	private File[] tripleFiles;
+
+	public DictionaryReader(File dictionary, File[] tripleFiles) {
+		this.dictionary = dictionary;
+		this.tripleFiles = tripleFiles;
+	}
+
+	/*
+	 * The files written for -fn file, with or without -nof and -compress
+	 */
+	public static DictionaryReader forDataset(String file) {
+		String suffix = new File(file + ".dict.gz").exists() ? ".gz" : "";
+		File dictionary = new File(file + ".dict" + suffix);
+		File single = new File(file + ".ids" + suffix);
+		if(single.exists())
+			return new DictionaryReader(dictionary, new File[] { single });
+
+		//file1.ids, file2.ids ... or file01.ids ...
+		for(int digits=1;digits<10;digits++) {
+			String formatString = "%0" + digits + "d";
+			if(!new File(file + String.format(formatString, 1) + ".ids" + suffix).exists())
+				continue;
+			int count = 0;
+			while(new File(file + String.format(formatString, count+1) + ".ids" + suffix).exists())
+				count++;
+			File[] files = new File[count];
+			for(int i=1;i<=count;i++)
+				files[i-1] = new File(file + String.format(formatString, i) + ".ids" + suffix);
+			return new DictionaryReader(dictionary, files);
+		}
+		return new DictionaryReader(dictionary, new File[] { single });
+	}
+
+	public void read(Sink sink) throws IOException {
+		readTerms(sink);
+		readTriples(sink);
+	}
+
+	public long readTerms(Sink sink) throws IOException {
+		long id = 0;
+		byte[] buffer = new byte[1024];
+		try(InputStream in = open(dictionary)) {
+			int length;
+			while((length = readVarint(in))>=0) {
+				if(length>buffer.length)
+					buffer = new byte[Math.max(length, buffer.length*2)];
+				readFully(in, buffer, length);
+				sink.term(++id, buffer, 0, length);
+			}
+		}
+		return id;
+	}
+
+	public long readTriples(Sink sink) throws IOException {
+		long nrTriples = 0;
+		for(File file: tripleFiles) {
+			try(DataInputStream in = new DataInputStream(open(file))) {
+				while(true) {
+					long subject;
+					try {
+						subject = in.readLong();
+					} catch(EOFException e) {
+						break;
+					}
+					sink.triple(subject, in.readLong(), in.readLong());
+					nrTriples++;
+				}
+			}
+		}
+		return nrTriples;
+	}
+
+	private static InputStream open(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		if(file.getName().endsWith(".gz"))
+			return new BufferedInputStream(new GZIPInputStream(in, 64*1024), 64*1024);
+		return new BufferedInputStream(in, 64*1024);
+	}
+
+	//-1 at the end of the stream
+	private static int readVarint(InputStream in) throws IOException {
+		int value = 0;
+		for(int shift=0;;shift+=7) {
+			int b = in.read();
+			if(b<0) {
+				if(shift==0)
+					return -1;
+				throw new EOFException("Truncated dictionary");
+			}
+			value |= (b & 0x7F) << shift;
+			if((b & 0x80)==0)
+				return value;
+		}
+	}
+
+	private static void readFully(InputStream in, byte[] buffer, int length) throws IOException {
+		int read = 0;
+		while(read<length) {
+			int n = in.read(buffer, read, length-read);
+			if(n<0)
+				throw new EOFException("Truncated dictionary");
+			read += n;
+		}
+	}
+
+	/*
+	 * Writes the triples as N-Triples, the terms are looked up in a TermTable
+	 */
+	private static class NTriplesSink implements Sink {
+		private TermTable terms;
+		private OutputStream out;
+
+		NTriplesSink(OutputStream out, TermTable terms) {
+			this.out = out;
+			this.terms = terms;
+		}
+
+		public void term(long id, byte[] bytes, int offset, int length) throws IOException {
+			terms.add(id, bytes, offset, length);
+		}
+
+		public void triple(long subject, long predicate, long object) throws IOException {
+			out.write(terms.get(subject));
+			out.write(' ');
+			out.write(terms.get(predicate));
+			out.write(' ');
+			out.write(terms.get(object));
+			out.write(' ');
+			out.write('.');
+			out.write('\n');
+		}
+	}
+
+	public static void main(String[] args) {
+		if(args.length!=1) {
+			System.err.println("Usage: DictionaryReader <dataset file name>");
+			System.exit(-1);
+		}
+		try(TermTable terms = new TermTable(new File(args[0]).getAbsoluteFile().getParentFile())) {
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 64*1024);
+			forDataset(args[0]).read(new NTriplesSink(out, terms));
+			out.flush();
+		} catch(IOException e) {
+			System.err.println("Could not read the dictionary encoded dataset.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package benchmark.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+
+import benchmark.model.BSBMResource;
+
+/*
+ * Dictionary encoded output: every distinct RDF term is written once to the
+ * dictionary file.dict, and the triples are written as three term ids to
+ * file.ids (file1.ids ... for several output files, resources dealt out as by
+ * the other serializers). Loaders can build their node table from the
+ * dictionary and skip parsing the triples. See DictionaryReader.
+ *
+ * file.dict: the terms in N-Triples syntax (<uri>, "literal"^^<datatype>,
+ * "literal"@lang), UTF-8 with a varint length before each term. The first
+ * term has id 1, the next 2, and so on.
+ * file.ids: subject, predicate and object id of every triple, each a big
+ * endian 64-bit number.
+ *
+ * The terms are formatted by NTriples, so the triples are the same as in the
+ * N-Triples output. Terms are found again by a 128-bit fingerprint, only the
+ * fingerprints and ids are kept in memory (24 bytes per term and slot).
+ */
+public class DictionarySerializer implements Serializer {
+	private ByteWriter dictionary;
+	private ByteWriter[] tripleWriters;
+	private int currentWriter = 0;
+	private long nrTriples = 0;
+	private TermMap terms = new TermMap();
+
+	//Formatting of a single resource
+	private NTriples formatter;
+	private ResourceBytes resourceBytes;
+	private ByteWriter resourceWriter;
+	private ObjectBundle resourceBundle;
+
+	public DictionarySerializer(String file, boolean forwardChaining, int nrOfOutputFiles)
+	{
+		try {
+			dictionary = new ByteWriter(SerializerOutput.createChannel(new File(file + ".dict")));
+			tripleWriters = new ByteWriter[nrOfOutputFiles];
+			if(nrOfOutputFiles==1)
+				tripleWriters[0] = new ByteWriter(SerializerOutput.createChannel(new File(file + ".ids")));
+			else {
+				String formatString = "%0" + (((int)Math.log10(nrOfOutputFiles)) + 1) + "d";
+				for(int i=1;i<=nrOfOutputFiles;i++)
+					tripleWriters[i-1] = new ByteWriter(SerializerOutput.createChannel(new File(file + String.format(formatString, i) + ".ids")));
+			}
+		} catch(IOException e) {
+			System.err.println("Could not open dictionary output files.\n" + e.getMessage());
+			System.exit(-1);
+		}
+
+		resourceBytes = new ResourceBytes();
+		resourceWriter = new ByteWriter(Channels.newChannel(resourceBytes));
+		formatter = new NTriples(resourceWriter, forwardChaining);
+		resourceBundle = new ObjectBundle(null);
+	}
+
+	@Override
+	public void gatherData(ObjectBundle bundle) {
+		Iterator<BSBMResource> it = bundle.iterator();
+		try {
+			while(it.hasNext()) {
+				resourceBundle.add(it.next());
+				formatter.gatherData(resourceBundle);
+				resourceBundle.clear();
+				resourceWriter.flush();
+				writeTriples(resourceBytes.bytes(), resourceBytes.size(), tripleWriters[currentWriter]);
+				resourceBytes.reset();
+				currentWriter = (currentWriter + 1) % tripleWriters.length;
+			}
+		} catch(IOException e) {
+			System.err.println("Could not write dictionary output.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * Splits the N-Triples lines into their terms: subject and predicate end at
+	 * the next space, the object at the " .\n" of the line
+	 */
+	private void writeTriples(byte[] lines, int length, ByteWriter out) throws IOException {
+		int start = 0;
+		while(start<length) {
+			int subjectEnd = start;
+			while(lines[subjectEnd]!=' ')
+				subjectEnd++;
+			int predicateEnd = subjectEnd + 1;
+			while(lines[predicateEnd]!=' ')
+				predicateEnd++;
+			int lineEnd = predicateEnd + 1;
+			while(lines[lineEnd]!='\n')
+				lineEnd++;
+
+			out.writeLong(termId(lines, start, subjectEnd - start));
+			out.writeLong(termId(lines, subjectEnd + 1, predicateEnd - subjectEnd - 1));
+			out.writeLong(termId(lines, predicateEnd + 1, lineEnd - 2 - predicateEnd - 1));
+			nrTriples++;
+			start = lineEnd + 1;
+		}
+	}
+
+	//The id of the term, a new term is added to the dictionary
+	private long termId(byte[] b, int offset, int length) throws IOException {
+		long id = terms.get(b, offset, length);
+		if(id==0) {
+			id = terms.add();
+			writeVarint(dictionary, length);
+			dictionary.write(b, offset, length);
+		}
+		return id;
+	}
+
+	static void writeVarint(ByteWriter out, long value) throws IOException {
+		while((value & ~0x7FL) != 0) {
+			out.write((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int)value);
+	}
+
+	@Override
+	public void serialize() {
+		try {
+			dictionary.close();
+			for(ByteWriter writer: tripleWriters)
+				writer.close();
+		} catch(IOException e) {
+			System.err.println("Could not close dictionary output.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	@Override
+	public Long triplesGenerated() {
+		return nrTriples;
+	}
+
+	public long termsGenerated() {
+		return terms.size;
+	}
+
+	/*
+	 * The formatted triples of a resource, without copying them
+	 */
+	private static class ResourceBytes extends ByteArrayOutputStream {
+		ResourceBytes() {
+			super(64*1024);
+		}
+
+		byte[] bytes() {
+			return buf;
+		}
+	}
+
+	/*
+	 * Open addressing map from the fingerprint of a term to its id. Two
+	 * independent 64-bit hashes make a wrong match practically impossible.
+	 */
+	private static class TermMap {
+		private long[] hashes1 = new long[1 << 16];
+		private long[] hashes2 = new long[1 << 16];
+		private long[] ids = new long[1 << 16];//0: free slot
+		private long size = 0;
+		//Fingerprint of the last term looked up
+		private long hash1;
+		private long hash2;
+
+		long get(byte[] b, int offset, int length) {
+			hash1 = 0xcbf29ce484222325L;//FNV-1a
+			hash2 = length;
+			for(int i=offset;i<offset+length;i++) {
+				hash1 = (hash1 ^ (b[i] & 0xff)) * 0x100000001b3L;
+				hash2 = hash2 * 0x9E3779B97F4A7C15L + (b[i] & 0xff);
+			}
+			hash2 = mix(hash2);
+			hash1 = mix(hash1);
+
+			int mask = ids.length - 1;
+			for(int slot=(int)hash1 & mask;ids[slot]!=0;slot=(slot+1) & mask)
+				if(hashes1[slot]==hash1 && hashes2[slot]==hash2)
+					return ids[slot];
+			return 0;
+		}
+
+		//Adds the term of the last get()
+		long add() {
+			if(size >= ids.length / 4 * 3)
+				grow();
+			long id = ++size;
+			insert(hash1, hash2, id);
+			return id;
+		}
+
+		private void insert(long h1, long h2, long id) {
+			int mask = ids.length - 1;
+			int slot = (int)h1 & mask;
+			while(ids[slot]!=0)
+				slot = (slot+1) & mask;
+			hashes1[slot] = h1;
+			hashes2[slot] = h2;
+			ids[slot] = id;
+		}
+
+		private void grow() {
+			long[] oldHashes1 = hashes1;
+			long[] oldHashes2 = hashes2;
+			long[] oldIds = ids;
+			hashes1 = new long[oldIds.length*2];
+			hashes2 = new long[oldIds.length*2];
+			ids = new long[oldIds.length*2];
+			for(int i=0;i<oldIds.length;i++)
+				if(oldIds[i]!=0)
+					insert(oldHashes1[i], oldHashes2[i], oldIds[i]);
+		}
+
+		//Finalizer of MurmurHash3
+		private static long mix(long h) {
+			h ^= h >>> 33;
+			h *= 0xff51afd7ed558ccdL;
+			h ^= h >>> 33;
+			h *= 0xc4ceb9fe1a85ec53L;
+			h ^= h >>> 33;
+			return h;
+		}
+	}
+}
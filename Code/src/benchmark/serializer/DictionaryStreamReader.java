@@ -0,0 +1,124 @@
+package benchmark.serializer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+
+/*
+ * Feeds a dictionary encoded dataset (see DictionarySerializer) into a Jena
+ * StreamRDF, e.g. a DatasetLoader. The terms are kept off the heap in a
+ * TermTable and parsed into a Node when a triple needs them; the last node of
+ * every slot of a small cache is kept, which catches the repeated subjects,
+ * predicates and classes.
+ */
+public class DictionaryStreamReader implements DictionaryReader.Sink, Closeable {
+	private static final int cacheSize = 1 << 16;
+
+	private StreamRDF stream;
+	private TermTable terms;
+	private long[] cachedIds = new long[cacheSize];
+	private Node[] cachedNodes = new Node[cacheSize];
+	private long nrTriples = 0;
+
+	/*
+	 * The terms are stored in a temporary file in tempDir, null for the default
+	 */
+	public DictionaryStreamReader(StreamRDF stream, File tempDir) throws IOException
+	{
+		this.stream = stream;
+		this.terms = new TermTable(tempDir);
+	}
+
+	public DictionaryStreamReader(StreamRDF stream) throws IOException
+	{
+		this(stream, null);
+	}
+
+	/*
+	 * Reads the dataset written for -fn file into stream
+	 */
+	public static long read(String file, StreamRDF stream) throws IOException {
+		try(DictionaryStreamReader sink = new DictionaryStreamReader(stream, new File(file).getAbsoluteFile().getParentFile())) {
+			stream.start();
+			DictionaryReader.forDataset(file).read(sink);
+			stream.finish();
+			return sink.nrTriples;
+		}
+	}
+
+	@Override
+	public void term(long id, byte[] bytes, int offset, int length) throws IOException {
+		terms.add(id, bytes, offset, length);
+	}
+
+	@Override
+	public void triple(long subject, long predicate, long object) throws IOException {
+		stream.triple(Triple.create(node(subject), node(predicate), node(object)));
+		nrTriples++;
+	}
+
+	private Node node(long id) throws IOException {
+		int slot = (int)(id & (cacheSize-1));
+		if(cachedIds[slot]!=id) {
+			cachedNodes[slot] = parseTerm(new String(terms.get(id), StandardCharsets.UTF_8));
+			cachedIds[slot] = id;
+		}
+		return cachedNodes[slot];
+	}
+
+	/*
+	 * Deletes the temporary term file
+	 */
+	@Override
+	public void close() throws IOException {
+		terms.close();
+	}
+
+	/*
+	 * <uri>, "lexical form", "lexical form"@lang or "lexical form"^^<datatype>
+	 */
+	static Node parseTerm(String term) {
+		if(term.charAt(0)=='<')
+			return NodeFactory.createURI(term.substring(1, term.length()-1));
+
+		int end = term.lastIndexOf('"');
+		String lexicalForm = unescape(term.substring(1, end));
+		if(end==term.length()-1)
+			return NodeFactory.createLiteral(lexicalForm);
+		else if(term.charAt(end+1)=='@')
+			return NodeFactory.createLiteral(lexicalForm, term.substring(end+2));
+		else
+			return NodeFactory.createLiteral(lexicalForm,
+					TypeMapper.getInstance().getSafeTypeByName(term.substring(end+4, term.length()-1)));
+	}
+
+	private static String unescape(String s) {
+		if(s.indexOf('\\')<0)
+			return s;
+		StringBuilder sb = new StringBuilder(s.length());
+		for(int i=0;i<s.length();i++) {
+			char c = s.charAt(i);
+			if(c!='\\') {
+				sb.append(c);
+				continue;
+			}
+			c = s.charAt(++i);
+			switch(c) {
+				case 'n': sb.append('\n'); break;
+				case 'r': sb.append('\r'); break;
+				case 't': sb.append('\t'); break;
+				case 'u': sb.append((char)Integer.parseInt(s.substring(i+1, i+5), 16)); i += 4; break;
+				case 'U': sb.appendCodePoint(Integer.parseInt(s.substring(i+1, i+9), 16)); i += 8; break;
+				default: sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -7,37 +7,117 @@ import benchmark.generator.*;
 import java.io.*;
 import java.util.*;
 
-public class NTriples implements Serializer {
-	private FileWriter[] fileWriter;
+/*
+ * N-Triples output. The triples are written as bytes: namespaces and
+ * predicates are encoded once, numbers and strings go directly into the
+ * output buffer.
+ */
+public class NTriples implements Serializer, Resumable {
+	private ByteWriter[] fileWriter;
+	private ByteWriter out;//Writer of the current resource
 	private boolean forwardChaining;
 	private long nrTriples;
 	private int currentWriter = 0;
-	
+	private GregorianCalendar calendar = new GregorianCalendar();
+
+	//Beginnings of the instance urirefs
+	private final byte[] producerNS = ByteWriter.encode("<" + BSBM.INST_NS + "dataFromProducer");
+	private final byte[] vendorNS = ByteWriter.encode("<" + BSBM.INST_NS + "dataFromVendor");
+	private final byte[] ratingSiteNS = ByteWriter.encode("<" + BSBM.INST_NS + "dataFromRatingSite");
+	private final byte[] productTypeNS = ByteWriter.encode("<" + BSBM.INST_NS + "ProductType");
+	private final byte[] productFeatureNS = ByteWriter.encode("<" + BSBM.INST_NS + "ProductFeature");
+	private final byte[] standardizationInstitutionNS = ByteWriter.encode("<" + BSBM.INST_NS + "StandardizationInstitution");
+	private static final byte[] producerName = ByteWriter.encode("/Producer");
+	private static final byte[] productName = ByteWriter.encode("/Product");
+	private static final byte[] vendorName = ByteWriter.encode("/Vendor");
+	private static final byte[] offerName = ByteWriter.encode("/Offer");
+	private static final byte[] ratingSiteName = ByteWriter.encode("/RatingSite");
+	private static final byte[] reviewerName = ByteWriter.encode("/Reviewer");
+	private static final byte[] reviewName = ByteWriter.encode("/Review");
+
+	//Predicates, with the spaces around them
+	private final byte[] rdfType = predicate(RDF.type);
+	private final byte[] rdfsLabel = predicate(RDFS.label);
+	private final byte[] rdfsComment = predicate(RDFS.comment);
+	private final byte[] rdfsSubClassOf = predicate(RDFS.subClassOf);
+	private final byte[] dcPublisher = predicate(DC.publisher);
+	private final byte[] dcDate = predicate(DC.date);
+	private final byte[] dcTitle = predicate(DC.title);
+	private final byte[] foafName = predicate(FOAF.name);
+	private final byte[] foafMbox_sha1sum = predicate(FOAF.mbox_sha1sum);
+	private final byte[] foafHomepage = predicate(FOAF.homepage);
+	private final byte[] bsbmCountry = predicate(BSBM.country);
+	private final byte[] bsbmProduct = predicate(BSBM.product);
+	private final byte[] bsbmVendor = predicate(BSBM.vendor);
+	private final byte[] bsbmPrice = predicate(BSBM.price);
+	private final byte[] bsbmValidFrom = predicate(BSBM.validFrom);
+	private final byte[] bsbmValidTo = predicate(BSBM.validTo);
+	private final byte[] bsbmDeliveryDays = predicate(BSBM.deliveryDays);
+	private final byte[] bsbmOfferWebpage = predicate(BSBM.offerWebpage);
+	private final byte[] bsbmProducer = predicate(BSBM.producer);
+	private final byte[] bsbmProductFeature = predicate(BSBM.productFeature);
+	private final byte[] bsbmReviewFor = predicate(BSBM.reviewFor);
+	private final byte[] bsbmReviewDate = predicate(BSBM.reviewDate);
+	private final byte[] revReviewer = predicate(REV.reviewer);
+	private final byte[] revText = predicate(REV.text);
+	private final ArrayList<byte[]> bsbmProductPropertyNumeric = new ArrayList<byte[]>();
+	private final ArrayList<byte[]> bsbmProductPropertyTextual = new ArrayList<byte[]>();
+	private final ArrayList<byte[]> bsbmRating = new ArrayList<byte[]>();
+
+	//Class objects
+	private final byte[] bsbmProductType = classURIref(BSBM.ProductType);
+	private final byte[] bsbmOffer = classURIref(BSBM.Offer);
+	private final byte[] bsbmProductClass = classURIref(BSBM.Product);
+	private final byte[] bsbmProducerClass = classURIref(BSBM.Producer);
+	private final byte[] bsbmProductFeatureClass = classURIref(BSBM.ProductFeature);
+	private final byte[] bsbmVendorClass = classURIref(BSBM.Vendor);
+	private final byte[] foafPerson = classURIref(FOAF.Person);
+	private final byte[] revReview = classURIref(REV.Review);
+
+	//Ends of literals
+	private final byte[] xsdDate = datatype(XSD.Date);
+	private final byte[] xsdDateTime = datatype("T00:00:00", XSD.DateTime);
+	private final byte[] xsdInteger = datatype(XSD.Integer);
+	private final byte[] xsdString = datatype(XSD.String);
+	private final byte[] bsbmUSD = datatype(BSBM.USD);
+	private static final byte[] languageTag = ByteWriter.encode("\"@");
+	private static final byte[] endOfTriple = ByteWriter.encode(" .\n");
+
 	public NTriples(String file, boolean forwardChaining)
 	{
 		this(file, forwardChaining, 1);
 	}
-	
+
 	public NTriples(String file, boolean forwardChaining, int nrOfOutputFiles)
 	{
 		int nrOfDigits = ((int)Math.log10(nrOfOutputFiles)) + 1;
 		String formatString = "%0" + nrOfDigits + "d";
 		try{
-			fileWriter = new FileWriter[nrOfOutputFiles];
+			fileWriter = new ByteWriter[nrOfOutputFiles];
 			if(nrOfOutputFiles==1)
-				fileWriter[0] = new FileWriter(file + ".nt");
+				fileWriter[0] = new ByteWriter(SerializerOutput.createChannel(new File(file + ".nt")));
 			else
 				for(int i=1;i<=nrOfOutputFiles;i++)
-					fileWriter[i-1] = new FileWriter(file + String.format(formatString, i) + ".nt");
+					fileWriter[i-1] = new ByteWriter(SerializerOutput.createChannel(new File(file + String.format(formatString, i) + ".nt")));
 		} catch(IOException e){
 			System.err.println("Could not open File");
 			System.exit(-1);
 		}
-		
+
+		this.forwardChaining = forwardChaining;
+		nrTriples = 0l;
+	}
+
+	/*
+	 * Writes to an already opened writer
+	 */
+	NTriples(ByteWriter writer, boolean forwardChaining)
+	{
+		fileWriter = new ByteWriter[] { writer };
 		this.forwardChaining = forwardChaining;
 		nrTriples = 0l;
 	}
-	
+
 	@Override
 	public void gatherData(ObjectBundle bundle) {
 		Iterator<BSBMResource> it = bundle.iterator();
@@ -45,30 +125,31 @@ public class NTriples implements Serializer {
 		while(it.hasNext())
 		{
 			BSBMResource obj = it.next();
+			out = fileWriter[currentWriter];
 			try{
 				if(obj instanceof ProductType){
-					fileWriter[currentWriter].append(convertProductType((ProductType)obj));
+					convertProductType((ProductType)obj);
 				}
 				else if(obj instanceof Offer){
-					fileWriter[currentWriter].append(convertOffer((Offer)obj));
+					convertOffer((Offer)obj);
 				}
 				else if(obj instanceof Product){
-					fileWriter[currentWriter].append(convertProduct((Product)obj));
+					convertProduct((Product)obj);
 				}
 				else if(obj instanceof Person){
-					fileWriter[currentWriter].append(convertPerson((Person)obj));
+					convertPerson((Person)obj);
 				}
 				else if(obj instanceof Producer){
-					fileWriter[currentWriter].append(convertProducer((Producer)obj));
+					convertProducer((Producer)obj);
 				}
 				else if(obj instanceof ProductFeature){
-					fileWriter[currentWriter].append(convertProductFeature((ProductFeature)obj));
+					convertProductFeature((ProductFeature)obj);
 				}
 				else if(obj instanceof Vendor){
-					fileWriter[currentWriter].append(convertVendor((Vendor)obj));
+					convertVendor((Vendor)obj);
 				}
 				else if(obj instanceof Review){
-					fileWriter[currentWriter].append(convertReview((Review)obj));
+					convertReview((Review)obj);
 				}
 			}
 			catch(IOException e){
@@ -79,618 +160,639 @@ public class NTriples implements Serializer {
 			currentWriter = (currentWriter + 1) % fileWriter.length;
 		}
 	}
-	
+
 	/*
-	 * Converts the ProductType Object into an N-Triples String
-	 * representation.
+	 * Writes the ProductType Object as N-Triples.
 	 */
-	private String convertProductType(ProductType pType)
+	private void convertProductType(ProductType pType) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = pType.toString(); 
+		int nr = pType.getNr();
 
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(BSBM.ProductType)));
-		
+		productTypeURIref(nr);
+		out.write(rdfType);
+		out.write(bsbmProductType);
+		endTriple();
+
 		//rdfs:label
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.label),
-				createLiteral(pType.getLabel())));
-		
+		productTypeURIref(nr);
+		out.write(rdfsLabel);
+		literal(pType.getLabel());
+		endTriple();
+
 		//rdfs:comment
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.comment),
-				createLiteral(pType.getComment())));
-		
+		productTypeURIref(nr);
+		out.write(rdfsComment);
+		literal(pType.getComment());
+		endTriple();
+
 		//rdfs:subClassOf
 		if(pType.getParent()!=null)
 		{
-			String parentURIREF = createURIref(BSBM.INST_NS, "ProductType"+pType.getParent().getNr());
-			result.append(createTriple(
-					subjectURIREF,
-					createURIref(RDFS.subClassOf),
-					parentURIREF));
+			productTypeURIref(nr);
+			out.write(rdfsSubClassOf);
+			productTypeURIref(pType.getParent().getNr());
+			endTriple();
 		}
-		
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				createURIref(BSBM.getStandardizationInstitution(1))));
-		
+		productTypeURIref(nr);
+		out.write(dcPublisher);
+		standardizationInstitutionURIref(1);
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(pType.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
+		productTypeURIref(nr);
+		out.write(dcDate);
+		dateLiteral(pType.getPublishDate());
+		endTriple();
+	}
+
 	/*
-	 * Converts the Offer Object into an N-Triples String
-	 * representation.
+	 * Writes the Offer Object as N-Triples.
 	 */
-	private String convertOffer(Offer offer)
+	private void convertOffer(Offer offer) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = offer.toString(); 
+		long nr = offer.getNr();
+		int vendorNr = offer.getVendor();
 
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(BSBM.Offer)));
-		
+		offerURIref(nr, vendorNr);
+		out.write(rdfType);
+		out.write(bsbmOffer);
+		endTriple();
+
 		//bsbm:product
 		int productNr = offer.getProduct();
-		int producerNr = Generator.getProducerOfProduct(productNr); 
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.product),
-				Product.getURIref(productNr, producerNr)));
-		
+		int producerNr = Generator.getProducerOfProduct(productNr);
+		offerURIref(nr, vendorNr);
+		out.write(bsbmProduct);
+		productURIref(productNr, producerNr);
+		endTriple();
+
 		//bsbm:vendor
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.vendor),
-				Vendor.getURIref(offer.getVendor())));
-		
+		offerURIref(nr, vendorNr);
+		out.write(bsbmVendor);
+		vendorURIref(vendorNr);
+		endTriple();
+
 		//bsbm:price
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.price),
-				createDataTypeLiteral(offer.getPriceString(),createURIref(BSBM.USD))));
-		
+		offerURIref(nr, vendorNr);
+		out.write(bsbmPrice);
+		out.write('"');
+		out.write(offer.getPriceString());
+		out.write(bsbmUSD);
+		endTriple();
+
 		//bsbm:validFrom
-		GregorianCalendar validFrom = new GregorianCalendar();
-		validFrom.setTimeInMillis(offer.getValidFrom());
-		String validFromString = DateGenerator.formatDateTime(validFrom);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.validFrom),
-				createDataTypeLiteral(validFromString, createURIref(XSD.DateTime))));
-		
+		offerURIref(nr, vendorNr);
+		out.write(bsbmValidFrom);
+		dateTimeLiteral(offer.getValidFrom());
+		endTriple();
+
 		//bsbm:validTo
-		GregorianCalendar validTo = new GregorianCalendar();
-		validTo.setTimeInMillis(offer.getValidTo());
-		String validToString = DateGenerator.formatDateTime(validTo);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.validTo),
-				createDataTypeLiteral(validToString, createURIref(XSD.DateTime))));
-		
+		offerURIref(nr, vendorNr);
+		out.write(bsbmValidTo);
+		dateTimeLiteral(offer.getValidTo());
+		endTriple();
+
 		//bsbm:deliveryDays
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.deliveryDays),
-				createDataTypeLiteral(offer.getDeliveryDays().toString(), createURIref(XSD.Integer))));
-		
+		offerURIref(nr, vendorNr);
+		out.write(bsbmDeliveryDays);
+		integerLiteral(offer.getDeliveryDays());
+		endTriple();
+
 		//bsbm:offerWebpage
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.offerWebpage),
-				createURIref(offer.getOfferWebpage())));
-		
+		offerURIref(nr, vendorNr);
+		out.write(bsbmOfferWebpage);
+		uriref(offer.getOfferWebpage());
+		endTriple();
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				Vendor.getURIref(offer.getVendor())));
-		
+		offerURIref(nr, vendorNr);
+		out.write(dcPublisher);
+		vendorURIref(vendorNr);
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(offer.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
+		offerURIref(nr, vendorNr);
+		out.write(dcDate);
+		dateLiteral(offer.getPublishDate());
+		endTriple();
+	}
+
 	/*
-	 * Converts the Product Object into an N-Triples String
-	 * representation.
+	 * Writes the Product Object as N-Triples.
 	 */
-	private String convertProduct(Product product)
+	private void convertProduct(Product product) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = product.toString(); 
+		int nr = product.getNr();
+		int producerNr = product.getProducer();
 
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(BSBM.Product)));
-		
+		productURIref(nr, producerNr);
+		out.write(rdfType);
+		out.write(bsbmProductClass);
+		endTriple();
+
 		//rdfs:label
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.label),
-				createLiteral(product.getLabel())));
-		
+		productURIref(nr, producerNr);
+		out.write(rdfsLabel);
+		literal(product.getLabel());
+		endTriple();
+
 		//rdfs:comment
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.comment),
-				createLiteral(product.getComment())));
-		
+		productURIref(nr, producerNr);
+		out.write(rdfsComment);
+		literal(product.getComment());
+		endTriple();
+
 		//bsbm:productType
 		if(forwardChaining) {
 			ProductType pt = product.getProductType();
 			while(pt!=null) {
-				result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						pt.toString()));
+				productURIref(nr, producerNr);
+				out.write(rdfType);
+				productTypeURIref(pt.getNr());
+				endTriple();
 				pt = pt.getParent();
 			}
 		}
 		else {
-			result.append(createTriple(
-					subjectURIREF,
-					createURIref(RDF.type),
-					product.getProductType().toString()));
+			productURIref(nr, producerNr);
+			out.write(rdfType);
+			productTypeURIref(product.getProductType().getNr());
+			endTriple();
 		}
-		
+
 		//bsbm:producer
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.producer),
-				Producer.getURIref(product.getProducer())));
-		
+		productURIref(nr, producerNr);
+		out.write(bsbmProducer);
+		producerURIref(producerNr);
+		endTriple();
+
 		//bsbm:productPropertyNumeric
-		Integer[] ppn = product.getProductPropertyNumeric();
+		int[] ppn = product.getProductPropertyNumeric();
 		for(int i=0,j=1;i<ppn.length;i++,j++)
 		{
-			Integer value = ppn[i];
-			if(value!=null)
-				result.append(createTriple(
-						subjectURIREF,
-						createURIref(BSBM.getProductPropertyNumeric(j)),
-						createDataTypeLiteral(value.toString(), createURIref(XSD.Integer))));
+			int value = ppn[i];
+			if(value!=0) {
+				productURIref(nr, producerNr);
+				out.write(predicate(bsbmProductPropertyNumeric, j));
+				integerLiteral(value);
+				endTriple();
+			}
 		}
-		
+
 		//bsbm:productPropertyTextual
 		String[] ppt = product.getProductPropertyTextual();
 		for(int i=0,j=1;i<ppt.length;i++,j++)
 		{
 			String value = ppt[i];
-			if(value!=null)
-				result.append(createTriple(
-						subjectURIREF,
-						createURIref(BSBM.getProductPropertyTextual(j)),
-						createDataTypeLiteral(value, createURIref(XSD.String))));
+			if(value!=null) {
+				productURIref(nr, producerNr);
+				out.write(predicate(bsbmProductPropertyTextual, j));
+				out.write('"');
+				out.write(value);
+				out.write(xsdString);
+				endTriple();
+			}
 		}
-		
+
 		//bsbm:productFeature
-		Iterator<Integer> pf = product.getFeatures().iterator();
-		while(pf.hasNext())
+		int[] features = product.getFeatures();
+		for(int i=0;i<features.length;i++)
 		{
-			Integer value = pf.next();
-			result.append(createTriple(
-					subjectURIREF,
-					createURIref(BSBM.productFeature),
-					ProductFeature.getURIref(value)));
+			productURIref(nr, producerNr);
+			out.write(bsbmProductFeature);
+			productFeatureURIref(features[i]);
+			endTriple();
 		}
-		
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				Producer.getURIref(product.getProducer())));
-		
+		productURIref(nr, producerNr);
+		out.write(dcPublisher);
+		producerURIref(producerNr);
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(product.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
+		productURIref(nr, producerNr);
+		out.write(dcDate);
+		dateLiteral(product.getPublishDate());
+		endTriple();
+	}
+
 	/*
-	 * Converts the Person Object into an N-Triples String
-	 * representation.
+	 * Writes the Person Object as N-Triples.
 	 */
-	private String convertPerson(Person person)
+	private void convertPerson(Person person) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = person.toString();
-		
+		long nr = person.getNr();
+		int ratingSiteNr = person.getPublisher();
+
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(FOAF.Person)));
-		
+		personURIref(nr, ratingSiteNr);
+		out.write(rdfType);
+		out.write(foafPerson);
+		endTriple();
+
 		//foaf:name
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(FOAF.name),
-				createLiteral(person.getName())));
-		
+		personURIref(nr, ratingSiteNr);
+		out.write(foafName);
+		literal(person.getName());
+		endTriple();
+
 		//foaf:mbox_sha1sum
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(FOAF.mbox_sha1sum),
-				createLiteral(person.getMbox_sha1sum())));
-		
+		personURIref(nr, ratingSiteNr);
+		out.write(foafMbox_sha1sum);
+		literal(person.getMbox_sha1sum());
+		endTriple();
+
 		//bsbm:country
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.country),
-				createURIref(ISO3166.find(person.getCountryCode()))));
-		
+		personURIref(nr, ratingSiteNr);
+		out.write(bsbmCountry);
+		uriref(ISO3166.find(person.getCountryCode()));
+		endTriple();
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				RatingSite.getURIref(person.getPublisher())));
-		
+		personURIref(nr, ratingSiteNr);
+		out.write(dcPublisher);
+		ratingSiteURIref(ratingSiteNr);
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(person.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
+		personURIref(nr, ratingSiteNr);
+		out.write(dcDate);
+		dateLiteral(person.getPublishDate());
+		endTriple();
+	}
+
 	/*
-	 * Converts the Producer Object into an N-Triples String
-	 * representation.
+	 * Writes the Producer Object as N-Triples.
 	 */
-	private String convertProducer(Producer producer)
+	private void convertProducer(Producer producer) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = producer.toString(); 
+		int nr = producer.getNr();
 
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(BSBM.Producer)));
-		
+		producerURIref(nr);
+		out.write(rdfType);
+		out.write(bsbmProducerClass);
+		endTriple();
+
 		//rdfs:label
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.label),
-				createLiteral(producer.getLabel())));
-		
+		producerURIref(nr);
+		out.write(rdfsLabel);
+		literal(producer.getLabel());
+		endTriple();
+
 		//rdfs:comment
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.comment),
-				createLiteral(producer.getComment())));
-		
+		producerURIref(nr);
+		out.write(rdfsComment);
+		literal(producer.getComment());
+		endTriple();
+
 		//foaf:homepage
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(FOAF.homepage),
-				createURIref(producer.getHomepage())));
-		
+		producerURIref(nr);
+		out.write(foafHomepage);
+		uriref(producer.getHomepage());
+		endTriple();
+
 		//bsbm:country
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.country),
-				createURIref(ISO3166.find(producer.getCountryCode()))));
-		
+		producerURIref(nr);
+		out.write(bsbmCountry);
+		uriref(ISO3166.find(producer.getCountryCode()));
+		endTriple();
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				producer.toString()));
-		
+		producerURIref(nr);
+		out.write(dcPublisher);
+		producerURIref(nr);
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(producer.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
+		producerURIref(nr);
+		out.write(dcDate);
+		dateLiteral(producer.getPublishDate());
+		endTriple();
+	}
+
 	/*
-	 * Converts the ProductFeature Object into an N-Triples String
-	 * representation.
+	 * Writes the ProductFeature Object as N-Triples.
 	 */
-	private String convertProductFeature(ProductFeature pf)
+	private void convertProductFeature(ProductFeature pf) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = createURIref(BSBM.INST_NS, "ProductFeature"+pf.getNr()); 
+		int nr = pf.getNr();
 
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(BSBM.ProductFeature)));
-		
+		productFeatureURIref(nr);
+		out.write(rdfType);
+		out.write(bsbmProductFeatureClass);
+		endTriple();
+
 		//rdfs:label
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.label),
-				createLiteral(pf.getLabel())));
-		
+		productFeatureURIref(nr);
+		out.write(rdfsLabel);
+		literal(pf.getLabel());
+		endTriple();
+
 		//rdfs:comment
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.comment),
-				createLiteral(pf.getComment())));
-		
+		productFeatureURIref(nr);
+		out.write(rdfsComment);
+		literal(pf.getComment());
+		endTriple();
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				createURIref(BSBM.getStandardizationInstitution(pf.getPublisher()))));
-		
+		productFeatureURIref(nr);
+		out.write(dcPublisher);
+		standardizationInstitutionURIref(pf.getPublisher());
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(pf.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
+		productFeatureURIref(nr);
+		out.write(dcDate);
+		dateLiteral(pf.getPublishDate());
+		endTriple();
+	}
+
 	/*
-	 * Converts the Vendor Object into an N-Triples String
-	 * representation.
+	 * Writes the Vendor Object as N-Triples.
 	 */
-	private String convertVendor(Vendor vendor)
+	private void convertVendor(Vendor vendor) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = vendor.toString(); 
+		int nr = vendor.getNr();
 
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(BSBM.Vendor)));
-		
+		vendorURIref(nr);
+		out.write(rdfType);
+		out.write(bsbmVendorClass);
+		endTriple();
+
 		//rdfs:label
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.label),
-				createLiteral(vendor.getLabel())));
-		
+		vendorURIref(nr);
+		out.write(rdfsLabel);
+		literal(vendor.getLabel());
+		endTriple();
+
 		//rdfs:comment
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(RDFS.comment),
-				createLiteral(vendor.getComment())));
-		
+		vendorURIref(nr);
+		out.write(rdfsComment);
+		literal(vendor.getComment());
+		endTriple();
+
 		//foaf:homepage
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(FOAF.homepage),
-				createURIref(vendor.getHomepage())));
-		
+		vendorURIref(nr);
+		out.write(foafHomepage);
+		uriref(vendor.getHomepage());
+		endTriple();
+
 		//bsbm:country
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.country),
-				createURIref(ISO3166.find(vendor.getCountryCode()))));
-		
+		vendorURIref(nr);
+		out.write(bsbmCountry);
+		uriref(ISO3166.find(vendor.getCountryCode()));
+		endTriple();
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				vendor.toString()));
-		
+		vendorURIref(nr);
+		out.write(dcPublisher);
+		vendorURIref(nr);
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(vendor.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
-	
+		vendorURIref(nr);
+		out.write(dcDate);
+		dateLiteral(vendor.getPublishDate());
+		endTriple();
+	}
+
+
 	/*
-	 * Converts the Review Object into an N-Triples String
-	 * representation.
+	 * Writes the Review Object as N-Triples.
 	 */
-	private String convertReview(Review review)
+	private void convertReview(Review review) throws IOException
 	{
-		StringBuffer result = new StringBuffer();
-		//First the uriref for the subject
-		String subjectURIREF = review.toString(); 
+		long nr = review.getNr();
+		int ratingSiteNr = review.getPublisher();
 
 		//rdf:type
-		result.append(createTriple(
-						subjectURIREF,
-						createURIref(RDF.type),
-						createURIref(REV.Review)));
-		
+		reviewURIref(nr, ratingSiteNr);
+		out.write(rdfType);
+		out.write(revReview);
+		endTriple();
+
 		//bsbm:reviewFor
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.reviewFor),
-				Product.getURIref(review.getProduct(), review.getProducerOfProduct())));
-		
+		reviewURIref(nr, ratingSiteNr);
+		out.write(bsbmReviewFor);
+		productURIref(review.getProduct(), review.getProducerOfProduct());
+		endTriple();
+
 		//rev:reviewer
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(REV.reviewer),
-				Person.getURIref(review.getPerson(), review.getPublisher())));
-		
+		reviewURIref(nr, ratingSiteNr);
+		out.write(revReviewer);
+		personURIref(review.getPerson(), ratingSiteNr);
+		endTriple();
+
 		//bsbm:reviewDate
-		GregorianCalendar reviewDate = new GregorianCalendar();
-		reviewDate.setTimeInMillis(review.getReviewDate());
-		String reviewDateString = DateGenerator.formatDateTime(reviewDate);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(BSBM.reviewDate),
-				createDataTypeLiteral(reviewDateString, createURIref(XSD.DateTime))));
-		
+		reviewURIref(nr, ratingSiteNr);
+		out.write(bsbmReviewDate);
+		dateTimeLiteral(review.getReviewDate());
+		endTriple();
+
 		//dc:title
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.title),
-				createLiteral(review.getTitle())));
-		
+		reviewURIref(nr, ratingSiteNr);
+		out.write(dcTitle);
+		literal(review.getTitle());
+		endTriple();
+
 		//rev:text
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(REV.text),
-				createLanguageLiteral(review.getText(),ISO3166.language[review.getLanguage()])));
-		
+		reviewURIref(nr, ratingSiteNr);
+		out.write(revText);
+		out.write('"');
+		out.write(review.getText());
+		out.write(languageTag);
+		out.write(ISO3166.language[review.getLanguage()]);
+		endTriple();
+
 		//bsbm:ratingX
-		Integer[] ratings = review.getRatings();
+		int[] ratings = review.getRatings();
 		for(int i=0,j=1;i<ratings.length;i++,j++)
 		{
-			Integer value = ratings[i];
-			if(value!=null)
-				result.append(createTriple(
-						subjectURIREF,
-						createURIref(BSBM.getRating(j)),
-						createDataTypeLiteral(value.toString(), createURIref(XSD.Integer))));
+			int value = ratings[i];
+			if(value!=0) {
+				reviewURIref(nr, ratingSiteNr);
+				out.write(predicate(bsbmRating, j));
+				integerLiteral(value);
+				endTriple();
+			}
 		}
-		
+
 		//dc:publisher
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.publisher),
-				RatingSite.getURIref(review.getPublisher())));
-		
+		reviewURIref(nr, ratingSiteNr);
+		out.write(dcPublisher);
+		ratingSiteURIref(ratingSiteNr);
+		endTriple();
+
 		//dc:date
-		GregorianCalendar date = new GregorianCalendar();
-		date.setTimeInMillis(review.getPublishDate());
-		String dateString = DateGenerator.formatDate(date);
-		result.append(createTriple(
-				subjectURIREF,
-				createURIref(DC.date),
-				createDataTypeLiteral(dateString, createURIref(XSD.Date))));
-		
-		return result.toString();
-	}
-	
-
-	
+		reviewURIref(nr, ratingSiteNr);
+		out.write(dcDate);
+		dateLiteral(review.getPublishDate());
+		endTriple();
+	}
+
+	//Instance urirefs, as given by the toString() methods of the model
+	private void productTypeURIref(int nr) throws IOException
+	{
+		out.write(productTypeNS);
+		out.writeNumber(nr);
+		out.write('>');
+	}
+
+	private void productFeatureURIref(int nr) throws IOException
+	{
+		out.write(productFeatureNS);
+		out.writeNumber(nr);
+		out.write('>');
+	}
+
+	private void standardizationInstitutionURIref(int nr) throws IOException
+	{
+		out.write(standardizationInstitutionNS);
+		out.writeNumber(nr);
+		out.write('>');
+	}
+
+	private void producerURIref(int producerNr) throws IOException
+	{
+		sourceURIref(producerNS, producerNr, producerName, producerNr);
+	}
+
+	private void productURIref(int productNr, int producerNr) throws IOException
+	{
+		sourceURIref(producerNS, producerNr, productName, productNr);
+	}
+
+	private void vendorURIref(int vendorNr) throws IOException
+	{
+		sourceURIref(vendorNS, vendorNr, vendorName, vendorNr);
+	}
+
+	private void offerURIref(long offerNr, int vendorNr) throws IOException
+	{
+		sourceURIref(vendorNS, vendorNr, offerName, offerNr);
+	}
+
+	private void ratingSiteURIref(int ratingSiteNr) throws IOException
+	{
+		sourceURIref(ratingSiteNS, ratingSiteNr, ratingSiteName, ratingSiteNr);
+	}
+
+	private void personURIref(long personNr, int ratingSiteNr) throws IOException
+	{
+		sourceURIref(ratingSiteNS, ratingSiteNr, reviewerName, personNr);
+	}
+
+	private void reviewURIref(long reviewNr, int ratingSiteNr) throws IOException
+	{
+		sourceURIref(ratingSiteNS, ratingSiteNr, reviewName, reviewNr);
+	}
+
+	//Uriref of a resource in the namespace of its data source, e.g. dataFromVendor1/Offer2
+	private void sourceURIref(byte[] sourceNS, int sourceNr, byte[] localName, long nr) throws IOException
+	{
+		out.write(sourceNS);
+		out.writeNumber(sourceNr);
+		out.write(localName);
+		out.writeNumber(nr);
+		out.write('>');
+	}
+
 	//Create Literal
-	private String createLiteral(String value)
-	{
-		StringBuffer result = new StringBuffer();
-		result.append("\"");
-		result.append(value);
-		result.append("\"");
-		return result.toString();
-	}
-	
-	//Create typed literal
-	private String createDataTypeLiteral(String value, String datatypeURI)
-	{
-		StringBuffer result = new StringBuffer();
-		result.append("\"");
-		result.append(value);
-		result.append("\"^^");
-		result.append(datatypeURI);
-		return result.toString();
-	}
-	
-	//Create language tagged literal
-	private String createLanguageLiteral(String text, String languageCode)
-	{
-		StringBuffer result = new StringBuffer();
-		result.append("\"");
-		result.append(text);
-		result.append("\"@");
-		result.append(languageCode);
-		return result.toString();
-	}
-
-	//Creates a triple
-	private String createTriple(String subject, String predicate, String object)
-	{
-		StringBuffer result = new StringBuffer();
-		result.append(subject);
-		result.append(" ");
-		result.append(predicate);
-		result.append(" ");
-		result.append(object);
-		result.append(" .\n");
-		
+	private void literal(String value) throws IOException
+	{
+		out.write('"');
+		out.write(value);
+		out.write('"');
+	}
+
+	private void integerLiteral(int value) throws IOException
+	{
+		out.write('"');
+		out.writeNumber(value);
+		out.write(xsdInteger);
+	}
+
+	//Date in the format of DateGenerator.formatDate()
+	private void date(long date) throws IOException
+	{
+		calendar.setTimeInMillis(date);
+		out.write('"');
+		out.writeNumber(calendar.get(Calendar.YEAR));
+		out.write('-');
+		out.writeNumber(calendar.get(Calendar.MONTH)+1, 2);
+		out.write('-');
+		out.writeNumber(calendar.get(Calendar.DAY_OF_MONTH), 2);
+	}
+
+	private void dateLiteral(long date) throws IOException
+	{
+		date(date);
+		out.write(xsdDate);
+	}
+
+	private void dateTimeLiteral(long date) throws IOException
+	{
+		date(date);
+		out.write(xsdDateTime);
+	}
+
+	private void uriref(String uri) throws IOException
+	{
+		out.write('<');
+		out.write(uri);
+		out.write('>');
+	}
+
+	private void endTriple() throws IOException
+	{
+		out.write(endOfTriple);
 		nrTriples++;
-		
-		return result.toString();
 	}
-	
-	//Create URIREF from namespace and element
-	private String createURIref(String namespace, String element)
+
+	//Numbered predicates like bsbm:rating1, encoded when first used
+	private byte[] predicate(ArrayList<byte[]> predicates, int nr)
+	{
+		while(predicates.size()<nr) {
+			int next = predicates.size()+1;
+			if(predicates==bsbmRating)
+				predicates.add(predicate(BSBM.getRating(next)));
+			else if(predicates==bsbmProductPropertyNumeric)
+				predicates.add(predicate(BSBM.getProductPropertyNumeric(next)));
+			else
+				predicates.add(predicate(BSBM.getProductPropertyTextual(next)));
+		}
+		return predicates.get(nr-1);
+	}
+
+	private static byte[] predicate(String uri)
 	{
-		StringBuffer result = new StringBuffer();
-		result.append("<");
-		result.append(namespace);
-		result.append(element);
-		result.append(">");
-		return result.toString();
+		return ByteWriter.encode(" <" + uri + "> ");
 	}
-	
-	//Create URIREF from URI
-	private String createURIref(String uri)
+
+	private static byte[] classURIref(String uri)
 	{
-		StringBuffer result = new StringBuffer();
-		result.append("<");
-		result.append(uri);
-		result.append(">");
-		return result.toString();
+		return ByteWriter.encode("<" + uri + ">");
+	}
+
+	//End of a typed literal: closing quote and datatype
+	private static byte[] datatype(String datatypeURI)
+	{
+		return datatype("", datatypeURI);
+	}
+
+	private static byte[] datatype(String valueEnd, String datatypeURI)
+	{
+		return ByteWriter.encode(valueEnd + "\"^^<" + datatypeURI + ">");
 	}
-	
-	
 
 	@Override
     public void serialize() {
@@ -705,10 +807,44 @@ public class NTriples implements Serializer {
 			System.exit(-1);
 		}
 	}
-	
+
+	/*
+	 * State: number of triples, current file, positions of the files.
+	 * The files are forced to the disk up to these positions.
+	 */
+	@Override
+	public long[] checkpoint() {
+		long[] state = new long[2+fileWriter.length];
+		state[0] = nrTriples;
+		state[1] = currentWriter;
+		try {
+			for(int i=0;i<fileWriter.length;i++) {
+				fileWriter[i].sync();
+				state[2+i] = fileWriter[i].getPosition();
+			}
+		} catch(IOException e) {
+			System.err.println("Could not write output.\n" + e.getMessage());
+			System.exit(-1);
+		}
+		return state;
+	}
+
+	@Override
+	public void resume(long[] state) {
+		nrTriples = state[0];
+		currentWriter = (int)state[1];
+		try {
+			for(int i=0;i<fileWriter.length;i++)
+				fileWriter[i].resumeAt(state[2+i]);
+		} catch(IOException e) {
+			System.err.println("Could not continue output.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
 	public void writeString(String s) {
 		try {
-			fileWriter[currentWriter].append(s);
+			fileWriter[currentWriter].write(s);
 		} catch(IOException e) {
 			System.err.println("Could not write output.\n" + e.getMessage());
 			System.exit(-1);
@@ -0,0 +1,421 @@
+package benchmark.serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Sorts N-Triples files by subject with an external merge sort, for bulk
+ * loaders that build their B+tree indexes faster from sorted input.
+ * The input is read in chunks of bounded size. Every chunk is sorted by a
+ * worker thread and written as a run file, which keeps every 1024th subject
+ * with its file position in memory. From these sampled subjects the key ranges
+ * of the output shards are chosen, and every shard merges its range of all runs
+ * in its own thread. Subjects are compared as UTF-8 bytes. The sort is stable,
+ * so the triples of a subject keep their order, and a subject is never split
+ * between shards.
+ */
+public class NTriplesSorter {
+	private static final int indexInterval = 1024;//Lines per sampled subject of a run
+	private static final int minChunkSize = 1 << 20;
+
+	private File tempDir;
+	private int chunkSize;
+	private int nrOfThreads;
+	private List<Run> runs = new ArrayList<Run>();
+
+	/*
+	 * memory: bytes for the chunks in memory, shared by nrOfThreads workers
+	 */
+	public NTriplesSorter(File tempDir, long memory, int nrOfThreads) {
+		this.tempDir = tempDir;
+		this.nrOfThreads = nrOfThreads;
+		chunkSize = (int)Math.min(Integer.MAX_VALUE - 8, Math.max(minChunkSize, memory / (nrOfThreads + 1)));
+	}
+
+	/*
+	 * Sorts the triples of all input files into the output files, which may be
+	 * the input files. Uses the compression of SerializerOutput for both.
+	 */
+	public void sort(File[] input, File[] output) throws IOException {
+		try {
+			createRuns(input);
+			mergeRuns(output);
+		} finally {
+			for(Run run: runs)
+				run.file.delete();
+		}
+	}
+
+	/*
+	 * Reads the input chunk by chunk, a chunk ends after its last complete line
+	 */
+	private void createRuns(File[] input) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(nrOfThreads);
+		BlockingQueue<byte[]> freeChunks = new ArrayBlockingQueue<byte[]>(nrOfThreads + 1);
+		for(int i=0;i<=nrOfThreads;i++)
+			freeChunks.add(new byte[chunkSize]);
+		List<Future<Run>> pending = new ArrayList<Future<Run>>();
+
+		try {
+			byte[] chunk = takeChunk(freeChunks, pending);
+			int length = 0;
+			for(File file: input) {
+				InputStream in = openInput(file);
+				int read;
+				while((read = in.read(chunk, length, chunk.length - length)) >= 0) {
+					length += read;
+					if(length<chunk.length)
+						continue;
+
+					int end = length;
+					while(end>0 && chunk[end-1]!='\n')
+						end--;
+					if(end==0)
+						throw new IOException("Line longer than the sort chunk in " + file.getPath());
+					byte[] next = takeChunk(freeChunks, pending);
+					System.arraycopy(chunk, end, next, 0, length - end);
+					pending.add(executor.submit(new RunWriter(chunk, end, freeChunks)));
+					chunk = next;
+					length -= end;
+				}
+				in.close();
+				if(length>0 && chunk[length-1]!='\n')
+					throw new IOException("Incomplete last line in " + file.getPath());
+			}
+			if(length>0)
+				pending.add(executor.submit(new RunWriter(chunk, length, freeChunks)));
+
+			for(Future<Run> run: pending)
+				runs.add(run.get());
+		} catch(InterruptedException e) {
+			throw new IOException("Interrupted while sorting", e);
+		} catch(ExecutionException e) {
+			throw new IOException("Could not write sort run: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * The next free chunk. A run that could not be written stops the sort
+	 * here, not only after all input is read.
+	 */
+	private static byte[] takeChunk(BlockingQueue<byte[]> freeChunks, List<Future<Run>> pending)
+			throws InterruptedException, ExecutionException {
+		while(true) {
+			for(Future<Run> run: pending)
+				if(run.isDone())
+					run.get();
+			byte[] chunk = freeChunks.poll(1, TimeUnit.SECONDS);
+			if(chunk!=null)
+				return chunk;
+		}
+	}
+
+	private static InputStream openInput(File file) throws IOException {
+		InputStream in = new FileInputStream(SerializerOutput.getFileName(file.getPath()));
+		if(SerializerOutput.isCompressed())
+			return new GZIPInputStream(in, 64*1024);//Also reads the multi member files of pgzip
+		return in;
+	}
+
+	/*
+	 * Chooses the key ranges of the shards from the sampled subjects and
+	 * merges them in parallel
+	 */
+	private void mergeRuns(File[] output) throws IOException {
+		ArrayList<byte[]> samples = new ArrayList<byte[]>();
+		for(Run run: runs)
+			samples.addAll(run.keys);
+		samples.sort(NTriplesSorter::compare);
+
+		byte[][] bounds = new byte[output.length+1][];//null: open end
+		for(int i=1;i<output.length;i++)
+			bounds[i] = samples.isEmpty() ? null : samples.get((int)((long)samples.size() * i / output.length));
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(nrOfThreads, output.length));
+		List<Future<Void>> shards = new ArrayList<Future<Void>>();
+		for(int i=0;i<output.length;i++) {
+			final byte[] from = bounds[i];
+			final byte[] to = bounds[i+1];
+			final File file = output[i];
+			shards.add(executor.submit(() -> { mergeShard(from, to, file); return null; }));
+		}
+		try {
+			for(Future<Void> shard: shards)
+				shard.get();
+		} catch(InterruptedException e) {
+			throw new IOException("Interrupted while merging", e);
+		} catch(ExecutionException e) {
+			throw new IOException("Could not write sorted shard: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * Writes the triples with subjects from from (inclusive) to to (exclusive)
+	 */
+	private void mergeShard(byte[] from, byte[] to, File file) throws IOException {
+		PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>();
+		List<RunReader> readers = new ArrayList<RunReader>();
+		try {
+			for(int i=0;i<runs.size();i++) {
+				RunReader reader = new RunReader(runs.get(i), i, from, to);
+				readers.add(reader);
+				if(reader.next())
+					queue.add(reader);
+			}
+
+			ByteWriter out = new ByteWriter(SerializerOutput.createChannel(file));
+			while(!queue.isEmpty()) {
+				RunReader reader = queue.poll();
+				out.write(reader.buffer, reader.lineStart, reader.lineEnd - reader.lineStart);
+				if(reader.next())
+					queue.add(reader);
+			}
+			out.close();
+		} finally {
+			for(RunReader reader: readers)
+				reader.close();
+		}
+	}
+
+	//Length of the subject of the line starting at start
+	private static int subjectLength(byte[] data, int start) {
+		int end = start;
+		while(data[end]!=' ')
+			end++;
+		return end - start;
+	}
+
+	private static int compare(byte[] a, int aStart, int aLength, byte[] b, int bStart, int bLength) {
+		int length = Math.min(aLength, bLength);
+		for(int i=0;i<length;i++) {
+			int c = (a[aStart+i] & 0xff) - (b[bStart+i] & 0xff);
+			if(c!=0)
+				return c;
+		}
+		return aLength - bLength;
+	}
+
+	private static int compare(byte[] a, byte[] b) {
+		return compare(a, 0, a.length, b, 0, b.length);
+	}
+
+	/*
+	 * A sorted run file and its sampled subjects
+	 */
+	private static class Run {
+		File file;
+		ArrayList<byte[]> keys = new ArrayList<byte[]>();
+		ArrayList<Long> positions = new ArrayList<Long>();
+	}
+
+	/*
+	 * Sorts a chunk and writes it as run
+	 */
+	private class RunWriter implements Callable<Run> {
+		private byte[] chunk;
+		private int length;
+		private BlockingQueue<byte[]> freeChunks;
+
+		RunWriter(byte[] chunk, int length, BlockingQueue<byte[]> freeChunks) {
+			this.chunk = chunk;
+			this.length = length;
+			this.freeChunks = freeChunks;
+		}
+
+		//The chunk is given back also if the run fails
+		@Override
+		public Run call() throws IOException {
+			try {
+				return writeRun();
+			} finally {
+				freeChunks.add(chunk);
+			}
+		}
+
+		private Run writeRun() throws IOException {
+			int nrOfLines = 0;
+			for(int i=0;i<length;i++)
+				if(chunk[i]=='\n')
+					nrOfLines++;
+			int[] starts = new int[nrOfLines+1];
+			int[] subjectLengths = new int[nrOfLines];
+			for(int i=0, line=0;line<nrOfLines;line++) {
+				starts[line] = i;
+				subjectLengths[line] = subjectLength(chunk, i);
+				while(chunk[i]!='\n')
+					i++;
+				i++;
+			}
+			starts[nrOfLines] = length;
+
+			int[] order = new int[nrOfLines];
+			for(int i=0;i<nrOfLines;i++)
+				order[i] = i;
+			mergeSort(order, new int[nrOfLines], 0, nrOfLines, starts, subjectLengths);
+
+			Run run = new Run();
+			run.file = File.createTempFile("sort", ".run", tempDir);
+			run.file.deleteOnExit();
+			try(OutputStream out = new BufferedOutputStream(new FileOutputStream(run.file), 256*1024)) {
+				long position = 0;
+				for(int i=0;i<nrOfLines;i++) {
+					int line = order[i];
+					int lineLength = starts[line+1] - starts[line];
+					if(i % indexInterval == 0) {
+						run.keys.add(Arrays.copyOfRange(chunk, starts[line], starts[line] + subjectLengths[line]));
+						run.positions.add(position);
+					}
+					out.write(chunk, starts[line], lineLength);
+					position += lineLength;
+				}
+			}
+			return run;
+		}
+
+		//Stable, so the triples of a subject stay in input order
+		private void mergeSort(int[] order, int[] temp, int from, int to, int[] starts, int[] subjectLengths) {
+			if(to - from < 2)
+				return;
+			int middle = (from + to) >>> 1;
+			mergeSort(order, temp, from, middle, starts, subjectLengths);
+			mergeSort(order, temp, middle, to, starts, subjectLengths);
+			int a = from, b = middle, t = from;
+			while(a<middle && b<to) {
+				if(compare(chunk, starts[order[b]], subjectLengths[order[b]], chunk, starts[order[a]], subjectLengths[order[a]]) < 0)
+					temp[t++] = order[b++];
+				else
+					temp[t++] = order[a++];
+			}
+			while(a<middle)
+				temp[t++] = order[a++];
+			while(b<to)
+				temp[t++] = order[b++];
+			System.arraycopy(temp, from, order, from, to - from);
+		}
+	}
+
+	/*
+	 * Reads the lines of a run that have subjects in a key range
+	 */
+	private static class RunReader implements Comparable<RunReader> {
+		private FileChannel channel;
+		private int runNr;
+		private byte[] to;
+		private ByteBuffer bytes = ByteBuffer.allocate(256*1024);
+		byte[] buffer = bytes.array();
+		private int limit = 0;
+		private boolean endOfRun = false;
+		int lineStart = 0;
+		int lineEnd = 0;
+		private int subjectLength;
+		private boolean unread = false;//The current line is the first of the range
+
+		RunReader(Run run, int runNr, byte[] from, byte[] to) throws IOException {
+			this.runNr = runNr;
+			this.to = to;
+			channel = new RandomAccessFile(run.file, "r").getChannel();
+			//Start at the last sampled subject below the range
+			long position = 0;
+			if(from!=null) {
+				for(int i=0;i<run.keys.size() && compare(run.keys.get(i), from)<0;i++)
+					position = run.positions.get(i);
+			}
+			channel.position(position);
+			if(from!=null) {
+				while(readLine()) {
+					if(compare(buffer, lineStart, subjectLength, from, 0, from.length)>=0) {
+						unread = true;
+						break;
+					}
+				}
+			}
+		}
+
+		/*
+		 * Moves to the next line of the range
+		 */
+		boolean next() throws IOException {
+			if(unread)
+				unread = false;
+			else if(!readLine())
+				return false;
+			if(to!=null && compare(buffer, lineStart, subjectLength, to, 0, to.length)>=0)
+				return false;
+			return true;
+		}
+
+		private boolean readLine() throws IOException {
+			lineStart = lineEnd;
+			int end = newline(lineStart);
+			while(end<0) {
+				if(endOfRun)
+					return false;
+				//Move the partial line to the front and fill the buffer
+				int partial = limit - lineStart;
+				if(partial==buffer.length) {
+					bytes = ByteBuffer.allocate(buffer.length*2);
+					System.arraycopy(buffer, lineStart, bytes.array(), 0, partial);
+					buffer = bytes.array();
+				}
+				else
+					System.arraycopy(buffer, lineStart, buffer, 0, partial);
+				lineStart = 0;
+				limit = partial;
+				bytes.clear();
+				bytes.position(limit);
+				int read = channel.read(bytes);
+				if(read<0)
+					endOfRun = true;
+				else
+					limit += read;
+				end = newline(0);
+			}
+			lineEnd = end + 1;
+			subjectLength = subjectLength(buffer, lineStart);
+			return true;
+		}
+
+		private int newline(int from) {
+			for(int i=from;i<limit;i++)
+				if(buffer[i]=='\n')
+					return i;
+			return -1;
+		}
+
+		//By subject, then by run, which keeps the input order
+		@Override
+		public int compareTo(RunReader other) {
+			int c = compare(buffer, lineStart, subjectLength, other.buffer, other.lineStart, other.subjectLength);
+			return c!=0 ? c : runNr - other.runNr;
+		}
+
+		void close() throws IOException {
+			channel.close();
+		}
+	}
+}
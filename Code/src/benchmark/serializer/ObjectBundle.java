@@ -67,13 +67,31 @@ public class ObjectBundle {
 		//Only do this if Serializer is set
 		if(serializer!=null) {
 			serializer.gatherData(this);
-			size=0;
-			objects = new Vector<BSBMResource>(maxSize);
+			clear();
 			return true;
 		}else
 			return false;
 	}
 
+	/*
+	 * Removes the resources, the Vector is kept for the next ones
+	 */
+	public void clear() {
+		objects.clear();
+		size=0;
+	}
+	
+	/*
+	 * Takes over the resources and provenance data of bundle
+	 */
+	public void copyFrom(ObjectBundle bundle) {
+		objects.addAll(bundle.objects);
+		graphName = bundle.graphName;
+		publisher = bundle.publisher;
+		publisherNum = bundle.publisherNum;
+		publishDate = bundle.publishDate;
+	}
+
 	public void setGraphName(String namedGraph) {
 		this.graphName = namedGraph;
 	}
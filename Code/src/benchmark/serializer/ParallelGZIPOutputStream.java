@@ -0,0 +1,127 @@
+package benchmark.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * A gzip output stream that compresses blocks of data in parallel.
+ * Every block becomes a complete gzip member; the members are written in
+ * order. A file of concatenated members is a valid gzip file (RFC 1952),
+ * so gzip, zcat and java.util.zip.GZIPInputStream read it as one stream.
+ */
+public class ParallelGZIPOutputStream extends OutputStream {
+	private static final int blockSize = 1024*1024;
+	private static final int nrOfThreads = Runtime.getRuntime().availableProcessors();
+	//Shared by all streams: compression is CPU bound
+	private static ExecutorService executor = null;
+
+	private OutputStream out;
+	private int level;
+	private byte[] block;
+	private int count;
+	private LinkedList<Future<byte[]>> pending;
+	private boolean closed;
+
+	public ParallelGZIPOutputStream(OutputStream out, int level)
+	{
+		this.out = out;
+		this.level = level;
+		block = new byte[blockSize];
+		count = 0;
+		pending = new LinkedList<Future<byte[]>>();
+		closed = false;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if(executor==null)
+			executor = Executors.newFixedThreadPool(nrOfThreads, r -> {
+				Thread t = new Thread(r, "gzip");
+				t.setDaemon(true);
+				return t;
+			});
+		return executor;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if(count==block.length)
+			submitBlock();
+		block[count++] = (byte)b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while(len>0) {
+			if(count==block.length)
+				submitBlock();
+			int n = Math.min(len, block.length-count);
+			System.arraycopy(b, off, block, count, n);
+			count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	private void submitBlock() throws IOException {
+		if(count==0)
+			return;
+		final byte[] data = block;
+		final int length = count;
+		pending.add(getExecutor().submit(() -> compress(data, length, level)));
+		block = new byte[blockSize];
+		count = 0;
+		//Limit the number of blocks in memory
+		while(pending.size()>2*nrOfThreads)
+			writeMember();
+		//Write out what has already been done
+		while(!pending.isEmpty() && pending.getFirst().isDone())
+			writeMember();
+	}
+
+	private void writeMember() throws IOException {
+		try {
+			out.write(pending.removeFirst().get());
+		} catch(InterruptedException e) {
+			throw new IOException("Interrupted while compressing", e);
+		} catch(ExecutionException e) {
+			throw new IOException("Compression failed", e.getCause());
+		}
+	}
+
+	private static byte[] compress(byte[] data, int length, int level) throws IOException {
+		ByteArrayOutputStream member = new ByteArrayOutputStream(length/3);
+		try(GZIPOutputStream gzip = new GZIPOutputStream(member, 64*1024) { { def.setLevel(level); } }) {
+			gzip.write(data, 0, length);
+		}
+		return member.toByteArray();
+	}
+
+	/*
+	 * Writes all completed members. Buffered data stays until the block is full,
+	 * so flushing does not produce lots of small members.
+	 */
+	@Override
+	public void flush() throws IOException {
+		while(!pending.isEmpty() && pending.getFirst().isDone())
+			writeMember();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(closed)
+			return;
+		closed = true;
+		submitBlock();
+		while(!pending.isEmpty())
+			writeMember();
+		out.close();
+	}
+}
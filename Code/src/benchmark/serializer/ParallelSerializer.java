@@ -0,0 +1,238 @@
+package benchmark.serializer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import benchmark.model.BSBMResource;
+
+/*
+ * Writes to several output files in parallel. Every file (shard) has its own
+ * serializer and its own thread, fed through a bounded queue of bundles.
+ * The resources of the committed bundles are dealt out to the shards one by
+ * one, as the single threaded serializers do for multiple output files, so the
+ * content of every file stays the same.
+ * With SUBJECT_HASH or GRAPH_HASH the shards are partitions instead: every
+ * resource goes to the shard of its subject URI, or every bundle to the shard
+ * of its named graph, see partition().
+ */
+public class ParallelSerializer implements Serializer, Resumable {
+	private static final int queueSize = 16;//Number of bundles waiting per shard
+	private static final ObjectBundle endOfData = new ObjectBundle(null);
+	private static final ObjectBundle checkpointRequest = new ObjectBundle(null);
+
+	public static final int ROUND_ROBIN = 0;
+	public static final int SUBJECT_HASH = 1;
+	public static final int GRAPH_HASH = 2;
+
+	private Serializer[] shards;
+	private ShardWriter[] writers;
+	private int currentShard = 0;
+	private int partitioning;
+
+	public ParallelSerializer(Serializer[] shards)
+	{
+		this(shards, ROUND_ROBIN);
+	}
+
+	public ParallelSerializer(Serializer[] shards, int partitioning)
+	{
+		this.shards = shards;
+		this.partitioning = partitioning;
+		writers = new ShardWriter[shards.length];
+		for(int i=0;i<shards.length;i++) {
+			writers[i] = new ShardWriter(shards[i], i+1);
+			writers[i].start();
+		}
+	}
+
+	@Override
+	public void gatherData(ObjectBundle bundle) {
+		ObjectBundle[] shardBundles = new ObjectBundle[shards.length];
+		for(int i=0;i<shards.length;i++)
+			shardBundles[i] = copyBundleInfo(bundle);
+
+		Iterator<BSBMResource> it = bundle.iterator();
+		if(partitioning==GRAPH_HASH) {
+			ObjectBundle shardBundle = shardBundles[partition(bundle.getGraphName(), shards.length)];
+			while(it.hasNext())
+				shardBundle.add(it.next());
+		}
+		else if(partitioning==SUBJECT_HASH) {
+			while(it.hasNext()) {
+				BSBMResource resource = it.next();
+				shardBundles[partition(resource.toString(), shards.length)].add(resource);
+			}
+		}
+		else {
+			while(it.hasNext()) {
+				shardBundles[currentShard].add(it.next());
+				currentShard = (currentShard + 1) % shards.length;
+			}
+		}
+
+		for(int i=0;i<shards.length;i++)
+			if(shardBundles[i].size()>0)
+				writers[i].put(shardBundles[i]);
+	}
+
+	/*
+	 * An empty bundle with the provenance data of the given bundle
+	 */
+	private static ObjectBundle copyBundleInfo(ObjectBundle bundle) {
+		ObjectBundle copy = new ObjectBundle(null);
+		copy.setGraphName(bundle.getGraphName());
+		copy.setPublisher(bundle.getPublisher());
+		copy.setPublisherNum(bundle.getPublisherNum());
+		copy.setPublishDate(bundle.getPublishDate());
+		return copy;
+	}
+
+	/*
+	 * The partition (0 to nrOfPartitions-1) of the URI ref <uri>: the Java
+	 * String hash code of uri, modulo nrOfPartitions
+	 */
+	public static int partition(String uriRef, int nrOfPartitions) {
+		int hash = 0;
+		for(int i=1;i<uriRef.length()-1;i++)
+			hash = 31*hash + uriRef.charAt(i);
+		return Math.floorMod(hash, nrOfPartitions);
+	}
+
+	@Override
+	public void serialize() {
+		for(ShardWriter writer: writers)
+			writer.put(endOfData);
+
+		for(ShardWriter writer: writers) {
+			try {
+				writer.join();
+			} catch(InterruptedException e) {
+				System.err.println("Interrupted while waiting for output shard " + writer.shardNr);
+				System.exit(-1);
+			}
+		}
+
+		for(Serializer shard: shards)
+			shard.serialize();
+	}
+
+	/*
+	 * State: the current shard, then the length and the state of every shard
+	 */
+	@Override
+	public long[] checkpoint() {
+		for(ShardWriter writer: writers)
+			writer.put(checkpointRequest);
+
+		long[][] shardStates = new long[shards.length][];
+		int length = 1;
+		for(int i=0;i<shards.length;i++) {
+			shardStates[i] = writers[i].takeCheckpoint();
+			length += 1 + shardStates[i].length;
+		}
+
+		long[] state = new long[length];
+		state[0] = currentShard;
+		int pos = 1;
+		for(long[] shardState: shardStates) {
+			state[pos++] = shardState.length;
+			System.arraycopy(shardState, 0, state, pos, shardState.length);
+			pos += shardState.length;
+		}
+		return state;
+	}
+
+	@Override
+	public void resume(long[] state) {
+		currentShard = (int)state[0];
+		int pos = 1;
+		for(Serializer shard: shards) {
+			int length = (int)state[pos++];
+			((Resumable)shard).resume(Arrays.copyOfRange(state, pos, pos+length));
+			pos += length;
+		}
+	}
+
+	/*
+	 * Bundles waiting in the queues of all shards
+	 */
+	public int getQueuedBundles() {
+		int queued = 0;
+		for(ShardWriter writer: writers)
+			queued += writer.queue.size();
+		return queued;
+	}
+
+	public int getQueueCapacity() {
+		return queueSize*writers.length;
+	}
+
+	@Override
+	public Long triplesGenerated() {
+		long nrTriples = 0;
+		for(Serializer shard: shards)
+			nrTriples += shard.triplesGenerated();
+		return nrTriples;
+	}
+
+	/*
+	 * Formats and writes the bundles of one shard
+	 */
+	private static class ShardWriter extends Thread {
+		private Serializer serializer;
+		private BlockingQueue<ObjectBundle> queue;
+		private BlockingQueue<long[]> checkpoints = new ArrayBlockingQueue<long[]>(1);
+		private int shardNr;
+
+		ShardWriter(Serializer serializer, int shardNr) {
+			super("Serializer shard " + shardNr);
+			this.serializer = serializer;
+			this.shardNr = shardNr;
+			queue = new ArrayBlockingQueue<ObjectBundle>(queueSize);
+		}
+
+		void put(ObjectBundle bundle) {
+			try {
+				queue.put(bundle);
+			} catch(InterruptedException e) {
+				System.err.println("Interrupted while writing to output shard " + shardNr);
+				System.exit(-1);
+			}
+		}
+
+		long[] takeCheckpoint() {
+			try {
+				return checkpoints.take();
+			} catch(InterruptedException e) {
+				System.err.println("Interrupted while waiting for output shard " + shardNr);
+				System.exit(-1);
+				return null;
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				while(true) {
+					ObjectBundle bundle = queue.take();
+					if(bundle==endOfData)
+						break;
+					if(bundle==checkpointRequest) {
+						checkpoints.put(((Resumable)serializer).checkpoint());
+						continue;
+					}
+					serializer.gatherData(bundle);
+				}
+			} catch(InterruptedException e) {
+				System.err.println("Output shard " + shardNr + " interrupted");
+				System.exit(-1);
+			} catch(RuntimeException e) {
+				System.err.println("Could not write output shard " + shardNr);
+				e.printStackTrace();
+				System.exit(-1);
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package benchmark.serializer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * The JSON manifest of hash partitioned output (-hash): how the data was
+ * partitioned and for every partition its file, triple count, size and
+ * SHA-256 checksum, so the loader of a shard can find and check its file.
+ * The checksums are computed from the written files, one thread per file.
+ */
+public class PartitionManifest {
+	private String partitioning;
+	private File[] files;
+	private long[] triples;
+
+	/*
+	 * files[i] holds partition i with triples[i] triples
+	 */
+	public PartitionManifest(String partitioning, File[] files, long[] triples)
+	{
+		this.partitioning = partitioning;
+		this.files = files;
+		this.triples = triples;
+	}
+
+	public void write(File manifest) throws IOException {
+		String[] checksums = computeChecksums();
+		long nrTriples = 0;
+		for(long count: triples)
+			nrTriples += count;
+
+		Writer out = new FileWriter(manifest);
+		out.append("{\n");
+		out.append("  \"partitioning\": \"" + partitioning + "\",\n");
+		out.append("  \"hash\": \"Java String.hashCode() of the " + partitioning + " URI, modulo " + files.length + "\",\n");
+		out.append("  \"partitions\": " + files.length + ",\n");
+		out.append("  \"triples\": " + nrTriples + ",\n");
+		out.append("  \"files\": [");
+		String separator = "\n";
+		for(int i=0;i<files.length;i++) {
+			out.append(separator + "    { \"partition\": " + i + ", \"file\": \"" + files[i].getName() + "\", \"triples\": " + triples[i]
+					+ ", \"bytes\": " + files[i].length() + ", \"sha256\": \"" + checksums[i] + "\" }");
+			separator = ",\n";
+		}
+		out.append("\n  ]\n");
+		out.append("}\n");
+		out.close();
+	}
+
+	private String[] computeChecksums() throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(files.length, Runtime.getRuntime().availableProcessors()));
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for(final File file: files)
+				results.add(executor.submit(() -> sha256(file)));
+
+			String[] checksums = new String[files.length];
+			for(int i=0;i<files.length;i++)
+				checksums[i] = results.get(i).get();
+			return checksums;
+		} catch(InterruptedException e) {
+			throw new IOException("Interrupted while computing the checksums");
+		} catch(ExecutionException e) {
+			if(e.getCause() instanceof IOException)
+				throw (IOException)e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static String sha256(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch(NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		byte[] buffer = new byte[1024*1024];
+		try(InputStream in = new FileInputStream(file)) {
+			int n;
+			while((n = in.read(buffer))>0)
+				digest.update(buffer, 0, n);
+		}
+
+		StringBuilder hex = new StringBuilder();
+		for(byte b: digest.digest())
+			hex.append(String.format("%02x", b & 0xff));
+		return hex.toString();
+	}
+}
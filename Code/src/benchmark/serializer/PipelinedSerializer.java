@@ -0,0 +1,138 @@
+package benchmark.serializer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/*
+ * Runs a serializer in its own thread, so generation and serialization overlap.
+ * Committed bundles are copied into one of a fixed number of bundles, which are
+ * handed to the serializer thread and given back after serialization. If all
+ * of them are in use, the generating thread waits.
+ * The serializer sees the bundles in the order of the commits, so the output
+ * is the same as without the pipeline.
+ */
+public class PipelinedSerializer implements Serializer, Resumable {
+	private static final ObjectBundle endOfData = new ObjectBundle(null);
+	private static final ObjectBundle checkpointRequest = new ObjectBundle(null);
+
+	private Serializer serializer;
+	private BlockingQueue<ObjectBundle> freeBundles;
+	private BlockingQueue<ObjectBundle> queue;
+	private BlockingQueue<long[]> checkpoints = new ArrayBlockingQueue<long[]>(1);
+	private Stage stage;
+	private int nrOfBundles;
+
+	/*
+	 * nrOfBundles: the number of bundles in the pipeline
+	 */
+	public PipelinedSerializer(Serializer serializer, int nrOfBundles)
+	{
+		this.serializer = serializer;
+		this.nrOfBundles = nrOfBundles;
+		freeBundles = new ArrayBlockingQueue<ObjectBundle>(nrOfBundles);
+		for(int i=0;i<nrOfBundles;i++)
+			freeBundles.add(new ObjectBundle(null));
+		queue = new ArrayBlockingQueue<ObjectBundle>(nrOfBundles+1);
+		stage = new Stage();
+		stage.start();
+	}
+
+	public Serializer getSerializer() {
+		return serializer;
+	}
+
+	/*
+	 * Bundles waiting for or in serialization, all of them when the serializer
+	 * is the bottleneck
+	 */
+	public int getQueuedBundles() {
+		return nrOfBundles - freeBundles.size();
+	}
+
+	public int getNrOfBundles() {
+		return nrOfBundles;
+	}
+
+	@Override
+	public void gatherData(ObjectBundle bundle) {
+		try {
+			ObjectBundle copy = freeBundles.take();
+			copy.copyFrom(bundle);
+			queue.put(copy);
+		} catch(InterruptedException e) {
+			System.err.println("Interrupted while passing data to the serializer");
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * Waits until all data is serialized. The serializer is finished in its own thread.
+	 */
+	@Override
+	public void serialize() {
+		try {
+			queue.put(endOfData);
+			stage.join();
+		} catch(InterruptedException e) {
+			System.err.println("Interrupted while waiting for the serializer");
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * The serializer thread takes the checkpoint after serializing the bundles before it
+	 */
+	@Override
+	public long[] checkpoint() {
+		try {
+			queue.put(checkpointRequest);
+			return checkpoints.take();
+		} catch(InterruptedException e) {
+			System.err.println("Interrupted while waiting for a checkpoint");
+			System.exit(-1);
+			return null;
+		}
+	}
+
+	@Override
+	public void resume(long[] state) {
+		((Resumable)serializer).resume(state);
+	}
+
+	@Override
+	public Long triplesGenerated() {
+		return serializer.triplesGenerated();
+	}
+
+	private class Stage extends Thread {
+		Stage() {
+			super("Serializer");
+		}
+
+		@Override
+		public void run() {
+			try {
+				while(true) {
+					ObjectBundle bundle = queue.take();
+					if(bundle==endOfData)
+						break;
+					if(bundle==checkpointRequest) {
+						checkpoints.put(((Resumable)serializer).checkpoint());
+						continue;
+					}
+					serializer.gatherData(bundle);
+					bundle.clear();
+					freeBundles.put(bundle);
+				}
+				serializer.serialize();
+			} catch(InterruptedException e) {
+				System.err.println("Serializer interrupted");
+				System.exit(-1);
+			} catch(RuntimeException e) {
+				System.err.println("Could not serialize data");
+				e.printStackTrace();
+				System.exit(-1);
+			}
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package benchmark.serializer;
+
+/*
+ * A serializer whose output can be continued after an interrupted run.
+ * The state is what the serializer needs to continue its files, e.g. the
+ * file positions and the number of triples written.
+ */
+public interface Resumable {
+	/*
+	 * Writes out all data gathered so far, forced to the disk, and returns the
+	 * state of the output
+	 */
+	public long[] checkpoint();
+	
+	/*
+	 * Continues the output at a state returned by checkpoint(). Called before any data is gathered.
+	 */
+	public void resume(long[] state);
+}
@@ -1,6 +1,6 @@
 package benchmark.serializer;
 
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
@@ -259,12 +259,12 @@ public class SQLSerializer implements Serializer {
 		
 	
 		//propertyNum
-		Integer[] ppn = product.getProductPropertyNumeric();
+		int[] ppn = product.getProductPropertyNumeric();
 		for(Integer i=0,j=1;i<ppn.length;i++,j++)
 		{
-			Integer value = ppn[i];
-			if(value!=null)
-				values.append(value.toString() + ",");
+			int value = ppn[i];
+			if(value!=0)
+				values.append(Integer.toString(value) + ",");
 			else
 				values.append("null,");
 		}
@@ -281,12 +281,12 @@ public class SQLSerializer implements Serializer {
 		}
 		
 		//productFeatureProduct
-		Iterator<Integer> pf = product.getFeatures().iterator();
-		while(pf.hasNext())
+		int[] pf = product.getFeatures();
+		for(int i=0;i<pf.length;i++)
 		{
 			StringBuffer valuesPFP = getBuffer(tables.productFeatureProductInsertCounter++, "productfeatureproduct");
 			valuesPFP.append("(");
-			Integer value = pf.next();
+			int value = pf[i];
 
 			valuesPFP.append(product.getNr());
 			valuesPFP.append("," + value);
@@ -552,11 +552,14 @@ public class SQLSerializer implements Serializer {
 		values.append("',");
 		
 		//ratings
-		Integer[] ratings = review.getRatings();
+		int[] ratings = review.getRatings();
 		for(int i=0;i<ratings.length;i++)
 		{
-			Integer value = ratings[i];
-			values.append(value);
+			int value = ratings[i];
+			if(value!=0)
+				values.append(value);
+			else
+				values.append("null");
 			values.append(",");
 		}
 		
@@ -632,17 +635,20 @@ public class SQLSerializer implements Serializer {
 		return nrTriples;
 	}
 
-	private class SQLTables {
-		FileWriter offerDump;
-		FileWriter vendorDump;
-		FileWriter productFeatureDump;
-		FileWriter productDump;
-		FileWriter producerDump;
-		FileWriter productTypeProductDump;
-		FileWriter personDump;
-		FileWriter productTypeDump;
-		FileWriter reviewDump;
-		FileWriter productFeatureProductDump;
+	/*
+	 * Output files and DDL of the tables, the DDL is shared with BulkLoadSerializer
+	 */
+	static class SQLTables {
+		Writer offerDump;
+		Writer vendorDump;
+		Writer productFeatureDump;
+		Writer productDump;
+		Writer producerDump;
+		Writer productTypeProductDump;
+		Writer personDump;
+		Writer productTypeDump;
+		Writer reviewDump;
+		Writer productFeatureProductDump;
 		
 		int offerInsertCounter;
 		int vendorInsertCounter;
@@ -655,10 +661,13 @@ public class SQLSerializer implements Serializer {
 		int reviewInsertCounter;
 		int productFeatureProductInsertCounter;
 		
-		SQLTables() {
+		private String database;
+		
+		SQLTables(String database) {
+			this.database = database;
 		}
 		
-		private String createTable(String database, String tableName, String tableDefinition) {
+		String createTable(String database, String tableName, String tableDefinition) {
 			StringBuffer sb = new StringBuffer(100);
 			sb.append("CREATE DATABASE IF NOT EXISTS `" + database + "` DEFAULT CHARACTER SET utf8;\n\n");
 			sb.append("USE `" + database + "`;\n\n");
@@ -672,7 +681,7 @@ public class SQLSerializer implements Serializer {
 			return sb.toString();
 		}
 		
-		private String endTable(int counter, String tableName) {
+		String endTable(int counter, String tableName) {
 			String s = "";
 			if(counter>0)
 				s = ";";
@@ -682,7 +691,7 @@ public class SQLSerializer implements Serializer {
 			return s;
 		}
 		
-		private String initProductType() {
+		String initProductType() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `label` varchar(100) character set utf8 collate utf8_bin default NULL,\n" +
 						"  `comment` varchar(2000) character set utf8 collate utf8_bin default NULL,\n" +
@@ -693,7 +702,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "producttype", tableDefinition);
 		}
 		
-		private String initProductFeature() {
+		String initProductFeature() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `label` varchar(100) character set utf8 collate utf8_bin default NULL,\n" +
 						"  `comment` varchar(2000) character set utf8 collate utf8_bin default NULL,\n" +
@@ -703,7 +712,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "productfeature", tableDefinition);
 		}
 		
-		private String initProducer() {
+		String initProducer() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `label` varchar(100) character set utf8 collate utf8_bin default NULL,\n" +
 						"  `comment` varchar(2000) character set utf8 collate utf8_bin default NULL,\n" +
@@ -715,7 +724,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "producer", tableDefinition);
 		}
 		
-		private String initProduct() {
+		String initProduct() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `label` varchar(100) character set utf8 collate utf8_bin default NULL,\n" +
 						"  `comment` varchar(2000) character set utf8 collate utf8_bin default NULL,\n" +
@@ -739,7 +748,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "product", tableDefinition);
 		}
 		
-		private String initProductTypeProduct() {
+		String initProductTypeProduct() {
 			String tableDefinition = "  `product` int(11) not null,\n" +
 									 "  `productType` int(11) not null,\n" +
 									 "  PRIMARY KEY (product, productType)\n";
@@ -748,7 +757,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "producttypeproduct", tableDefinition);
 		}
 		
-		private String initProductFeatureProduct() {
+		String initProductFeatureProduct() {
 			String tableDefinition = "  `product` int(11) not null,\n" +
 									 "  `productFeature` int(11) not null,\n" +
 									 "  PRIMARY KEY (product, productFeature)\n";
@@ -757,7 +766,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "productfeatureproduct", tableDefinition);
 		}
 		
-		private String initVendor() {
+		String initVendor() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `label` varchar(100) character set utf8 collate utf8_bin default NULL,\n" +
 						"  `comment` varchar(2000) character set utf8 collate utf8_bin default NULL,\n" +
@@ -769,7 +778,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "vendor", tableDefinition);
 		}
 		
-		private String initOffer() {
+		String initOffer() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `product` int (11),\n" +
 						"  `producer` int (11),\n" +
@@ -787,7 +796,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "offer", tableDefinition);
 		}
 		
-		private String initPerson() {
+		String initPerson() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `name` varchar(30) character set utf8 collate utf8_bin default NULL,\n" +
 						"  `mbox_sha1sum` char(40) character set utf8 collate utf8_bin default NULL,\n" +
@@ -798,7 +807,7 @@ public class SQLSerializer implements Serializer {
 			return createTable(database, "person", tableDefinition);
 		}
 		
-		private String initReview() {
+		String initReview() {
 			String tableDefinition = "  `nr` int(11) primary key,\n" +
 						"  `product` int (11),\n" +
 						"  `producer` int (11),\n" +
@@ -825,7 +834,7 @@ public class SQLSerializer implements Serializer {
 	}
 	
 	private void initTables() {
-		tables = new SQLTables();
+		tables = new SQLTables(database);
 		tables.offerInsertCounter=0;
 		tables.vendorInsertCounter=0;
 		tables.productFeatureInsertCounter=0;
@@ -838,16 +847,16 @@ public class SQLSerializer implements Serializer {
 		tables.productFeatureProductInsertCounter=0;
 		
 		try {
-		tables.offerDump = new FileWriter(new File(outputDir, "08Offer.sql"));
-		tables.vendorDump = new FileWriter(new File(outputDir, "07Vendor.sql"));
-		tables.productFeatureDump = new FileWriter(new File(outputDir, "01ProductFeature.sql"));
-		tables.productDump = new FileWriter(new File(outputDir, "04Product.sql"));
-		tables.producerDump = new FileWriter(new File(outputDir, "03Producer.sql"));
-		tables.productTypeProductDump = new FileWriter(new File(outputDir, "05ProductTypeProduct.sql"));
-		tables.personDump = new FileWriter(new File(outputDir, "09Person.sql"));
-		tables.productTypeDump = new FileWriter(new File(outputDir, "02ProductType.sql"));
-		tables.reviewDump = new FileWriter(new File(outputDir, "10Review.sql"));
-		tables.productFeatureProductDump = new FileWriter(new File(outputDir, "06ProductFeatureProduct.sql"));
+		tables.offerDump = SerializerOutput.createWriter(new File(outputDir, "08Offer.sql"));
+		tables.vendorDump = SerializerOutput.createWriter(new File(outputDir, "07Vendor.sql"));
+		tables.productFeatureDump = SerializerOutput.createWriter(new File(outputDir, "01ProductFeature.sql"));
+		tables.productDump = SerializerOutput.createWriter(new File(outputDir, "04Product.sql"));
+		tables.producerDump = SerializerOutput.createWriter(new File(outputDir, "03Producer.sql"));
+		tables.productTypeProductDump = SerializerOutput.createWriter(new File(outputDir, "05ProductTypeProduct.sql"));
+		tables.personDump = SerializerOutput.createWriter(new File(outputDir, "09Person.sql"));
+		tables.productTypeDump = SerializerOutput.createWriter(new File(outputDir, "02ProductType.sql"));
+		tables.reviewDump = SerializerOutput.createWriter(new File(outputDir, "10Review.sql"));
+		tables.productFeatureProductDump = SerializerOutput.createWriter(new File(outputDir, "06ProductFeatureProduct.sql"));
 		
 		tables.productTypeDump.append(tables.initProductType());
 		tables.productFeatureDump.append(tables.initProductFeature());
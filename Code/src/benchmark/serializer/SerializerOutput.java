@@ -0,0 +1,230 @@
+package benchmark.serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Opens the output files of the serializers, optionally compressed.
+ * Compressed files get the suffix ".gz".
+ * The bytes written to the files are counted, in total and per file, for the
+ * progress reports.
+ */
+public class SerializerOutput {
+	public static final String NONE = "none";
+	public static final String GZIP = "gzip";
+	public static final String PARALLEL_GZIP = "pgzip";//Block parallel, multi member gzip
+
+	private static String compression = NONE;
+	private static int level = Deflater.DEFAULT_COMPRESSION;
+	private static boolean resume = false;//Keep the content of existing files
+	private static boolean discard = false;//Format and count, but write nothing (microbenchmarks)
+	private static final LongAdder bytesWritten = new LongAdder();
+	private static final Map<String, LongAdder> fileBytesWritten = Collections.synchronizedMap(new LinkedHashMap<String, LongAdder>());
+
+	/*
+	 * Set compression method (none, gzip, pgzip) and level (0-9, -1 for the default level)
+	 */
+	public static void setCompression(String method, int compressionLevel) {
+		String m = method.toLowerCase();
+		if(!m.equals(NONE) && !m.equals(GZIP) && !m.equals(PARALLEL_GZIP))
+			throw new IllegalArgumentException("Unknown compression: " + method);
+		if(compressionLevel<-1 || compressionLevel>9)
+			throw new IllegalArgumentException("Illegal compression level: " + compressionLevel);
+		compression = m;
+		level = compressionLevel;
+	}
+
+	/*
+	 * Open the files of an interrupted run without truncating them, see Resumable
+	 */
+	public static void setResume(boolean resumeFiles) {
+		resume = resumeFiles;
+	}
+
+	public static boolean isResume() {
+		return resume;
+	}
+
+	/*
+	 * Let the output streams and channels of new files drop the data instead
+	 * of writing it, so formatting and compression can be measured without
+	 * the disk. No files are created.
+	 */
+	public static void setDiscard(boolean discardOutput) {
+		discard = discardOutput;
+	}
+
+	public static boolean isCompressed() {
+		return !compression.equals(NONE);
+	}
+
+	/*
+	 * The file name as written, i.e. with the compression suffix
+	 */
+	public static String getFileName(String fileName) {
+		if(isCompressed())
+			return fileName + ".gz";
+		return fileName;
+	}
+
+	/*
+	 * Bytes written to all output files so far, after compression
+	 */
+	public static long getBytesWritten() {
+		return bytesWritten.sum();
+	}
+
+	/*
+	 * Bytes written so far by file name, in the order the files were created
+	 */
+	public static Map<String, Long> getBytesWrittenPerFile() {
+		Map<String, Long> bytes = new LinkedHashMap<String, Long>();
+		synchronized(fileBytesWritten) {
+			for(Map.Entry<String, LongAdder> entry: fileBytesWritten.entrySet())
+				bytes.put(entry.getKey(), entry.getValue().sum());
+		}
+		return bytes;
+	}
+
+	private static LongAdder getFileCounter(String fileName) {
+		return fileBytesWritten.computeIfAbsent(fileName, name -> new LongAdder());
+	}
+
+	/*
+	 * Counts the bytes written through a channel the caller opened itself, as
+	 * the files of createChannel() under fileName
+	 */
+	public static WritableByteChannel count(FileChannel channel, String fileName) {
+		return new CountingChannel(channel, getFileCounter(fileName));
+	}
+
+	public static OutputStream createOutputStream(File file) throws IOException {
+		String fileName = getFileName(file.getPath());
+		OutputStream out = new CountingOutputStream(discard ? new NullOutputStream() : new FileOutputStream(fileName), getFileCounter(fileName));
+		if(compression.equals(GZIP))
+			return new GZIPOutputStream(out, 64*1024) { { def.setLevel(level); } };
+		else if(compression.equals(PARALLEL_GZIP))
+			return new ParallelGZIPOutputStream(new BufferedOutputStream(out, 64*1024), level);
+		return out;
+	}
+
+	/*
+	 * A file channel, or a channel to the compressing stream
+	 */
+	public static WritableByteChannel createChannel(File file) throws IOException {
+		if(isCompressed() || discard)
+			return Channels.newChannel(createOutputStream(file));
+		if(resume)
+			return count(new RandomAccessFile(file, "rw").getChannel(), file.getPath());
+		return count(new FileOutputStream(file).getChannel(), file.getPath());
+	}
+
+	/*
+	 * The file channel behind a channel of createChannel(), null for a compressed file
+	 */
+	static FileChannel getFileChannel(WritableByteChannel channel) {
+		if(channel instanceof CountingChannel)
+			return ((CountingChannel)channel).file;
+		if(channel instanceof FileChannel)
+			return (FileChannel)channel;
+		return null;
+	}
+
+	/*
+	 * A writer in the platform encoding, as FileWriter does
+	 */
+	public static Writer createWriter(File file) throws IOException {
+		return new OutputStreamWriter(createOutputStream(file));
+	}
+
+	public static Writer createWriter(String fileName) throws IOException {
+		return createWriter(new File(fileName));
+	}
+
+	/*
+	 * A writer of a file that is never compressed, e.g. a script that names
+	 * the compressed files
+	 */
+	public static Writer createUncompressedWriter(File file) throws IOException {
+		return new OutputStreamWriter(new CountingOutputStream(discard ? new NullOutputStream() : new FileOutputStream(file),
+				getFileCounter(file.getPath())));
+	}
+
+	private static class CountingChannel implements WritableByteChannel {
+		private final FileChannel file;
+		private final LongAdder fileBytes;
+
+		CountingChannel(FileChannel file, LongAdder fileBytes) {
+			this.file = file;
+			this.fileBytes = fileBytes;
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			int n = file.write(src);
+			bytesWritten.add(n);
+			fileBytes.add(n);
+			return n;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return file.isOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			file.close();
+		}
+	}
+
+	private static class CountingOutputStream extends FilterOutputStream {
+		private final LongAdder fileBytes;
+
+		CountingOutputStream(OutputStream out, LongAdder fileBytes) {
+			super(out);
+			this.fileBytes = fileBytes;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			bytesWritten.increment();
+			fileBytes.increment();
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			bytesWritten.add(len);
+			fileBytes.add(len);
+		}
+	}
+
+	private static class NullOutputStream extends OutputStream {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	}
+}
@@ -0,0 +1,375 @@
+package benchmark.serializer;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+
+import benchmark.model.BSBMResource;
+import benchmark.model.Offer;
+import benchmark.model.Person;
+import benchmark.model.Producer;
+import benchmark.model.Product;
+import benchmark.model.ProductFeature;
+import benchmark.model.ProductType;
+import benchmark.model.Review;
+import benchmark.model.Vendor;
+import benchmark.vocabulary.BSBM;
+import benchmark.vocabulary.DC;
+import benchmark.vocabulary.FOAF;
+import benchmark.vocabulary.RDF;
+import benchmark.vocabulary.RDFS;
+import benchmark.vocabulary.REV;
+
+/*
+ * Counts the triples of the dataset per predicate, per class and per subject
+ * class and predicate while passing the bundles on to the serializer. The counts
+ * are those of the N-Triples output, without the provenance triples of the named
+ * graph model.
+ * At the end a statistics file for the TDB optimizer (stats.opt, as written by
+ * tdbstats) and a JSON summary with all counts are written.
+ */
+public class StatisticsSerializer implements Serializer {
+	//Subject classes
+	private static final int PRODUCT_TYPE = 0;
+	private static final int PRODUCT_FEATURE = 1;
+	private static final int PRODUCER = 2;
+	private static final int PRODUCT = 3;
+	private static final int VENDOR = 4;
+	private static final int OFFER = 5;
+	private static final int PERSON = 6;
+	private static final int REVIEW = 7;
+	private static final String[] classes = { BSBM.ProductType, BSBM.ProductFeature, BSBM.Producer, BSBM.Product,
+		BSBM.Vendor, BSBM.Offer, FOAF.Person, REV.Review };
+
+	private Serializer serializer;
+	private boolean forwardChaining;
+	private File statsFile;
+	private File summaryFile;
+
+	private long nrTriples;
+	private ArrayList<String> predicates = new ArrayList<String>();
+	private long[] predicateCounts = new long[64];
+	private long[][] classPredicateCounts = new long[classes.length][64];
+	private long[] classCounts = new long[classes.length];
+	private long[] productTypeCounts = new long[64];//Products typed with ProductType<nr>, by nr
+
+	private final int rdfType = predicate(RDF.type);
+	private final int rdfsLabel = predicate(RDFS.label);
+	private final int rdfsComment = predicate(RDFS.comment);
+	private final int rdfsSubClassOf = predicate(RDFS.subClassOf);
+	private final int dcPublisher = predicate(DC.publisher);
+	private final int dcDate = predicate(DC.date);
+	private final int dcTitle = predicate(DC.title);
+	private final int foafName = predicate(FOAF.name);
+	private final int foafMbox_sha1sum = predicate(FOAF.mbox_sha1sum);
+	private final int foafHomepage = predicate(FOAF.homepage);
+	private final int bsbmCountry = predicate(BSBM.country);
+	private final int bsbmProduct = predicate(BSBM.product);
+	private final int bsbmVendor = predicate(BSBM.vendor);
+	private final int bsbmPrice = predicate(BSBM.price);
+	private final int bsbmValidFrom = predicate(BSBM.validFrom);
+	private final int bsbmValidTo = predicate(BSBM.validTo);
+	private final int bsbmDeliveryDays = predicate(BSBM.deliveryDays);
+	private final int bsbmOfferWebpage = predicate(BSBM.offerWebpage);
+	private final int bsbmProducer = predicate(BSBM.producer);
+	private final int bsbmProductFeature = predicate(BSBM.productFeature);
+	private final int bsbmReviewFor = predicate(BSBM.reviewFor);
+	private final int bsbmReviewDate = predicate(BSBM.reviewDate);
+	private final int revReviewer = predicate(REV.reviewer);
+	private final int revText = predicate(REV.text);
+	//Numbered predicates like bsbm:rating1, registered when first used
+	private int[] bsbmProductPropertyNumeric = new int[0];
+	private int[] bsbmProductPropertyTextual = new int[0];
+	private int[] bsbmRating = new int[0];
+
+	/*
+	 * statsFile: the TDB statistics, summaryFile: the JSON summary
+	 */
+	public StatisticsSerializer(Serializer serializer, boolean forwardChaining, String statsFile, String summaryFile)
+	{
+		this.serializer = serializer;
+		this.forwardChaining = forwardChaining;
+		this.statsFile = new File(statsFile);
+		this.summaryFile = new File(summaryFile);
+	}
+
+	@Override
+	public void gatherData(ObjectBundle bundle) {
+		Iterator<BSBMResource> it = bundle.iterator();
+		while(it.hasNext()) {
+			BSBMResource obj = it.next();
+			if(obj instanceof ProductType)
+				countProductType((ProductType)obj);
+			else if(obj instanceof Offer)
+				countOffer();
+			else if(obj instanceof Product)
+				countProduct((Product)obj);
+			else if(obj instanceof Person)
+				countPerson();
+			else if(obj instanceof Producer)
+				countProducer();
+			else if(obj instanceof ProductFeature)
+				countProductFeature();
+			else if(obj instanceof Vendor)
+				countVendor();
+			else if(obj instanceof Review)
+				countReview((Review)obj);
+		}
+		serializer.gatherData(bundle);
+	}
+
+	private void countProductType(ProductType pType) {
+		instance(PRODUCT_TYPE);
+		count(PRODUCT_TYPE, rdfsLabel);
+		count(PRODUCT_TYPE, rdfsComment);
+		if(pType.getParent()!=null)
+			count(PRODUCT_TYPE, rdfsSubClassOf);
+		count(PRODUCT_TYPE, dcPublisher);
+		count(PRODUCT_TYPE, dcDate);
+	}
+
+	private void countOffer() {
+		instance(OFFER);
+		count(OFFER, bsbmProduct);
+		count(OFFER, bsbmVendor);
+		count(OFFER, bsbmPrice);
+		count(OFFER, bsbmValidFrom);
+		count(OFFER, bsbmValidTo);
+		count(OFFER, bsbmDeliveryDays);
+		count(OFFER, bsbmOfferWebpage);
+		count(OFFER, dcPublisher);
+		count(OFFER, dcDate);
+	}
+
+	private void countProduct(Product product) {
+		instance(PRODUCT);
+		count(PRODUCT, rdfsLabel);
+		count(PRODUCT, rdfsComment);
+		if(forwardChaining) {
+			for(ProductType pt=product.getProductType();pt!=null;pt=pt.getParent())
+				productTypeInstance(pt.getNr());
+		}
+		else
+			productTypeInstance(product.getProductType().getNr());
+		count(PRODUCT, bsbmProducer);
+
+		int[] ppn = product.getProductPropertyNumeric();
+		for(int i=0;i<ppn.length;i++)
+			if(ppn[i]!=0) {
+				bsbmProductPropertyNumeric = numberedPredicates(bsbmProductPropertyNumeric, i+1);
+				count(PRODUCT, bsbmProductPropertyNumeric[i]);
+			}
+		String[] ppt = product.getProductPropertyTextual();
+		for(int i=0;i<ppt.length;i++)
+			if(ppt[i]!=null) {
+				bsbmProductPropertyTextual = numberedPredicates(bsbmProductPropertyTextual, i+1);
+				count(PRODUCT, bsbmProductPropertyTextual[i]);
+			}
+
+		for(int i=product.getFeatures().length;i>0;i--)
+			count(PRODUCT, bsbmProductFeature);
+		count(PRODUCT, dcPublisher);
+		count(PRODUCT, dcDate);
+	}
+
+	private void countPerson() {
+		instance(PERSON);
+		count(PERSON, foafName);
+		count(PERSON, foafMbox_sha1sum);
+		count(PERSON, bsbmCountry);
+		count(PERSON, dcPublisher);
+		count(PERSON, dcDate);
+	}
+
+	private void countProducer() {
+		instance(PRODUCER);
+		count(PRODUCER, rdfsLabel);
+		count(PRODUCER, rdfsComment);
+		count(PRODUCER, foafHomepage);
+		count(PRODUCER, bsbmCountry);
+		count(PRODUCER, dcPublisher);
+		count(PRODUCER, dcDate);
+	}
+
+	private void countProductFeature() {
+		instance(PRODUCT_FEATURE);
+		count(PRODUCT_FEATURE, rdfsLabel);
+		count(PRODUCT_FEATURE, rdfsComment);
+		count(PRODUCT_FEATURE, dcPublisher);
+		count(PRODUCT_FEATURE, dcDate);
+	}
+
+	private void countVendor() {
+		instance(VENDOR);
+		count(VENDOR, rdfsLabel);
+		count(VENDOR, rdfsComment);
+		count(VENDOR, foafHomepage);
+		count(VENDOR, bsbmCountry);
+		count(VENDOR, dcPublisher);
+		count(VENDOR, dcDate);
+	}
+
+	private void countReview(Review review) {
+		instance(REVIEW);
+		count(REVIEW, bsbmReviewFor);
+		count(REVIEW, revReviewer);
+		count(REVIEW, bsbmReviewDate);
+		count(REVIEW, dcTitle);
+		count(REVIEW, revText);
+		int[] ratings = review.getRatings();
+		for(int i=0;i<ratings.length;i++)
+			if(ratings[i]!=0) {
+				bsbmRating = numberedPredicates(bsbmRating, i+1);
+				count(REVIEW, bsbmRating[i]);
+			}
+		count(REVIEW, dcPublisher);
+		count(REVIEW, dcDate);
+	}
+
+	private void count(int subjectClass, int predicate) {
+		predicateCounts[predicate]++;
+		classPredicateCounts[subjectClass][predicate]++;
+		nrTriples++;
+	}
+
+	//The rdf:type triple of a subject of the class
+	private void instance(int subjectClass) {
+		classCounts[subjectClass]++;
+		count(subjectClass, rdfType);
+	}
+
+	//An rdf:type triple of a product with a product type
+	private void productTypeInstance(int productTypeNr) {
+		if(productTypeNr>=productTypeCounts.length)
+			productTypeCounts = Arrays.copyOf(productTypeCounts, Math.max(productTypeNr+1, productTypeCounts.length*2));
+		productTypeCounts[productTypeNr]++;
+		count(PRODUCT, rdfType);
+	}
+
+	private int predicate(String uri) {
+		int predicate = predicates.size();
+		predicates.add(uri);
+		if(predicate==predicateCounts.length) {
+			predicateCounts = Arrays.copyOf(predicateCounts, predicateCounts.length*2);
+			for(int i=0;i<classes.length;i++)
+				classPredicateCounts[i] = Arrays.copyOf(classPredicateCounts[i], predicateCounts.length);
+		}
+		return predicate;
+	}
+
+	//The predicates numbered 1 to nr of the family
+	private int[] numberedPredicates(int[] family, int nr) {
+		if(family.length>=nr)
+			return family;
+		int[] ids = Arrays.copyOf(family, nr);
+		for(int j=family.length+1;j<=nr;j++) {
+			if(family==bsbmRating)
+				ids[j-1] = predicate(BSBM.getRating(j));
+			else if(family==bsbmProductPropertyNumeric)
+				ids[j-1] = predicate(BSBM.getProductPropertyNumeric(j));
+			else
+				ids[j-1] = predicate(BSBM.getProductPropertyTextual(j));
+		}
+		return ids;
+	}
+
+	@Override
+	public void serialize() {
+		serializer.serialize();
+		try {
+			writeStats();
+			writeSummary();
+		} catch(IOException e) {
+			System.err.println("Could not write dataset statistics.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * The format of tdbstats: triple count, predicate counts and the counts
+	 * of rdf:type triples per class as weighted patterns
+	 */
+	private void writeStats() throws IOException {
+		Date now = new Date();
+		Writer out = new FileWriter(statsFile);
+		out.append("(prefix ((rdf: <" + RDF.NS + ">)\n");
+		out.append("         (xsd: <http://www.w3.org/2001/XMLSchema#>))\n");
+		out.append("  (stats\n");
+		out.append("    (meta\n");
+		out.append("      (timestamp \"" + new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").format(now) + "\"^^xsd:dateTime)\n");
+		out.append("      (run@ \"" + new SimpleDateFormat("yyyy/MM/dd HH:mm:ss").format(now) + "\")\n");
+		out.append("      (count " + nrTriples + "))\n");
+		for(int i=0;i<predicates.size();i++)
+			if(predicateCounts[i]>0)
+				out.append("    (<" + predicates.get(i) + "> " + predicateCounts[i] + ")\n");
+		for(int i=0;i<classes.length;i++)
+			if(classCounts[i]>0)
+				out.append("    ((VAR rdf:type <" + classes[i] + ">) " + classCounts[i] + ")\n");
+		for(int nr=0;nr<productTypeCounts.length;nr++)
+			if(productTypeCounts[nr]>0)
+				out.append("    ((VAR rdf:type " + ProductType.getURIRef(nr) + ") " + productTypeCounts[nr] + ")\n");
+		out.append("    (other 0)\n");
+		out.append("  ))\n");
+		out.close();
+	}
+
+	private void writeSummary() throws IOException {
+		Writer out = new FileWriter(summaryFile);
+		out.append("{\n");
+		out.append("  \"triples\": " + nrTriples + ",\n");
+
+		out.append("  \"predicates\": {");
+		String separator = "\n";
+		for(int i=0;i<predicates.size();i++)
+			if(predicateCounts[i]>0) {
+				out.append(separator + "    \"" + predicates.get(i) + "\": " + predicateCounts[i]);
+				separator = ",\n";
+			}
+		out.append("\n  },\n");
+
+		out.append("  \"classes\": {");
+		separator = "\n";
+		for(int i=0;i<classes.length;i++)
+			if(classCounts[i]>0) {
+				out.append(separator + "    \"" + classes[i] + "\": " + classCounts[i]);
+				separator = ",\n";
+			}
+		for(int nr=0;nr<productTypeCounts.length;nr++)
+			if(productTypeCounts[nr]>0) {
+				String uri = ProductType.getURIRef(nr);
+				out.append(separator + "    \"" + uri.substring(1, uri.length()-1) + "\": " + productTypeCounts[nr]);
+				separator = ",\n";
+			}
+		out.append("\n  },\n");
+
+		out.append("  \"classPredicates\": {");
+		String classSeparator = "\n";
+		for(int c=0;c<classes.length;c++) {
+			if(classCounts[c]==0)
+				continue;
+			out.append(classSeparator + "    \"" + classes[c] + "\": {");
+			separator = "\n";
+			for(int i=0;i<predicates.size();i++)
+				if(classPredicateCounts[c][i]>0) {
+					out.append(separator + "      \"" + predicates.get(i) + "\": " + classPredicateCounts[c][i]);
+					separator = ",\n";
+				}
+			out.append("\n    }");
+			classSeparator = ",\n";
+		}
+		out.append("\n  }\n");
+		out.append("}\n");
+		out.close();
+	}
+
+	@Override
+	public Long triplesGenerated() {
+		return serializer.triplesGenerated();
+	}
+}
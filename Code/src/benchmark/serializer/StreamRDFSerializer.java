@@ -0,0 +1,395 @@
+package benchmark.serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Vector;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+
+import benchmark.generator.DateGenerator;
+import benchmark.generator.Generator;
+import benchmark.model.*;
+import benchmark.vocabulary.*;
+
+/*
+ * Sends the triples to a Jena StreamRDF, written in any format Jena can
+ * stream, e.g. RDF Thrift (binary) or N-Quads.
+ * The triples are the same as those of the N-Triples serializer.
+ * Instead of a writer any other StreamRDF can be used, e.g. a DatasetLoader
+ * to load a TDB database directly.
+ */
+public class StreamRDFSerializer implements Serializer {
+	private StreamRDF stream;
+	private OutputStream output;
+	private boolean forwardChaining;
+	private long nrTriples;
+
+	//Predicates
+	private final Node rdfType = NodeFactory.createURI(RDF.type);
+	private final Node rdfsLabel = NodeFactory.createURI(RDFS.label);
+	private final Node rdfsComment = NodeFactory.createURI(RDFS.comment);
+	private final Node rdfsSubClassOf = NodeFactory.createURI(RDFS.subClassOf);
+	private final Node dcPublisher = NodeFactory.createURI(DC.publisher);
+	private final Node dcDate = NodeFactory.createURI(DC.date);
+	private final Node dcTitle = NodeFactory.createURI(DC.title);
+	private final Node foafName = NodeFactory.createURI(FOAF.name);
+	private final Node foafMbox_sha1sum = NodeFactory.createURI(FOAF.mbox_sha1sum);
+	private final Node foafHomepage = NodeFactory.createURI(FOAF.homepage);
+	private final Node bsbmCountry = NodeFactory.createURI(BSBM.country);
+	private final Node bsbmProduct = NodeFactory.createURI(BSBM.product);
+	private final Node bsbmVendor = NodeFactory.createURI(BSBM.vendor);
+	private final Node bsbmPrice = NodeFactory.createURI(BSBM.price);
+	private final Node bsbmValidFrom = NodeFactory.createURI(BSBM.validFrom);
+	private final Node bsbmValidTo = NodeFactory.createURI(BSBM.validTo);
+	private final Node bsbmDeliveryDays = NodeFactory.createURI(BSBM.deliveryDays);
+	private final Node bsbmOfferWebpage = NodeFactory.createURI(BSBM.offerWebpage);
+	private final Node bsbmProducer = NodeFactory.createURI(BSBM.producer);
+	private final Node bsbmProductFeature = NodeFactory.createURI(BSBM.productFeature);
+	private final Node bsbmReviewFor = NodeFactory.createURI(BSBM.reviewFor);
+	private final Node bsbmReviewDate = NodeFactory.createURI(BSBM.reviewDate);
+	private final Node revReviewer = NodeFactory.createURI(REV.reviewer);
+	private final Node revText = NodeFactory.createURI(REV.text);
+	private final Vector<Node> bsbmProductPropertyNumeric = new Vector<Node>();
+	private final Vector<Node> bsbmProductPropertyTextual = new Vector<Node>();
+	private final Vector<Node> bsbmRating = new Vector<Node>();
+
+	//Classes
+	private final Node bsbmProductType = NodeFactory.createURI(BSBM.ProductType);
+	private final Node bsbmOffer = NodeFactory.createURI(BSBM.Offer);
+	private final Node bsbmProductClass = NodeFactory.createURI(BSBM.Product);
+	private final Node bsbmProducerClass = NodeFactory.createURI(BSBM.Producer);
+	private final Node bsbmProductFeatureClass = NodeFactory.createURI(BSBM.ProductFeature);
+	private final Node bsbmVendorClass = NodeFactory.createURI(BSBM.Vendor);
+	private final Node foafPerson = NodeFactory.createURI(FOAF.Person);
+	private final Node revReview = NodeFactory.createURI(REV.Review);
+
+	//Datatypes
+	private final RDFDatatype bsbmUSD = TypeMapper.getInstance().getSafeTypeByName(BSBM.USD);
+
+	/*
+	 * file: the file name without suffix; the suffix is the first file extension of the format.
+	 * format: a Jena language name (e.g. RDF-THRIFT, N-Quads) or file extension (e.g. rt, nq)
+	 */
+	public StreamRDFSerializer(String file, String format, boolean forwardChaining)
+	{
+		Lang lang = getLang(format);
+		if(lang==null || !StreamRDFWriter.registered(lang)) {
+			System.err.println("No streaming Jena writer for format: " + format);
+			System.exit(-1);
+		}
+
+		try {
+			output = new BufferedOutputStream(SerializerOutput.createOutputStream(new File(file + "." + lang.getFileExtensions().get(0))), 64*1024);
+		} catch(IOException e) {
+			System.err.println("Could not open File for writing.");
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+
+		stream = StreamRDFWriter.getWriterStream(output, lang);
+		start(forwardChaining);
+	}
+
+	/*
+	 * Sends the triples to the given stream, e.g. a DatasetLoader
+	 */
+	public StreamRDFSerializer(StreamRDF stream, boolean forwardChaining)
+	{
+		this.stream = stream;
+		output = null;
+		start(forwardChaining);
+	}
+
+	/*
+	 * Loads the triples into the TDB database (version 1 or 2) in the directory location
+	 */
+	public static StreamRDFSerializer createTDB(String location, int version, boolean forwardChaining) {
+		return new StreamRDFSerializer(DatasetLoader.createTDB(location, version), forwardChaining);
+	}
+
+	private void start(boolean forwardChaining) {
+		stream.start();
+		addPrefix(RDF.PREFIX, RDF.NS);
+		addPrefix(RDFS.PREFIX, RDFS.NS);
+		addPrefix(FOAF.PREFIX, FOAF.NS);
+		addPrefix(DC.PREFIX, DC.NS);
+		addPrefix(XSD.PREFIX, XSD.NS);
+		addPrefix(REV.PREFIX, REV.NS);
+		addPrefix(BSBM.PREFIX, BSBM.NS);
+		addPrefix(BSBM.INST_PREFIX, BSBM.INST_NS);
+
+		this.forwardChaining = forwardChaining;
+		nrTriples = 0l;
+	}
+
+	public static Lang getLang(String format) {
+		Lang lang = RDFLanguages.nameToLang(format);
+		if(lang==null)
+			lang = RDFLanguages.fileExtToLang(format);
+		return lang;
+	}
+
+	//Prefixes of the vocabularies are like "bsbm:"
+	private void addPrefix(String prefix, String namespace) {
+		stream.prefix(prefix.substring(0, prefix.length()-1), namespace);
+	}
+
+	@Override
+	public void gatherData(ObjectBundle bundle) {
+		Iterator<BSBMResource> it = bundle.iterator();
+
+		while(it.hasNext())
+		{
+			BSBMResource obj = it.next();
+			if(obj instanceof ProductType){
+				convertProductType((ProductType)obj);
+			}
+			else if(obj instanceof Offer){
+				convertOffer((Offer)obj);
+			}
+			else if(obj instanceof Product){
+				convertProduct((Product)obj);
+			}
+			else if(obj instanceof Person){
+				convertPerson((Person)obj);
+			}
+			else if(obj instanceof Producer){
+				convertProducer((Producer)obj);
+			}
+			else if(obj instanceof ProductFeature){
+				convertProductFeature((ProductFeature)obj);
+			}
+			else if(obj instanceof Vendor){
+				convertVendor((Vendor)obj);
+			}
+			else if(obj instanceof Review){
+				convertReview((Review)obj);
+			}
+		}
+	}
+
+	private void convertProductType(ProductType pType)
+	{
+		Node subject = uriref(pType.toString());
+
+		triple(subject, rdfType, bsbmProductType);
+		triple(subject, rdfsLabel, literal(pType.getLabel()));
+		triple(subject, rdfsComment, literal(pType.getComment()));
+		if(pType.getParent()!=null)
+			triple(subject, rdfsSubClassOf, uriref(pType.getParent().toString()));
+		triple(subject, dcPublisher, NodeFactory.createURI(BSBM.getStandardizationInstitution(1)));
+		triple(subject, dcDate, dateLiteral(pType.getPublishDate()));
+	}
+
+	private void convertOffer(Offer offer)
+	{
+		Node subject = uriref(offer.toString());
+		Node vendor = uriref(Vendor.getURIref(offer.getVendor()));
+
+		triple(subject, rdfType, bsbmOffer);
+		int productNr = offer.getProduct();
+		int producerNr = Generator.getProducerOfProduct(productNr);
+		triple(subject, bsbmProduct, uriref(Product.getURIref(productNr, producerNr)));
+		triple(subject, bsbmVendor, vendor);
+		triple(subject, bsbmPrice, NodeFactory.createLiteral(offer.getPriceString(), bsbmUSD));
+		triple(subject, bsbmValidFrom, dateTimeLiteral(offer.getValidFrom()));
+		triple(subject, bsbmValidTo, dateTimeLiteral(offer.getValidTo()));
+		triple(subject, bsbmDeliveryDays, integerLiteral(offer.getDeliveryDays()));
+		triple(subject, bsbmOfferWebpage, NodeFactory.createURI(offer.getOfferWebpage()));
+		triple(subject, dcPublisher, vendor);
+		triple(subject, dcDate, dateLiteral(offer.getPublishDate()));
+	}
+
+	private void convertProduct(Product product)
+	{
+		Node subject = uriref(product.toString());
+		Node producer = uriref(Producer.getURIref(product.getProducer()));
+
+		triple(subject, rdfType, bsbmProductClass);
+		triple(subject, rdfsLabel, literal(product.getLabel()));
+		triple(subject, rdfsComment, literal(product.getComment()));
+
+		//bsbm:productType
+		if(forwardChaining) {
+			ProductType pt = product.getProductType();
+			while(pt!=null) {
+				triple(subject, rdfType, uriref(pt.toString()));
+				pt = pt.getParent();
+			}
+		}
+		else
+			triple(subject, rdfType, uriref(product.getProductType().toString()));
+
+		triple(subject, bsbmProducer, producer);
+
+		int[] ppn = product.getProductPropertyNumeric();
+		for(int i=0,j=1;i<ppn.length;i++,j++)
+		{
+			if(ppn[i]!=0)
+				triple(subject, predicate(bsbmProductPropertyNumeric, j), integerLiteral(ppn[i]));
+		}
+
+		String[] ppt = product.getProductPropertyTextual();
+		for(int i=0,j=1;i<ppt.length;i++,j++)
+		{
+			if(ppt[i]!=null)
+				triple(subject, predicate(bsbmProductPropertyTextual, j), NodeFactory.createLiteral(ppt[i], XSDDatatype.XSDstring));
+		}
+
+		int[] features = product.getFeatures();
+		for(int i=0;i<features.length;i++)
+			triple(subject, bsbmProductFeature, uriref(ProductFeature.getURIref(features[i])));
+
+		triple(subject, dcPublisher, producer);
+		triple(subject, dcDate, dateLiteral(product.getPublishDate()));
+	}
+
+	private void convertPerson(Person person)
+	{
+		Node subject = uriref(person.toString());
+
+		triple(subject, rdfType, foafPerson);
+		triple(subject, foafName, literal(person.getName()));
+		triple(subject, foafMbox_sha1sum, literal(person.getMbox_sha1sum()));
+		triple(subject, bsbmCountry, NodeFactory.createURI(ISO3166.find(person.getCountryCode())));
+		triple(subject, dcPublisher, uriref(RatingSite.getURIref(person.getPublisher())));
+		triple(subject, dcDate, dateLiteral(person.getPublishDate()));
+	}
+
+	private void convertProducer(Producer producer)
+	{
+		Node subject = uriref(producer.toString());
+
+		triple(subject, rdfType, bsbmProducerClass);
+		triple(subject, rdfsLabel, literal(producer.getLabel()));
+		triple(subject, rdfsComment, literal(producer.getComment()));
+		triple(subject, foafHomepage, NodeFactory.createURI(producer.getHomepage()));
+		triple(subject, bsbmCountry, NodeFactory.createURI(ISO3166.find(producer.getCountryCode())));
+		triple(subject, dcPublisher, subject);
+		triple(subject, dcDate, dateLiteral(producer.getPublishDate()));
+	}
+
+	private void convertProductFeature(ProductFeature pf)
+	{
+		Node subject = uriref(pf.toString());
+
+		triple(subject, rdfType, bsbmProductFeatureClass);
+		triple(subject, rdfsLabel, literal(pf.getLabel()));
+		triple(subject, rdfsComment, literal(pf.getComment()));
+		triple(subject, dcPublisher, NodeFactory.createURI(BSBM.getStandardizationInstitution(pf.getPublisher())));
+		triple(subject, dcDate, dateLiteral(pf.getPublishDate()));
+	}
+
+	private void convertVendor(Vendor vendor)
+	{
+		Node subject = uriref(vendor.toString());
+
+		triple(subject, rdfType, bsbmVendorClass);
+		triple(subject, rdfsLabel, literal(vendor.getLabel()));
+		triple(subject, rdfsComment, literal(vendor.getComment()));
+		triple(subject, foafHomepage, NodeFactory.createURI(vendor.getHomepage()));
+		triple(subject, bsbmCountry, NodeFactory.createURI(ISO3166.find(vendor.getCountryCode())));
+		triple(subject, dcPublisher, subject);
+		triple(subject, dcDate, dateLiteral(vendor.getPublishDate()));
+	}
+
+	private void convertReview(Review review)
+	{
+		Node subject = uriref(review.toString());
+
+		triple(subject, rdfType, revReview);
+		triple(subject, bsbmReviewFor, uriref(Product.getURIref(review.getProduct(), review.getProducerOfProduct())));
+		triple(subject, revReviewer, uriref(Person.getURIref(review.getPerson(), review.getPublisher())));
+		triple(subject, bsbmReviewDate, dateTimeLiteral(review.getReviewDate()));
+		triple(subject, dcTitle, literal(review.getTitle()));
+		triple(subject, revText, NodeFactory.createLiteral(review.getText(), ISO3166.language[review.getLanguage()]));
+
+		int[] ratings = review.getRatings();
+		for(int i=0,j=1;i<ratings.length;i++,j++)
+		{
+			if(ratings[i]!=0)
+				triple(subject, predicate(bsbmRating, j), integerLiteral(ratings[i]));
+		}
+
+		triple(subject, dcPublisher, uriref(RatingSite.getURIref(review.getPublisher())));
+		triple(subject, dcDate, dateLiteral(review.getPublishDate()));
+	}
+
+	private void triple(Node subject, Node predicate, Node object)
+	{
+		stream.triple(Triple.create(subject, predicate, object));
+		nrTriples++;
+	}
+
+	//Node of an uriref of the model, i.e. "<uri>"
+	private static Node uriref(String uriref)
+	{
+		return NodeFactory.createURI(uriref.substring(1, uriref.length()-1));
+	}
+
+	private static Node literal(String value)
+	{
+		return NodeFactory.createLiteral(value);
+	}
+
+	private static Node integerLiteral(int value)
+	{
+		return NodeFactory.createLiteral(Integer.toString(value), XSDDatatype.XSDinteger);
+	}
+
+	private static Node dateLiteral(long date)
+	{
+		return NodeFactory.createLiteral(DateGenerator.formatDate(date), XSDDatatype.XSDdate);
+	}
+
+	private static Node dateTimeLiteral(long date)
+	{
+		return NodeFactory.createLiteral(DateGenerator.formatDateTime(date), XSDDatatype.XSDdateTime);
+	}
+
+	//Numbered predicates like bsbm:rating1, created when first used
+	private Node predicate(Vector<Node> predicates, int nr)
+	{
+		while(predicates.size()<nr) {
+			int next = predicates.size()+1;
+			if(predicates==bsbmRating)
+				predicates.add(NodeFactory.createURI(BSBM.getRating(next)));
+			else if(predicates==bsbmProductPropertyNumeric)
+				predicates.add(NodeFactory.createURI(BSBM.getProductPropertyNumeric(next)));
+			else
+				predicates.add(NodeFactory.createURI(BSBM.getProductPropertyTextual(next)));
+		}
+		return predicates.get(nr-1);
+	}
+
+	@Override
+	public void serialize() {
+		stream.finish();
+		if(output==null)
+			return;
+		try {
+			output.flush();
+			output.close();
+		} catch(IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	@Override
+	public Long triplesGenerated() {
+		return nrTriples;
+	}
+}
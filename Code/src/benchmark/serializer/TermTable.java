@@ -0,0 +1,119 @@
+package benchmark.serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * The terms of a dictionary by id (1, 2, ...), kept off the heap: the terms
+ * are copied into a temporary file that is mapped into memory when the
+ * first term is looked up. The heap only holds the end offset of every term,
+ * in pages, so the number of terms is not limited to an int. Every get reads
+ * the term from the mapping again, callers cache the terms they need often.
+ */
+class TermTable implements Closeable {
+	private static final int pageBits = 20;
+	private static final int pageMask = (1 << pageBits) - 1;
+	private static final int segmentBits = 30;
+	private static final long segmentMask = (1L << segmentBits) - 1;
+
+	private File file;
+	private OutputStream out;
+	private long[][] ends = new long[16][];//ends[id]: the end offset of term id, ends[0] = 0
+	private long nrTerms = 0;
+	private long size = 0;
+	private ByteBuffer[] segments;
+
+	/*
+	 * The temporary file is created in directory, null for the default
+	 */
+	public TermTable(File directory) throws IOException {
+		file = File.createTempFile("terms", ".tmp", directory);
+		file.deleteOnExit();
+		out = new BufferedOutputStream(new FileOutputStream(file), 64*1024);
+		setEnd(0, 0);
+	}
+
+	/*
+	 * Adds the next term, ids have to come in order
+	 */
+	public void add(long id, byte[] bytes, int offset, int length) throws IOException {
+		if(segments!=null)
+			throw new IllegalStateException("Terms added after the first lookup");
+		if(id!=nrTerms+1)
+			throw new IOException("Term " + id + " after term " + nrTerms);
+		out.write(bytes, offset, length);
+		size += length;
+		setEnd(id, size);
+		nrTerms = id;
+	}
+
+	public long size() {
+		return nrTerms;
+	}
+
+	public byte[] get(long id) throws IOException {
+		if(segments==null)
+			map();
+		if(id<1 || id>nrTerms)
+			throw new IOException("Unknown term id " + id);
+		long start = end(id-1);
+		byte[] term = new byte[(int)(end(id) - start)];
+		int copied = 0;
+		while(copied<term.length) {
+			long position = start + copied;
+			ByteBuffer segment = segments[(int)(position >>> segmentBits)].duplicate();
+			segment.position((int)(position & segmentMask));
+			int length = Math.min(term.length - copied, segment.remaining());
+			segment.get(term, copied, length);
+			copied += length;
+		}
+		return term;
+	}
+
+	/*
+	 * Maps the file in segments of 1 GiB, a term may span two of them
+	 */
+	private void map() throws IOException {
+		out.close();
+		segments = new ByteBuffer[(int)((size + segmentMask) >>> segmentBits)];
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			for(int i=0;i<segments.length;i++) {
+				long position = (long)i << segmentBits;
+				MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position,
+						Math.min(size - position, 1L << segmentBits));
+				segments[i] = segment;
+			}
+		}
+	}
+
+	private long end(long id) {
+		return ends[(int)(id >>> pageBits)][(int)(id & pageMask)];
+	}
+
+	private void setEnd(long id, long end) {
+		int page = (int)(id >>> pageBits);
+		if(page>=ends.length) {
+			long[][] newEnds = new long[ends.length*2][];
+			System.arraycopy(ends, 0, newEnds, 0, ends.length);
+			ends = newEnds;
+		}
+		if(ends[page]==null)
+			ends[page] = new long[1 << pageBits];
+		ends[page][(int)(id & pageMask)] = end;
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+		segments = null;
+		file.delete();
+	}
+}
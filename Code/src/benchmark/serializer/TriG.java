@@ -15,7 +15,7 @@ public class TriG implements Serializer {
 	private long nrTriples;
 	private File provenanceFile;
 	private File dataFile;
-	private FileWriter prefixFileWriter;
+	private Writer prefixFileWriter;
 	
 	public TriG(String file, boolean forwardChaining)
 	{
@@ -24,7 +24,7 @@ public class TriG implements Serializer {
 			this.provenanceFile.deleteOnExit();
 			this.provenanceGraphWriter = new FileWriter(provenanceFile);
 			
-			this.prefixFileWriter = new FileWriter(file);
+			this.prefixFileWriter = SerializerOutput.createWriter(file);
 			
 			this.dataFile = File.createTempFile("BSBM", ".data");
 			this.dataFile.deleteOnExit();
@@ -272,7 +272,7 @@ public class TriG implements Serializer {
 		//bsbm:deliveryDays
 		result.append(createTriplePO(
 				BSBM.prefixed("deliveryDays"),
-				createDataTypeLiteral(offer.getDeliveryDays().toString(), XSD.prefixed("integer"))));
+				createDataTypeLiteral(Integer.toString(offer.getDeliveryDays()), XSD.prefixed("integer"))));
 		
 		//bsbm:offerWebpage
 		result.append(createTriplePOEnd(
@@ -326,14 +326,14 @@ public class TriG implements Serializer {
 		}
 		
 		//bsbm:productPropertyNumeric
-		Integer[] ppn = product.getProductPropertyNumeric();
+		int[] ppn = product.getProductPropertyNumeric();
 		for(int i=0,j=1;i<ppn.length;i++,j++)
 		{
-			Integer value = ppn[i];
-			if(value!=null)
+			int value = ppn[i];
+			if(value!=0)
 				result.append(createTriplePO(
 						BSBM.getProductPropertyNumericPrefix(j),
-						createDataTypeLiteral(value.toString(), XSD.prefixed("integer"))));
+						createDataTypeLiteral(Integer.toString(value), XSD.prefixed("integer"))));
 		}
 
 		//bsbm:productPropertyTextual
@@ -348,10 +348,10 @@ public class TriG implements Serializer {
 		}
 		
 		//bsbm:productFeature
-		Iterator<Integer> pf = product.getFeatures().iterator();
-		while(pf.hasNext())
+		int[] pf = product.getFeatures();
+		for(int i=0;i<pf.length;i++)
 		{
-			Integer value = pf.next();
+			int value = pf[i];
 			result.append(createTriplePO(
 					BSBM.prefixed("productFeature"),
 					ProductFeature.getPrefixed(value)));
@@ -549,14 +549,14 @@ public class TriG implements Serializer {
 				createLanguageLiteral(review.getText(),ISO3166.language[review.getLanguage()])));
 		
 		//bsbm:ratingX
-		Integer[] ratings = review.getRatings();
+		int[] ratings = review.getRatings();
 		for(int i=0,j=1;i<ratings.length;i++,j++)
 		{
-			Integer value = ratings[i];
-			if(value!=null)
+			int value = ratings[i];
+			if(value!=0)
 				result.append(createTriplePO(
 						BSBM.getRatingPrefix(j),
-						createDataTypeLiteral(value.toString(), XSD.prefixed("integer"))));
+						createDataTypeLiteral(Integer.toString(value), XSD.prefixed("integer"))));
 		}
 		
 		//bsbm:reviewDate
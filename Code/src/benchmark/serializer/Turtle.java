@@ -9,7 +9,7 @@ import benchmark.generator.*;
 import java.io.*;
 
 public class Turtle implements Serializer {
-	private FileWriter[] dataFileWriter;
+	private Writer[] dataFileWriter;
 	private boolean forwardChaining;
 	private long nrTriples;
 	private boolean haveToGeneratePrefixes = true;
@@ -25,12 +25,12 @@ public class Turtle implements Serializer {
 		int nrOfDigits = ((int)Math.log10(nrOfOutputFiles)) + 1;
 		String formatString = "%0" + nrOfDigits + "d";
 		try{
-			dataFileWriter = new FileWriter[nrOfOutputFiles];
+			dataFileWriter = new Writer[nrOfOutputFiles];
 			if(nrOfOutputFiles==1)
-				this.dataFileWriter[0] = new FileWriter(file + ".ttl");
+				this.dataFileWriter[0] = SerializerOutput.createWriter(file + ".ttl");
 			else
 				for(int i=1;i<=nrOfOutputFiles;i++)
-					dataFileWriter[i-1] = new FileWriter(file + String.format(formatString, i) + ".ttl");
+					dataFileWriter[i-1] = SerializerOutput.createWriter(file + String.format(formatString, i) + ".ttl");
 				
 		} catch(IOException e){
 			System.err.println("Could not open File for writing.");
@@ -268,7 +268,7 @@ public class Turtle implements Serializer {
 		//bsbm:deliveryDays
 		result.append(createTriplePO(
 				BSBM.prefixed("deliveryDays"),
-				createDataTypeLiteral(offer.getDeliveryDays().toString(), XSD.prefixed("integer"))));
+				createDataTypeLiteral(Integer.toString(offer.getDeliveryDays()), XSD.prefixed("integer"))));
 		
 		//bsbm:offerWebpage
 		result.append(createTriplePO(
@@ -335,14 +335,14 @@ public class Turtle implements Serializer {
 		}
 		
 		//bsbm:productPropertyNumeric
-		Integer[] ppn = product.getProductPropertyNumeric();
+		int[] ppn = product.getProductPropertyNumeric();
 		for(int i=0,j=1;i<ppn.length;i++,j++)
 		{
-			Integer value = ppn[i];
-			if(value!=null)
+			int value = ppn[i];
+			if(value!=0)
 				result.append(createTriplePO(
 						BSBM.getProductPropertyNumericPrefix(j),
-						createDataTypeLiteral(value.toString(), XSD.prefixed("integer"))));
+						createDataTypeLiteral(Integer.toString(value), XSD.prefixed("integer"))));
 		}
 
 		//bsbm:productPropertyTextual
@@ -357,10 +357,10 @@ public class Turtle implements Serializer {
 		}
 		
 		//bsbm:productFeature
-		Iterator<Integer> pf = product.getFeatures().iterator();
-		while(pf.hasNext())
+		int[] pf = product.getFeatures();
+		for(int i=0;i<pf.length;i++)
 		{
-			Integer value = pf.next();
+			int value = pf[i];
 			result.append(createTriplePO(
 					BSBM.prefixed("productFeature"),
 					ProductFeature.getPrefixed(value)));
@@ -623,14 +623,14 @@ public class Turtle implements Serializer {
 				createLanguageLiteral(review.getText(),ISO3166.language[review.getLanguage()])));
 		
 		//bsbm:ratingX
-		Integer[] ratings = review.getRatings();
+		int[] ratings = review.getRatings();
 		for(int i=0,j=1;i<ratings.length;i++,j++)
 		{
-			Integer value = ratings[i];
-			if(value!=null)
+			int value = ratings[i];
+			if(value!=0)
 				result.append(createTriplePO(
 						BSBM.getRatingPrefix(j),
-						createDataTypeLiteral(value.toString(), XSD.prefixed("integer"))));
+						createDataTypeLiteral(Integer.toString(value), XSD.prefixed("integer"))));
 		}
 		
 		//bsbm:reviewDate
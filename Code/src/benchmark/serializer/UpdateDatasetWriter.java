@@ -0,0 +1,175 @@
+package benchmark.serializer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import benchmark.model.BSBMResource;
+
+/*
+ * Writes the update dataset in N-Triples: the resources of every update product,
+ * in product order, with a separator after each transaction.
+ * The resources of a product are generated at different times (product, offers,
+ * reviews), so they are formatted right away and appended to a spill file.
+ * Every record ends with its length and the position of the previous record of
+ * the same product, so only the position of the last record per product is
+ * kept in memory. serialize() follows these chains to write the update dataset.
+ * A resumable writer keeps its spill file as file.nt.spill until the end.
+ */
+public class UpdateDatasetWriter implements Resumable {
+	private static final int trailerSize = 12;//Length (int) and previous record (long)
+
+	private File file;
+	private File spillFile;
+	private ByteWriter spill;
+	private NTriples formatter;
+	private ObjectBundle bundle;
+	private long[] lastRecord;//Spill file position after the last record of each product, -1: none
+	private int nrOfProductsPerTransaction;
+	private String transactionSeparator;
+	private ByteBuffer trailer;
+
+	/*
+	 * nrOfProducts: the number of products in the update dataset, numbered from 0
+	 */
+	public UpdateDatasetWriter(String file, boolean forwardChaining, int nrOfProducts, int nrOfProductsPerTransaction, String transactionSeparator)
+	{
+		this(file, forwardChaining, nrOfProducts, nrOfProductsPerTransaction, transactionSeparator, false);
+	}
+	
+	public UpdateDatasetWriter(String file, boolean forwardChaining, int nrOfProducts, int nrOfProductsPerTransaction, String transactionSeparator,
+			boolean resumable)
+	{
+		this.file = new File(file + ".nt");
+		this.nrOfProductsPerTransaction = nrOfProductsPerTransaction;
+		this.transactionSeparator = transactionSeparator;
+		//The spill file is counted as the update dataset, the copy at the end is not counted again
+		try {
+			if(resumable) {
+				spillFile = new File(this.file.getPath() + ".spill");
+				if(SerializerOutput.isResume())
+					spill = new ByteWriter(SerializerOutput.count(new RandomAccessFile(spillFile, "rw").getChannel(), this.file.getPath()));
+				else
+					spill = new ByteWriter(SerializerOutput.count(new FileOutputStream(spillFile).getChannel(), this.file.getPath()));
+			}
+			else {
+				spillFile = File.createTempFile(this.file.getName(), ".spill", this.file.getAbsoluteFile().getParentFile());
+				spillFile.deleteOnExit();
+				spill = new ByteWriter(SerializerOutput.count(new FileOutputStream(spillFile).getChannel(), this.file.getPath()));
+			}
+		} catch(IOException e) {
+			System.err.println("Could not create spill file for the update dataset.\n" + e.getMessage());
+			System.exit(-1);
+		}
+		formatter = new NTriples(spill, forwardChaining);
+		bundle = new ObjectBundle(null);
+		lastRecord = new long[nrOfProducts];
+		Arrays.fill(lastRecord, -1);
+		trailer = ByteBuffer.allocate(trailerSize);
+	}
+
+	/*
+	 * Adds a resource of the update product productIndex
+	 */
+	public void add(int productIndex, BSBMResource res) {
+		try {
+			long start = spill.getPosition();
+			bundle.add(res);
+			formatter.gatherData(bundle);
+			bundle.clear();
+
+			trailer.clear();
+			trailer.putInt((int)(spill.getPosition() - start));
+			trailer.putLong(lastRecord[productIndex]);
+			spill.write(trailer.array());
+			lastRecord[productIndex] = spill.getPosition();
+		} catch(IOException e) {
+			System.err.println("Could not write spill file for the update dataset.\n" + e.getMessage());
+			System.exit(-1);
+		}
+	}
+
+	/*
+	 * Writes the update dataset file and deletes the spill file
+	 */
+	public void serialize() {
+		try {
+			spill.close();
+			ByteWriter out = new ByteWriter(new FileOutputStream(file).getChannel());
+			RandomAccessFile input = new RandomAccessFile(spillFile, "r");
+			FileChannel channel = input.getChannel();
+			ByteBuffer record = ByteBuffer.allocate(64*1024);
+			long[] records = new long[16];
+
+			for(int product=0;product<lastRecord.length;product++) {
+				//Collect the record ends of the product, last record first
+				int nrOfRecords = 0;
+				long position = lastRecord[product];
+				while(position!=-1) {
+					if(nrOfRecords==records.length)
+						records = Arrays.copyOf(records, records.length*2);
+					records[nrOfRecords++] = position;
+					readFully(channel, trailer, position - trailerSize, trailerSize);
+					trailer.getInt();
+					position = trailer.getLong();
+				}
+
+				for(int i=nrOfRecords-1;i>=0;i--) {
+					readFully(channel, trailer, records[i] - trailerSize, trailerSize);
+					int length = trailer.getInt();
+					if(length>record.capacity())
+						record = ByteBuffer.allocate(length);
+					readFully(channel, record, records[i] - trailerSize - length, length);
+					out.write(record.array(), 0, length);
+				}
+
+				if((product+1) % nrOfProductsPerTransaction == 0)
+					out.write(transactionSeparator);
+			}
+
+			input.close();
+			out.close();
+		} catch(IOException e) {
+			System.err.println("Could not write update dataset.\n" + e.getMessage());
+			System.exit(-1);
+		}
+		spillFile.delete();
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+		buffer.clear();
+		buffer.limit(length);
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer, position + buffer.position())<0)
+				throw new IOException("Unexpected end of spill file");
+		}
+		buffer.flip();
+	}
+
+	/*
+	 * State: number of triples, spill file position, last record of every product
+	 */
+	@Override
+	public long[] checkpoint() {
+		long[] formatterState = formatter.checkpoint();
+		long[] state = new long[2+lastRecord.length];
+		state[0] = formatterState[0];
+		state[1] = formatterState[2];
+		System.arraycopy(lastRecord, 0, state, 2, lastRecord.length);
+		return state;
+	}
+
+	@Override
+	public void resume(long[] state) {
+		formatter.resume(new long[] { state[0], 0, state[1] });
+		System.arraycopy(state, 2, lastRecord, 0, lastRecord.length);
+	}
+
+	public Long triplesGenerated() {
+		return formatter.triplesGenerated();
+	}
+}
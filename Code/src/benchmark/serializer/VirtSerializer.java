@@ -1,6 +1,6 @@
 package benchmark.serializer;
 
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
@@ -257,12 +257,12 @@ public class VirtSerializer implements Serializer {
 		
 	
 		//propertyNum
-		Integer[] ppn = product.getProductPropertyNumeric();
+		int[] ppn = product.getProductPropertyNumeric();
 		for(Integer i=0,j=1;i<ppn.length;i++,j++)
 		{
-			Integer value = ppn[i];
-			if(value!=null)
-				values.append(value.toString() + ",");
+			int value = ppn[i];
+			if(value!=0)
+				values.append(Integer.toString(value) + ",");
 			else
 				values.append("null,");
 		}
@@ -279,12 +279,12 @@ public class VirtSerializer implements Serializer {
 		}
 		
 		//productFeatureProduct
-		Iterator<Integer> pf = product.getFeatures().iterator();
-		while(pf.hasNext())
+		int[] pf = product.getFeatures();
+		for(int i=0;i<pf.length;i++)
 		{
 			StringBuffer valuesPFP = getBuffer(tables.productFeatureProductInsertCounter++, "ProductFeatureProduct");
 			valuesPFP.append("(");
-			Integer value = pf.next();
+			int value = pf[i];
 
 			valuesPFP.append(product.getNr());
 			valuesPFP.append("," + value);
@@ -550,11 +550,14 @@ public class VirtSerializer implements Serializer {
 		values.append("',");
 		
 		//ratings
-		Integer[] ratings = review.getRatings();
+		int[] ratings = review.getRatings();
 		for(int i=0;i<ratings.length;i++)
 		{
-			Integer value = ratings[i];
-			values.append(value);
+			int value = ratings[i];
+			if(value!=0)
+				values.append(value);
+			else
+				values.append("null");
 			values.append(",");
 		}
 		
@@ -621,16 +624,16 @@ public class VirtSerializer implements Serializer {
 	}
 
 	private static class SQLTables {
-		FileWriter offerDump;
-		FileWriter vendorDump;
-		FileWriter productFeatureDump;
-		FileWriter productDump;
-		FileWriter producerDump;
-		FileWriter productTypeProductDump;
-		FileWriter personDump;
-		FileWriter productTypeDump;
-		FileWriter reviewDump;
-		FileWriter productFeatureProductDump;
+		Writer offerDump;
+		Writer vendorDump;
+		Writer productFeatureDump;
+		Writer productDump;
+		Writer producerDump;
+		Writer productTypeProductDump;
+		Writer personDump;
+		Writer productTypeDump;
+		Writer reviewDump;
+		Writer productFeatureProductDump;
 		
 		int offerInsertCounter;
 		int vendorInsertCounter;
@@ -661,16 +664,16 @@ public class VirtSerializer implements Serializer {
 		tables.productFeatureProductInsertCounter=0;
 		
 		try {
-		tables.offerDump = new FileWriter(new File(outputDir, "08Offer.sql"));
-		tables.vendorDump = new FileWriter(new File(outputDir, "07Vendor.sql"));
-		tables.productFeatureDump = new FileWriter(new File(outputDir, "01ProductFeature.sql"));
-		tables.productDump = new FileWriter(new File(outputDir, "04Product.sql"));
-		tables.producerDump = new FileWriter(new File(outputDir, "03Producer.sql"));
-		tables.productTypeProductDump = new FileWriter(new File(outputDir, "05ProductTypeProduct.sql"));
-		tables.personDump = new FileWriter(new File(outputDir, "09Person.sql"));
-		tables.productTypeDump = new FileWriter(new File(outputDir, "02ProductType.sql"));
-		tables.reviewDump = new FileWriter(new File(outputDir, "10Review.sql"));
-		tables.productFeatureProductDump = new FileWriter(new File(outputDir, "06ProductFeatureProduct.sql"));
+		tables.offerDump = SerializerOutput.createWriter(new File(outputDir, "08Offer.sql"));
+		tables.vendorDump = SerializerOutput.createWriter(new File(outputDir, "07Vendor.sql"));
+		tables.productFeatureDump = SerializerOutput.createWriter(new File(outputDir, "01ProductFeature.sql"));
+		tables.productDump = SerializerOutput.createWriter(new File(outputDir, "04Product.sql"));
+		tables.producerDump = SerializerOutput.createWriter(new File(outputDir, "03Producer.sql"));
+		tables.productTypeProductDump = SerializerOutput.createWriter(new File(outputDir, "05ProductTypeProduct.sql"));
+		tables.personDump = SerializerOutput.createWriter(new File(outputDir, "09Person.sql"));
+		tables.productTypeDump = SerializerOutput.createWriter(new File(outputDir, "02ProductType.sql"));
+		tables.reviewDump = SerializerOutput.createWriter(new File(outputDir, "10Review.sql"));
+		tables.productFeatureProductDump = SerializerOutput.createWriter(new File(outputDir, "06ProductFeatureProduct.sql"));
 				
 		} catch(IOException e) {
 			e.printStackTrace();
@@ -1,6 +1,6 @@
 package benchmark.serializer;
 
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
@@ -19,14 +19,14 @@ import benchmark.vocabulary.ISO3166;
 
 
 public class XMLSerializer implements Serializer {
-	private FileWriter fileWriter;
+	private Writer fileWriter;
 	private boolean forwardChaining;
 	private long nrTriples;
 	private static final String spacePrefix = "  ";
 	
 	public XMLSerializer(String file, boolean forwardChaining) {
 		try{
-			fileWriter = new FileWriter(file);
+			fileWriter = SerializerOutput.createWriter(file);
 		} catch(IOException e){
 			System.err.println("Could not open File for writing.");
 			System.err.println(e.getMessage());
@@ -177,10 +177,10 @@ public class XMLSerializer implements Serializer {
 	{
 		StringBuffer result = new StringBuffer();
 		//First the uriref for the subject
-		result.append(startTagWA(3, "Offer", "id", new Integer(offer.getNr()).toString()));
+		result.append(startTagWA(3, "Offer", "id", Long.toString(offer.getNr())));
 		
 		//bsbm:product
-		result.append(leafTag(4, "product", offer.getProduct().toString()));
+		result.append(leafTag(4, "product", Integer.toString(offer.getProduct())));
 				
 		
 		//bsbm:vendor
@@ -202,7 +202,7 @@ public class XMLSerializer implements Serializer {
 		result.append(leafTag(4, "validFrom", validToString));
 		
 		//bsbm:deliveryDays
-		result.append(leafTag(4, "deliveryDays", offer.getDeliveryDays().toString()));
+		result.append(leafTag(4, "deliveryDays", Integer.toString(offer.getDeliveryDays())));
 		
 		//bsbm:offerWebpage
 		result.append(leafTag(4, "offerWebpage", offer.getOfferWebpage()));
@@ -253,12 +253,12 @@ public class XMLSerializer implements Serializer {
 		result.append(leafTag(4, "producer", new Integer(product.getProducer()).toString()));
 		
 		//bsbm:productPropertyNumeric
-		Integer[] ppn = product.getProductPropertyNumeric();
+		int[] ppn = product.getProductPropertyNumeric();
 		for(Integer i=0,j=1;i<ppn.length;i++,j++)
 		{
-			Integer value = ppn[i];
-			if(value!=null)
-				result.append(leafTagWA(4, "ProductPropertyNumeric", value.toString(), "nr", i.toString()));
+			int value = ppn[i];
+			if(value!=0)
+				result.append(leafTagWA(4, "ProductPropertyNumeric", Integer.toString(value), "nr", i.toString()));
 		}
 		
 		//bsbm:productPropertyTextual
@@ -271,11 +271,11 @@ public class XMLSerializer implements Serializer {
 		}
 		
 		//bsbm:productFeature
-		Iterator<Integer> pf = product.getFeatures().iterator();
-		while(pf.hasNext())
+		int[] pf = product.getFeatures();
+		for(int i=0;i<pf.length;i++)
 		{
-			Integer value = pf.next();
-			result.append(leafTag(4, "ProductFeature", value.toString()));
+			int value = pf[i];
+			result.append(leafTag(4, "ProductFeature", Integer.toString(value)));
 
 		}
 		
@@ -302,7 +302,7 @@ public class XMLSerializer implements Serializer {
 	{
 		StringBuffer result = new StringBuffer();
 		//First the uriref for the subject
-		result.append(startTagWA(3, "Person", "id", new Integer(person.getNr()).toString()));
+		result.append(startTagWA(3, "Person", "id", Long.toString(person.getNr())));
 		
 		//foaf:name
 		result.append(leafTag(4, "name", person.getName()));
@@ -314,7 +314,7 @@ public class XMLSerializer implements Serializer {
 		result.append(leafTag(4, "country", person.getCountryCode()));
 		
 		//dc:publisher
-		result.append(leafTag(4, "publisher", person.getPublisher().toString()));
+		result.append(leafTag(4, "publisher", Integer.toString(person.getPublisher())));
 		
 		//dc:date
 		GregorianCalendar date = new GregorianCalendar();
@@ -381,7 +381,7 @@ public class XMLSerializer implements Serializer {
 
 		
 		//dc:publisher
-		result.append(leafTag(4, "publisher", pf.getPublisher().toString()));
+		result.append(leafTag(4, "publisher", Integer.toString(pf.getPublisher())));
 		
 		//dc:date
 		GregorianCalendar date = new GregorianCalendar();
@@ -439,13 +439,13 @@ public class XMLSerializer implements Serializer {
 	{
 		StringBuffer result = new StringBuffer();
 		//First the uriref for the subject
-		result.append(startTagWA(3, "Review", "id", new Integer(review.getNr()).toString()));
+		result.append(startTagWA(3, "Review", "id", Long.toString(review.getNr())));
 
 		//bsbm:reviewFor
-		result.append(leafTag(4, "reviewfor", review.getProduct().toString()));
+		result.append(leafTag(4, "reviewfor", Integer.toString(review.getProduct())));
 		
 		//rev:reviewer
-		result.append(leafTag(4, "reviewer", new Integer(review.getPerson()).toString()));
+		result.append(leafTag(4, "reviewer", Long.toString(review.getPerson())));
 		
 		//bsbm:reviewDate
 		GregorianCalendar reviewDate = new GregorianCalendar();
@@ -460,16 +460,16 @@ public class XMLSerializer implements Serializer {
 		result.append(leafTagWA(4, "text", review.getText(), "lang", ISO3166.language[review.getLanguage()]));
 		
 		//bsbm:ratingX
-		Integer[] ratings = review.getRatings();
+		int[] ratings = review.getRatings();
 		for(Integer i=0,j=1;i<ratings.length;i++,j++)
 		{
-			Integer value = ratings[i];
-			if(value!=null)
-				result.append(leafTagWA(4, "rating", value.toString(), "nr", j.toString()));
+			int value = ratings[i];
+			if(value!=0)
+				result.append(leafTagWA(4, "rating", Integer.toString(value), "nr", j.toString()));
 		}
 		
 		//dc:publisher
-		result.append(leafTag(4, "publisher", review.getPublisher().toString()));
+		result.append(leafTag(4, "publisher", Integer.toString(review.getPublisher())));
 		
 		//dc:date
 		GregorianCalendar date = new GregorianCalendar();
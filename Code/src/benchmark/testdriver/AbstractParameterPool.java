@@ -12,6 +12,7 @@ import java.util.Random;
 
 import benchmark.generator.Generator;
 import benchmark.generator.RandomBucket;
+import benchmark.generator.TestDriverData;
 import benchmark.generator.ValueGenerator;
 import benchmark.model.ProductType;
 
@@ -25,11 +26,11 @@ public abstract class AbstractParameterPool {
 	protected HashMap<String,Integer> wordHash;
 	protected String[] wordList;
 	protected Integer[] producerOfProduct;
-	protected Integer[] vendorOfOffer;
-	protected Integer[] ratingsiteOfReview;
+	protected long[] vendorOfOffer;
+	protected long[] ratingsiteOfReview;
 	protected Integer productCount;
-	protected Integer reviewCount;
-	protected Integer offerCount;
+	protected long reviewCount;
+	protected long offerCount;
 	protected int productTypeCount;
 	protected List<Integer> maxProductTypePerLevel;
 	
@@ -42,12 +43,7 @@ public abstract class AbstractParameterPool {
 	}
 	
     protected void init(File resourceDir, long seed) {
-		Random seedGen = new Random(seed);
-		valueGen = new ValueGenerator(seedGen.nextLong());
-
-		countryGen = Generator.createCountryGenerator(seedGen.nextLong());
-		
-		valueGen2 = new ValueGenerator(seedGen.nextLong());
+		initGenerators(seed);
     	
 		//Read in the Product Type hierarchy from resourceDir/pth.dat
 		readProductTypeHierarchy(resourceDir);
@@ -65,14 +61,46 @@ public abstract class AbstractParameterPool {
 		readDateAndLabelWords(resourceDir);
 	}
 
+	/*
+	 * Init with the Test Driver data of a Generator run in this JVM
+	 */
+	protected void init(TestDriverData data, long seed) {
+		initGenerators(seed);
+
+		productTypeLeaves = data.productTypeLeaves;
+		productTypeCount = data.productTypeCount;
+		maxProductTypePerLevel = data.maxProductTypeNrPerLevel;
+		producerOfProduct = data.producerOfProduct;
+		scalefactor = producerOfProduct[producerOfProduct.length - 1];
+		vendorOfOffer = data.vendorOfOffer;
+		ratingsiteOfReview = data.ratingsiteOfReview;
+		productCount = data.productCount;
+		reviewCount = data.reviewCount;
+		offerCount = data.offerCount;
+		currentDate = data.currentDate;
+		currentDateString = formatDateString(currentDate);
+		//A copy has the same iteration order as the map read from cdlw.dat
+		wordHash = new HashMap<String, Integer>(data.wordList);
+		wordList = wordHash.keySet().toArray(new String[0]);
+	}
+
+	private void initGenerators(long seed) {
+		Random seedGen = new Random(seed);
+		valueGen = new ValueGenerator(seedGen.nextLong());
+
+		countryGen = Generator.createCountryGenerator(seedGen.nextLong());
+		
+		valueGen2 = new ValueGenerator(seedGen.nextLong());
+	}
+
 	private void readDateAndLabelWords(File resourceDir) {
 		File cdlw = new File(resourceDir, "cdlw.dat");
 		ObjectInputStream currentDateAndLabelWordsInput;
 		try {
 			currentDateAndLabelWordsInput = new ObjectInputStream(new FileInputStream(cdlw));
 			productCount = currentDateAndLabelWordsInput.readInt();
-			reviewCount = currentDateAndLabelWordsInput.readInt();
-			offerCount = currentDateAndLabelWordsInput.readInt();
+			reviewCount = TestDriverData.readCount(currentDateAndLabelWordsInput);
+			offerCount = TestDriverData.readCount(currentDateAndLabelWordsInput);
 			currentDate = (GregorianCalendar) currentDateAndLabelWordsInput.readObject();
 			currentDateString = formatDateString(currentDate);
 			
@@ -93,7 +121,7 @@ public abstract class AbstractParameterPool {
 		ObjectInputStream reviewRatingsiteInput;
 		try {
 			reviewRatingsiteInput = new ObjectInputStream(new FileInputStream(rr));
-			ratingsiteOfReview = (Integer[]) reviewRatingsiteInput.readObject();
+			ratingsiteOfReview = TestDriverData.readNumbers(reviewRatingsiteInput.readObject());
 		} catch(IOException e) {
 			System.err.println("Could not open or process file " + rr.getAbsolutePath());
 			System.err.println(e.getMessage());
@@ -107,7 +135,7 @@ public abstract class AbstractParameterPool {
 		ObjectInputStream offerVendorInput;
 		try {
 			offerVendorInput = new ObjectInputStream(new FileInputStream(vo));
-			vendorOfOffer = (Integer[]) offerVendorInput.readObject();
+			vendorOfOffer = TestDriverData.readNumbers(offerVendorInput.readObject());
 		} catch(IOException e) {
 			System.err.println("Could not open or process file " + pp.getAbsolutePath());
 			System.err.println(e.getMessage());
@@ -163,6 +191,17 @@ public abstract class AbstractParameterPool {
 		return productNr;
 	}
 	
+	/*
+	 * Random number from 1 to count. Counts in the int range use the same
+	 * random sequence as before.
+	 */
+	protected long getRandomNr(long count) {
+		if(count<=Integer.MAX_VALUE)
+			return valueGen.randomInt(1, (int)count);
+		else
+			return valueGen.randomLong(1, count);
+	}
+	
 	/*
 	 * Returns the ProducerNr of given Product Nr.
 	 */
@@ -177,7 +216,7 @@ public abstract class AbstractParameterPool {
 	/*
 	 * Returns the ProducerNr of given Product Nr.
 	 */
-	protected Integer getVendorOfOffer(Integer offerNr) {
+	protected Integer getVendorOfOffer(long offerNr) {
 		Integer vendorNr = Arrays.binarySearch(vendorOfOffer, offerNr);
 		if(vendorNr<0)
 			vendorNr = - vendorNr - 1;
@@ -188,7 +227,7 @@ public abstract class AbstractParameterPool {
 	/*
 	 * Returns the Rating Site Nr of given Review Nr
 	 */
-	protected Integer getRatingsiteOfReviewer(Integer reviewNr) {
+	protected Integer getRatingsiteOfReviewer(long reviewNr) {
 		Integer ratingSiteNr = Arrays.binarySearch(ratingsiteOfReview, reviewNr);
 		if(ratingSiteNr<0)
 			ratingSiteNr = - ratingSiteNr - 1;
@@ -0,0 +1,49 @@
+package benchmark.testdriver;
+
+import java.util.Arrays;
+
+import org.apache.jena.atlas.lib.FileOps;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.system.JenaSystem;
+import org.apache.log4j.PropertyConfigurator;
+import org.apache.log4j.xml.DOMConfigurator;
+
+import benchmark.generator.Generator;
+import benchmark.generator.TestDriverData;
+import benchmark.serializer.DatasetLoader;
+import benchmark.serializer.StreamRDFSerializer;
+
+/*
+ * Generates a dataset into an in-memory Jena dataset and runs the Test Driver
+ * against it in the same JVM. Neither the dataset nor the Test Driver data
+ * are written to disk; the results are written as by the Test Driver.
+ *
+ * Usage: InMemoryBenchmark <Generator options> -- <Test Driver options>
+ */
+public class InMemoryBenchmark {
+	public static void main(String... args) {
+		int separator = Arrays.asList(args).indexOf("--");
+		if(separator<0) {
+			System.err.println("Usage: InMemoryBenchmark <Generator options> -- <Test Driver options>");
+			System.err.println("The -s option of the Generator and the endpoint and -idir options of the Test Driver are not used.");
+			System.exit(-1);
+		}
+		String[] generatorArgs = Arrays.copyOfRange(args, 0, separator);
+		String[] testDriverArgs = Arrays.copyOfRange(args, separator+1, args.length);
+		boolean forwardChaining = Arrays.asList(generatorArgs).contains("-fc");
+
+		JenaSystem.init();
+		if ( FileOps.exists("log4j.properties") )
+			PropertyConfigurator.configureAndWatch("log4j.properties", 60*1000);
+		else
+			DOMConfigurator.configureAndWatch("log4j.xml", 60 * 1000);
+
+		Dataset dataset = DatasetFactory.createTxnMem();
+		StreamRDFSerializer serializer = new StreamRDFSerializer(new DatasetLoader(dataset.asDatasetGraph(), false), forwardChaining);
+		TestDriverData data = Generator.generate(serializer, generatorArgs);
+
+		TestDriver testDriver = new TestDriver(testDriverArgs, data, dataset);
+		testDriver.runBenchmark();
+	}
+}
@@ -8,7 +8,9 @@ package benchmark.testdriver;
 
 import java.io.IOException ;
 import java.io.InputStream ;
+import java.io.StringWriter ;
 import java.net.SocketTimeoutException ;
+import java.util.ArrayList ;
 
 import javax.xml.parsers.SAXParser ;
 import javax.xml.parsers.SAXParserFactory ;
@@ -25,10 +27,15 @@ import org.apache.jena.query.Dataset ;
 import org.apache.jena.query.QueryExecution ;
 import org.apache.jena.query.QueryExecutionFactory ;
 import org.apache.jena.query.QueryFactory ;
+import org.apache.jena.query.QuerySolution ;
+import org.apache.jena.query.ResultSetFactory ;
 import org.apache.jena.query.ResultSetFormatter ;
+import org.apache.jena.query.ResultSetRewindable ;
 import org.apache.jena.rdf.model.Model ;
+import org.apache.jena.rdf.model.RDFNode ;
 import org.apache.jena.shared.JenaException ;
 import org.apache.jena.sparql.core.assembler.AssemblerUtils ;
+import org.apache.jena.update.UpdateAction ;
 
 public class LocalConnectionJena implements ServerConnection
 {
@@ -60,6 +67,16 @@ public class LocalConnectionJena implements ServerConnection
         //this.dataset = TDBFactory.createDataset(location) ;
     }
     
+    // Run on a dataset of this JVM, e.g. an in-memory dataset filled by the Generator
+    public LocalConnectionJena(Dataset dataset, String defaultGraph, int timeout)
+    {
+        this.queryService = "jena:" ;
+        this.updateService = null ;
+        this.defaultGraph = defaultGraph ;
+        this.timeout = timeout ;
+        this.dataset = dataset ;
+    }
+    
     @Override
     public void close()
     {}
@@ -188,10 +205,126 @@ public class LocalConnectionJena implements ServerConnection
         } finally { queryExecution.close(); }
     }
 
+    /*
+     * Gather information about the result a query returns.
+     * The row values are taken in the same way as SPARQLConnection does from
+     * the XML results so qualification files can be compared across endpoints.
+     */
     @Override
     public QueryResult executeValidation(Query query, byte queryType)
     {
-        return null ;
+        String queryString = query.getQueryString() ;
+        int queryNr = query.getNr() ;
+        String[] rowNames = query.getRowNames() ;
+        boolean sorted = queryString.toLowerCase().contains("order by") ;
+        QueryResult queryResult = null ;
+
+        if ( queryType == Query.UPDATE_TYPE ) {
+            UpdateAction.parseExecute(queryString, dataset) ;
+            logResultInfo(query, "") ;
+            return null ;
+        }
+
+        org.apache.jena.query.Query jenaQuery = QueryFactory.create(queryString) ;
+        try ( QueryExecution queryExecution = QueryExecutionFactory.create(jenaQuery, dataset) ) {
+            if ( jenaQuery.isSelectType() ) {
+                ResultSetRewindable resultSet = ResultSetFactory.makeRewindable(queryExecution.execSelect()) ;
+                logResultInfo(query, ResultSetFormatter.asXMLString(resultSet)) ;
+                resultSet.reset() ;
+                if ( queryType == Query.SELECT_TYPE )
+                    queryResult = gatherResultInfoForSelectQuery(queryString, queryNr, sorted, resultSet, rowNames) ;
+            }
+            else if ( jenaQuery.isDescribeType() )
+                logResultInfo(query, modelToString(queryExecution.execDescribe())) ;
+            else if ( jenaQuery.isConstructType() )
+                logResultInfo(query, modelToString(queryExecution.execConstruct())) ;
+            else
+                logResultInfo(query, "") ;
+        }
+
+        if ( queryResult != null )
+            queryResult.setRun(query.getQueryMix().getRun()) ;
+        return queryResult ;
+    }
+
+    private static QueryResult gatherResultInfoForSelectQuery(String queryString, int queryNr, boolean sorted,
+                                                              ResultSetRewindable resultSet, String[] rows)
+    {
+        ArrayList<String> headList = new ArrayList<String>(resultSet.getResultVars()) ;
+        QueryResult queryResult = new QueryResult(queryNr, queryString, resultSet.size(), sorted, headList) ;
+
+        while ( resultSet.hasNext() ) {
+            QuerySolution solution = resultSet.next() ;
+            StringBuilder result = new StringBuilder() ;
+
+            // Get the row values and paste them together to one String
+            for ( String rowName : rows ) {
+                if ( rowName == null )
+                    continue ;
+                RDFNode node = solution.get(rowName) ;
+                if ( node == null )
+                    continue ;
+                if ( result.length() > 0 )
+                    result.append("\n") ;
+                result.append(rowName + ": " + nodeText(node)) ;
+            }
+            queryResult.addResult(result.toString()) ;
+        }
+        return queryResult ;
+    }
+
+    /* The text of the term as it appears in the SPARQL XML results (URI, lexical form, bnode label) */
+    private static String nodeText(RDFNode node)
+    {
+        String text ;
+        if ( node.isURIResource() )
+            text = node.asResource().getURI() ;
+        else if ( node.isLiteral() )
+            text = node.asLiteral().getLexicalForm() ;
+        else
+            text = node.asResource().getId().getLabelString() ;
+        return normalizeText(text) ;
+    }
+
+    /* Whitespace normalization as done by JDOM's Element.getTextNormalize() */
+    private static String normalizeText(String text)
+    {
+        StringBuilder sb = new StringBuilder(text.length()) ;
+        boolean space = false ;
+        for ( int i = 0 ; i < text.length() ; i++ ) {
+            char c = text.charAt(i) ;
+            if ( c == ' ' || c == '\t' || c == '\n' || c == '\r' ) {
+                space = true ;
+                continue ;
+            }
+            if ( space && sb.length() > 0 )
+                sb.append(' ') ;
+            space = false ;
+            sb.append(c) ;
+        }
+        return sb.toString() ;
+    }
+
+    private static String modelToString(Model model)
+    {
+        StringWriter sw = new StringWriter() ;
+        model.write(sw, "N-TRIPLES") ;
+        return sw.toString() ;
+    }
+
+    private void logResultInfo(Query query, String queryResult)
+    {
+        if ( ! logger.isEnabledFor(Level.ALL) )
+            return ;
+        StringBuffer sb = new StringBuffer() ;
+
+        sb.append("\n\n\tQuery " + query.getNr() + " of run " + (query.getQueryMix().getQueryMixRuns()+1) + ":\n") ;
+        sb.append("\n\tQuery string:\n\n") ;
+        sb.append(query.getQueryString()) ;
+        sb.append("\n\n\tResult:\n\n") ;
+        sb.append(queryResult) ;
+        sb.append("\n\n__________________________________________________________________________________\n") ;
+        logger.log(Level.ALL, sb.toString()) ;
     }
 
     
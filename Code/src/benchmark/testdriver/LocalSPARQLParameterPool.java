@@ -4,6 +4,7 @@ import java.io.*;
 import java.util.*;
 
 import benchmark.generator.DateGenerator;
+import benchmark.generator.TestDriverData;
 import benchmark.model.*;
 import benchmark.vocabulary.*;
 
@@ -19,6 +20,19 @@ public class LocalSPARQLParameterPool extends AbstractParameterPool {
 	
 	public LocalSPARQLParameterPool(File resourceDirectory, Long seed, File updateDatasetFile) {
 		init(resourceDirectory, seed);
+		openUpdateDataset(updateDatasetFile);
+	}
+	
+	public LocalSPARQLParameterPool(TestDriverData data, Long seed) {
+		init(data, seed);
+	}
+	
+	public LocalSPARQLParameterPool(TestDriverData data, Long seed, File updateDatasetFile) {
+		init(data, seed);
+		openUpdateDataset(updateDatasetFile);
+	}
+	
+	private void openUpdateDataset(File updateDatasetFile) {
 		try {
 			updateFileReader = new BufferedReader(new FileReader(updateDatasetFile));
 		} catch (FileNotFoundException e) {
@@ -120,7 +134,7 @@ public class LocalSPARQLParameterPool extends AbstractParameterPool {
 	 * Get a random Offer URI
 	 */
 	private String getRandomOfferURI() {
-		Integer offerNr = valueGen.randomInt(1, offerCount);
+		long offerNr = getRandomNr(offerCount);
 		Integer vendorNr = getVendorOfOffer(offerNr);
 		
 		return Offer.getURIref(offerNr, vendorNr);
@@ -130,7 +144,7 @@ public class LocalSPARQLParameterPool extends AbstractParameterPool {
 	 * Get a random Review URI
 	 */
 	private String getRandomReviewURI() {
-		Integer reviewNr = valueGen.randomInt(1, reviewCount);
+		long reviewNr = getRandomNr(reviewCount);
 		Integer ratingSiteNr = getRatingsiteOfReviewer(reviewNr);
 		
 		return Review.getURIref(reviewNr, ratingSiteNr);
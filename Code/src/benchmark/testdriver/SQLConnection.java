@@ -6,6 +6,8 @@ import org.apache.log4j.Logger;
 import benchmark.qualification.QueryResult;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 public class SQLConnection implements ServerConnection {
 	private Statement statement;
@@ -151,9 +153,98 @@ public class SQLConnection implements ServerConnection {
 		}
 	}
 
+	/*
+	 * Gather information about the result a query returns.
+	 * Row values are read by column label, using the row names of the queryNvalid.txt file.
+	 */
 	@Override
     public QueryResult executeValidation(Query query, byte queryType) {
-		// TODO Auto-generated method stub
-		return null;
+		String queryString = query.getQueryString();
+		int queryNr = query.getNr();
+		String[] rowNames = query.getRowNames();
+		boolean sorted = queryString.toLowerCase().contains("order by");
+		QueryResult queryResult = null;
+
+		try {
+			if(queryType==Query.UPDATE_TYPE) {
+				statement.executeUpdate(queryString);
+				logResultInfo(query, "");
+				return null;
+			}
+
+			try(ResultSet results = statement.executeQuery(queryString)) {
+				ResultSetMetaData metaData = results.getMetaData();
+				ArrayList<String> headList = new ArrayList<String>();
+				HashMap<String, Integer> columns = new HashMap<String, Integer>();
+				for(int i=1;i<=metaData.getColumnCount();i++) {
+					String label = metaData.getColumnLabel(i);
+					headList.add(label);
+					if(!columns.containsKey(label.toLowerCase()))
+						columns.put(label.toLowerCase(), i);
+				}
+
+				ArrayList<String> resultRows = new ArrayList<String>();
+				while(results.next()) {
+					StringBuilder result = new StringBuilder();
+
+					//get the row values and paste it together to one String
+					for(int i=0;i<rowNames.length;i++) {
+						String rowName = rowNames[i];
+						if(rowName==null)
+							continue;
+						Integer column = columns.get(rowName.toLowerCase());
+						if(column==null)
+							continue;
+						String value = results.getString(column);
+						if(value==null)
+							continue;
+						if(result.length()==0)
+							result.append(rowName + ": " + value.trim());
+						else
+							result.append("\n" + rowName + ": " + value.trim());
+					}
+					resultRows.add(result.toString());
+				}
+
+				logResultInfo(query, resultRows);
+				if(queryType==Query.SELECT_TYPE) {
+					queryResult = new QueryResult(queryNr, queryString, resultRows.size(), sorted, headList);
+					for(String row: resultRows)
+						queryResult.addResult(row);
+				}
+			}
+		} catch(SQLException e) {
+			while(e!=null) {
+				e.printStackTrace();
+				e=e.getNextException();
+			}
+			System.err.println("\n\nError for Query " + queryNr + ":\n\n" + queryString);
+			System.exit(-1);
+		}
+
+		if(queryResult!=null)
+			queryResult.setRun(query.getQueryMix().getRun());
+		return queryResult;
+	}
+
+	private void logResultInfo(Query query, ArrayList<String> resultRows) {
+		StringBuilder sb = new StringBuilder();
+		for(String row: resultRows) {
+			sb.append(row);
+			sb.append("\n\n");
+		}
+		logResultInfo(query, sb.toString());
+	}
+
+	private void logResultInfo(Query query, String queryResult) {
+		StringBuffer sb = new StringBuffer();
+
+		sb.append("\n\n\tQuery " + query.getNr() + " of run " + (query.getQueryMix().getQueryMixRuns()+1) + ":\n");
+		sb.append("\n\tQuery string:\n\n");
+		sb.append(query.getQueryString());
+		sb.append("\n\n\tResult:\n\n");
+		sb.append(queryResult);
+		sb.append("\n\n__________________________________________________________________________________\n");
+		logger.log(Level.ALL, sb.toString());
 	}
 }
@@ -99,15 +99,15 @@ public class SQLParameterPool extends AbstractParameterPool {
 	/*
 	 * Get a random Offer URI
 	 */
-	private Integer getRandomOfferURI() {
-		return valueGen.randomInt(1, offerCount);
+	private Long getRandomOfferURI() {
+		return getRandomNr(offerCount);
 	}
 	
 	/*
 	 * Get a random Review URI
 	 */
-	private Integer getRandomReviewURI() {
-		return valueGen.randomInt(1, reviewCount);
+	private Long getRandomReviewURI() {
+		return getRandomNr(reviewCount);
 	}
 	
 	
@@ -21,6 +21,7 @@ import java.io.* ;
 import java.nio.file.Files;
 import java.util.* ;
 
+import benchmark.generator.TestDriverData ;
 import benchmark.qualification.QueryResult ;
 import org.apache.jena.Jena;
 import org.apache.jena.atlas.io.IO;
@@ -30,6 +31,7 @@ import org.apache.jena.atlas.json.JsonBuilder;
 import org.apache.jena.atlas.json.JsonObject;
 import org.apache.jena.atlas.lib.DateTimeUtils;
 import org.apache.jena.atlas.lib.FileOps ;
+import org.apache.jena.query.Dataset ;
 import org.apache.jena.system.JenaSystem;
 import org.apache.log4j.Level ;
 import org.apache.log4j.Logger ;
@@ -123,6 +125,23 @@ public class TestDriver {
 		Runtime.getRuntime().addShutdownHook(tds);
 	}
 
+	/*
+	 * Runs against a dataset in this JVM with the Test Driver data of a
+	 * Generator run in this JVM. The endpoint and -idir are not used.
+	 */
+	public TestDriver(String[] args, TestDriverData data, Dataset dataset) {
+		processProgramParameters(args);
+		if (doSQL || multithreading) {
+			System.err.println("-sql and -mt are not supported for a dataset in memory");
+			System.exit(-1);
+		}
+		if (updateFile == null)
+			parameterPool = new LocalSPARQLParameterPool(data, seed);
+		else
+			parameterPool = new LocalSPARQLParameterPool(data, seed, new File(updateFile));
+		server = new LocalConnectionJena(dataset, defaultGraph, timeout);
+	}
+
 	/*
 	 * Read which query mixes (directories) are used in the use case
 	 */
@@ -1135,23 +1154,30 @@ public class TestDriver {
 	    else
 	        DOMConfigurator.configureAndWatch("log4j.xml", 60 * 1000);
 		TestDriver testDriver = new TestDriver(argv);
-		testDriver.init();
+		testDriver.runBenchmark();
+	}
+
+	/*
+	 * Read the queries and run the chosen kind of test
+	 */
+	public void runBenchmark() {
+		init();
 		System.out.println("\nStarting test...\n");
 		boolean printableResults = false ; 
-		if (testDriver.multithreading) {
-			testDriver.runMT();
+		if (multithreading) {
+			runMT();
 			printableResults = true ;
-		} else if (testDriver.qualification)
-			testDriver.runQualification();
-		else if (testDriver.rampup)
-			testDriver.runRampup();
+		} else if (qualification)
+			runQualification();
+		else if (rampup)
+			runRampup();
 		else {
-			testDriver.run();
+			run();
 			printableResults = true ;
 		}
 
 		if ( false && printableResults )
-		    System.out.println("\n" + testDriver.printResults(true));
+		    System.out.println("\n" + printResults(true));
 		
 	}
 }
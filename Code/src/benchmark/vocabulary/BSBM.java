@@ -1,6 +1,6 @@
 package benchmark.vocabulary;
 
-import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BSBM {
 	//The Namespace of this vocabulary as String
@@ -8,7 +8,7 @@ public class BSBM {
 	
 	public static String PREFIX = "bsbm:";
 	
-	private static HashMap<String, String> uriMap = new HashMap<String, String>();
+	private static ConcurrentHashMap<String, String> uriMap = new ConcurrentHashMap<String, String>();
 	
 	/*
 	 * For prefixed versions
@@ -234,7 +234,7 @@ public class BSBM {
 		
 		PREFIX = vocabularyPrefix;
 		
-		uriMap = new HashMap<String, String>();
+		uriMap = new ConcurrentHashMap<String, String>();
 		
 		INST_NS = instanceNS;
 		
@@ -1,6 +1,6 @@
 package benchmark.vocabulary;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FOAF {
 	//The Namespace of this vocabulary as String
@@ -8,7 +8,7 @@ public class FOAF {
 
 	public static final String PREFIX = "foaf:";
 	
-	private static HashMap<String, String> uriMap = new HashMap<String, String>();
+	private static ConcurrentHashMap<String, String> uriMap = new ConcurrentHashMap<String, String>();
 	
 	/*
 	 * For prefixed versions
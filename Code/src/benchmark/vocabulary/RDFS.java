@@ -1,6 +1,6 @@
 package benchmark.vocabulary;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RDFS {
 	//The namespace of this vocabulary as String
@@ -11,7 +11,7 @@ public class RDFS {
 
 	public static final String PREFIX = "rdfs:";
 	
-	private static HashMap<String, String> uriMap = new HashMap<String, String>();
+	private static ConcurrentHashMap<String, String> uriMap = new ConcurrentHashMap<String, String>();
 	
 	/*
 	 * For prefixed versions
@@ -1,6 +1,6 @@
 package benchmark.vocabulary;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class REV {
 	
@@ -9,7 +9,7 @@ public class REV {
 	
 	public static final String PREFIX = "rev:";
 	
-	private static HashMap<String, String> uriMap = new HashMap<String, String>();
+	private static ConcurrentHashMap<String, String> uriMap = new ConcurrentHashMap<String, String>();
 	
 	/*
 	 * For prefixed versions